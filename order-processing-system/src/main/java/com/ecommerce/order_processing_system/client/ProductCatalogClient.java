@@ -1,11 +1,12 @@
 package com.ecommerce.order_processing_system.client;
 
 import com.ecommerce.order_processing_system.dto.ProductDTO;
+import com.ecommerce.order_processing_system.dto.StockReleaseRequest;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Map;
+import java.util.List;
 
 @FeignClient(name = "product-catalog-service", url = "${app.product-catalog.url}")
 public interface ProductCatalogClient {
@@ -19,4 +20,10 @@ public interface ProductCatalogClient {
     @RequestMapping(method = RequestMethod.PATCH, value = "/api/products/{productId}/update/lote/{quantity}")
     boolean reservePreOrderSlots(@PathVariable String productId, @PathVariable Integer quantity);
 
+    /**
+     * Returns the ids of the releases the catalog applied now or had already applied.
+     */
+    @PostMapping("/api/products/releases")
+    List<String> releaseReservations(@RequestBody List<StockReleaseRequest> releases);
+
 }
\ No newline at end of file
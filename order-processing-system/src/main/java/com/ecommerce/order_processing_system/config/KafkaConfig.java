@@ -1,15 +1,45 @@
 package com.ecommerce.order_processing_system.config;
 
-import com.ecommerce.order_processing_system.kafka.events.OrderCreatedEvent;
+import com.ecommerce.order_processing_system.kafka.events.OrderFailedEvent;
+import com.ecommerce.order_processing_system.kafka.events.OrderProcessedEvent;
+import com.ecommerce.order_processing_system.kafka.listener.SkippedEventFilter;
+import com.ecommerce.order_processing_system.kafka.serialization.AvroEventCodec;
+import com.ecommerce.order_processing_system.kafka.serialization.EventDeserializer;
+import com.ecommerce.order_processing_system.kafka.serialization.EventSchemaRegistry;
+import com.ecommerce.order_processing_system.kafka.serialization.EventSerializer;
+import com.ecommerce.order_processing_system.util.TransientFailures;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultAfterRollbackProcessor;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+import org.springframework.util.backoff.FixedBackOff;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+
+import static com.ecommerce.order_processing_system.domain.OrderStatus.CREATED;
+import static com.ecommerce.order_processing_system.domain.OrderStatus.PENDING_APPROVAL;
 
 @Configuration
 @RequiredArgsConstructor
@@ -18,14 +48,219 @@ public class KafkaConfig {
 
     private final KafkaProperties kafkaProperties;
 
+    @Value("${app.kafka.producer.profile:default}")
+    private String producerProfile;
+
+    @Value("${app.kafka.encoding:json}")
+    private String encoding;
+
+    @Value("${app.order.topic.created}")
+    private String createdTopic;
+
+    @Value("${app.order.topic.created-priority:order-events-created-priority}")
+    private String createdPriorityTopic;
+
+    @Value("${app.order.topic.created-high-value:order-events-created-high-value}")
+    private String createdHighValueTopic;
+
+    @Value("${app.order.topic.processed}")
+    private String processedTopic;
+
+    @Value("${app.order.topic.failed}")
+    private String failedTopic;
+
+    @Value("${app.order.topic.pending-approval}")
+    private String pendingApprovalTopic;
+
+    @Value("${app.order.processing.batch.failed-record-retries:3}")
+    private long batchRetries;
+
+    @Value("${app.order.processing.batch.failed-record-backoff-ms:1000}")
+    private long batchRetryBackoffMs;
+
+    @Value("${app.order.processing.transactional.transaction-id-prefix:order-processing-tx-}")
+    private String transactionIdPrefix;
+
+    @Value("${app.order.processing.transactional.redelivery-backoff-ms:1000}")
+    private long redeliveryBackoffMs;
+
+    @Value("${app.order.processing.transactional.redelivery-attempts:60}")
+    private long redeliveryAttempts;
+
+    @Bean
+    public EventSchemaRegistry eventSchemaRegistry() {
+        return EventSchemaRegistry.load();
+    }
+
+    @Bean
+    public AvroEventCodec avroEventCodec(EventSchemaRegistry eventSchemaRegistry, ObjectMapper objectMapper) {
+        return new AvroEventCodec(eventSchemaRegistry, objectMapper);
+    }
+
+    @Bean
+    @Primary
+    public ProducerFactory<String, Object> producerFactory(AvroEventCodec avroEventCodec, MeterRegistry meterRegistry) {
+        return newProducerFactory(kafkaProperties.buildProducerProperties(), avroEventCodec, meterRegistry);
+    }
+
+    /**
+     * Producer for transactional processing mode, kept apart from {@link #producerFactory}: the outbox relay
+     * and the retry topics send outside any transaction. The prefix must differ between running instances.
+     */
     @Bean
-    public ProducerFactory<String, Object> producerFactory() {
+    public ProducerFactory<String, Object> transactionalProducerFactory(AvroEventCodec avroEventCodec, MeterRegistry meterRegistry) {
         Map<String, Object> props = kafkaProperties.buildProducerProperties();
-        return new DefaultKafkaProducerFactory<>(props);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        DefaultKafkaProducerFactory<String, Object> factory = newProducerFactory(props, avroEventCodec, meterRegistry);
+        factory.setTransactionIdPrefix(transactionIdPrefix);
+        return factory;
+    }
+
+    private DefaultKafkaProducerFactory<String, Object> newProducerFactory(Map<String, Object> props,
+                                                                           AvroEventCodec avroEventCodec,
+                                                                           MeterRegistry meterRegistry) {
+        ProducerProfile profile = ProducerProfile.valueOf(producerProfile.trim().toUpperCase().replace('-', '_'));
+        profile.applyTo(props);
+        boolean binary = "avro".equalsIgnoreCase(encoding.trim());
+        log.info("Kafka producer profile={}, encoding={}", profile, binary ? "avro" : "json");
+        DefaultKafkaProducerFactory<String, Object> factory =
+                new DefaultKafkaProducerFactory<>(props, new StringSerializer(), new EventSerializer(avroEventCodec, binary));
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
     }
 
+    /**
+     * Lane topics are created up front: the metrics topology will not start on a missing source topic.
+     */
     @Bean
-    public KafkaTemplate<String, Object> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaAdmin.NewTopics orderLaneTopics(
+            @Value("${app.order.topic.created-priority:order-events-created-priority}") String priorityTopic,
+            @Value("${app.order.topic.created-high-value:order-events-created-high-value}") String highValueTopic,
+            @Value("${app.order.lanes.partitions:3}") int partitions) {
+        return new KafkaAdmin.NewTopics(
+                TopicBuilder.name(priorityTopic).partitions(partitions).build(),
+                TopicBuilder.name(highValueTopic).partitions(partitions).build());
+    }
+
+    @Bean
+    @Primary
+    public KafkaTemplate<String, Object> kafkaTemplate(ProducerFactory<String, Object> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
+    }
+
+    /**
+     * Dead-letters records the listeners outside record mode give up on, to the same {@code -dlt} topic the
+     * record listener's retry topics end in.
+     */
+    @Bean
+    public DeadLetterPublishingRecoverer deadLetterPublishingRecoverer(KafkaTemplate<String, Object> kafkaTemplate) {
+        return new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, failure) -> new TopicPartition(record.topic() + "-dlt", -1));
+    }
+
+    @Bean
+    public KafkaTemplate<String, Object> transactionalKafkaTemplate(
+            @Qualifier("transactionalProducerFactory") ProducerFactory<String, Object> transactionalProducerFactory) {
+        return new KafkaTemplate<>(transactionalProducerFactory);
+    }
+
+    /**
+     * Accepts JSON and Avro encoded events alike, whichever encoding this instance publishes with. Records of
+     * event types no listener here consumes from their topic are skipped on their header, unparsed. Client
+     * metrics, including the per-partition {@code kafka.consumer.fetch.manager.records.lag}, go to Micrometer.
+     */
+    @Bean
+    public ConsumerFactory<Object, Object> consumerFactory(AvroEventCodec avroEventCodec, MeterRegistry meterRegistry) {
+        // Key deserializer stays the one configured under spring.kafka.consumer
+        DefaultKafkaConsumerFactory<Object, Object> factory = new DefaultKafkaConsumerFactory<>(
+                kafkaProperties.buildConsumerProperties(), null, new EventDeserializer(avroEventCodec, consumedEventTypes()));
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
+    }
+
+    private Map<String, Set<String>> consumedEventTypes() {
+        return Map.of(
+                createdTopic, Set.of(CREATED.name()),
+                createdPriorityTopic, Set.of(CREATED.name()),
+                createdHighValueTopic, Set.of(CREATED.name()),
+                processedTopic, Set.of(OrderProcessedEvent.EVENT_TYPE),
+                failedTopic, Set.of(OrderFailedEvent.EVENT_TYPE),
+                pendingApprovalTopic, Set.of(PENDING_APPROVAL.name()));
+    }
+
+    /**
+     * A batch listener reports its first failed record with a {@code BatchListenerFailedException}: the records
+     * before it are committed, and it is retried in place while its failure is transient, then dead-lettered.
+     * Any other failure is dead-lettered straight away. The handler is not a bean, which Boot would apply to the
+     * default factory as well.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchKafkaListenerContainerFactory(
+            ConsumerFactory<Object, Object> consumerFactory, SkippedEventFilter skippedEventFilter,
+            DeadLetterPublishingRecoverer deadLetterPublishingRecoverer) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setRecordFilterStrategy(skippedEventFilter);
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(deadLetterPublishingRecoverer,
+                new FixedBackOff(batchRetryBackoffMs, batchRetries));
+        errorHandler.setBackOffFunction((record, failure) -> TransientFailures.isTransient(failure) ? null : new FixedBackOff(0L, 0L));
+        factory.setCommonErrorHandler(errorHandler);
+        return factory;
+    }
+
+    /**
+     * Records are acknowledged by worker threads as they finish, in any order; with async acks the container
+     * only commits up to the lowest offset that is still in flight.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> keyOrderedKafkaListenerContainerFactory(
+            ConsumerFactory<Object, Object> consumerFactory, SkippedEventFilter skippedEventFilter) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        // Skipped records never reach the listener to be acknowledged, so the filter does it
+        factory.setRecordFilterStrategy(skippedEventFilter);
+        factory.setAckDiscarded(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        return factory;
+    }
+
+    /**
+     * Batch listeners run inside a Kafka transaction of {@link #transactionalProducerFactory}; the container
+     * sends the batch's offsets to it and commits, so records the listener sends through
+     * {@link #transactionalKafkaTemplate} become visible together with the offsets, or not at all. A listener
+     * exception aborts the transaction and the batch is consumed again after the back-off. The transaction
+     * manager is not a bean, which would take the place of the JPA one.
+     * <p>
+     * The listener dead-letters records whose own order failed, so a rollback is a failure of the whole batch,
+     * transient or in the commit. After {@code redelivery-attempts} of them the batch's first record is
+     * dead-lettered and its offset committed, and the rest are consumed again, so the partition does not stall.
+     * Spring only recovers a record after a rollback for record listeners, as a batch failure names no record,
+     * hence the processor treats every batch as recoverable.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> transactionalKafkaListenerContainerFactory(
+            ConsumerFactory<Object, Object> consumerFactory, SkippedEventFilter skippedEventFilter,
+            @Qualifier("transactionalProducerFactory") ProducerFactory<String, Object> transactionalProducerFactory,
+            @Qualifier("transactionalKafkaTemplate") KafkaTemplate<String, Object> transactionalKafkaTemplate,
+            DeadLetterPublishingRecoverer deadLetterPublishingRecoverer) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setRecordFilterStrategy(skippedEventFilter);
+        factory.getContainerProperties().setTransactionManager(new KafkaTransactionManager<>(transactionalProducerFactory));
+        factory.setAfterRollbackProcessor(new DefaultAfterRollbackProcessor<>(deadLetterPublishingRecoverer,
+                new FixedBackOff(redeliveryBackoffMs, redeliveryAttempts), transactionalKafkaTemplate, true) {
+
+            @Override
+            public void process(List<ConsumerRecord<Object, Object>> records, Consumer<Object, Object> consumer,
+                                MessageListenerContainer container, Exception exception, boolean recoverable,
+                                ContainerProperties.EOSMode eosMode) {
+                super.process(records, consumer, container, exception, true, eosMode);
+            }
+        });
+        return factory;
     }
 }
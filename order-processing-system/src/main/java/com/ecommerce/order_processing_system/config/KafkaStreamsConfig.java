@@ -0,0 +1,47 @@
+package com.ecommerce.order_processing_system.config;
+
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.StreamsConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+import org.springframework.kafka.annotation.KafkaStreamsDefaultConfiguration;
+import org.springframework.kafka.config.KafkaStreamsConfiguration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@EnableKafkaStreams
+@ConditionalOnProperty(name = "app.metrics.streams.enabled", havingValue = "true", matchIfMissing = true)
+public class KafkaStreamsConfig {
+
+    @Value("${spring.application.name}-metrics")
+    private String applicationId;
+
+    @Value("${app.metrics.streams.state-dir:data/streams}")
+    private String stateDir;
+
+    @Value("${app.metrics.streams.advertised-host:localhost}:${server.port:8080}")
+    private String applicationServer;
+
+    @Value("${app.metrics.streams.threads:1}")
+    private int threads;
+
+    @Bean(name = KafkaStreamsDefaultConfiguration.DEFAULT_STREAMS_CONFIG_BEAN_NAME)
+    public KafkaStreamsConfiguration kafkaStreamsConfiguration(KafkaProperties kafkaProperties) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, applicationId);
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaProperties.getBootstrapServers());
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir);
+        // Lets each instance find the host owning a store partition for interactive queries
+        props.put(StreamsConfig.APPLICATION_SERVER_CONFIG, applicationServer);
+        props.put(StreamsConfig.NUM_STREAM_THREADS_CONFIG, threads);
+        props.put(StreamsConfig.DEFAULT_KEY_SERDE_CLASS_CONFIG, Serdes.StringSerde.class);
+        props.put(StreamsConfig.DEFAULT_VALUE_SERDE_CLASS_CONFIG, Serdes.StringSerde.class);
+        return new KafkaStreamsConfiguration(props);
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.order_processing_system.config;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+import java.util.Map;
+
+/**
+ * Named producer tunings selected with {@code app.kafka.producer.profile}. Explicit
+ * {@code spring.kafka.producer.*} settings always take precedence over the profile.
+ */
+public enum ProducerProfile {
+
+    DEFAULT(Map.of()),
+
+    // Larger, compressed batches; a few milliseconds of linger lets the outbox relay fill them
+    THROUGHPUT(Map.of(
+            ProducerConfig.BATCH_SIZE_CONFIG, 131072,
+            ProducerConfig.LINGER_MS_CONFIG, 20,
+            ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4",
+            ProducerConfig.ACKS_CONFIG, "all",
+            ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+            ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5)),
+
+    LOW_LATENCY(Map.of(
+            ProducerConfig.BATCH_SIZE_CONFIG, 16384,
+            ProducerConfig.LINGER_MS_CONFIG, 0,
+            ProducerConfig.COMPRESSION_TYPE_CONFIG, "none",
+            ProducerConfig.ACKS_CONFIG, "all",
+            ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true));
+
+    private final Map<String, Object> properties;
+
+    ProducerProfile(Map<String, Object> properties) {
+        this.properties = properties;
+    }
+
+    public void applyTo(Map<String, Object> producerProperties) {
+        properties.forEach(producerProperties::putIfAbsent);
+    }
+}
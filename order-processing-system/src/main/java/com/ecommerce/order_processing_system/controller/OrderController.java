@@ -2,11 +2,16 @@ package com.ecommerce.order_processing_system.controller;
 
 import com.ecommerce.order_processing_system.dto.CreateOrderRequest;
 import com.ecommerce.order_processing_system.dto.OrderResponse;
+import com.ecommerce.order_processing_system.service.AdmissionControlService;
+import com.ecommerce.order_processing_system.service.IdempotentOrderService;
+import com.ecommerce.order_processing_system.service.OrderResponseCache;
 import com.ecommerce.order_processing_system.service.OrderService;
+import com.ecommerce.order_processing_system.service.OrderViewService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,23 +24,38 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService service;
+    private final OrderViewService viewService;
+    private final OrderResponseCache responseCache;
+    private final IdempotentOrderService idempotentService;
+    private final AdmissionControlService admissionControl;
 
     @PostMapping
-    public ResponseEntity<OrderResponse> create(@RequestBody @Valid CreateOrderRequest request) {
-        log.info("Request POST /api/orders [BODY]: {} ", request);
-        OrderResponse response = service.createOrder(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public ResponseEntity<OrderResponse> create(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                @RequestBody @Valid CreateOrderRequest request) {
+        log.info("Request POST /api/orders [Idempotency-Key: {}] [BODY]: {} ", idempotencyKey, request);
+        try (AdmissionControlService.Permit ignored = admissionControl.admit(request)) {
+            if (idempotencyKey == null) {
+                OrderResponse response = service.createOrder(request);
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            }
+
+            IdempotentOrderService.Result result = idempotentService.createOrder(idempotencyKey, request);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header("Idempotent-Replayed", String.valueOf(result.replayed()))
+                    .body(result.response());
+        }
     }
 
     @GetMapping("/{orderId}")
-    public ResponseEntity<OrderResponse> getById(@PathVariable String orderId) {
+    public ResponseEntity<byte[]> getById(@PathVariable String orderId) {
         log.info("Request GET /api/orders/{}", orderId);
-        return ResponseEntity.ok(service.getOrder(orderId));
+        byte[] body = responseCache.get(orderId, () -> viewService.getOrder(orderId));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @GetMapping
     public ResponseEntity<List<OrderResponse>> listByCustomer(@RequestParam String customerId) {
         log.info("Request GET /api/orders?customerId={}", customerId);
-        return ResponseEntity.ok(service.getOrdersByCustomer(customerId));
+        return ResponseEntity.ok(viewService.getOrdersByCustomer(customerId));
     }
 }
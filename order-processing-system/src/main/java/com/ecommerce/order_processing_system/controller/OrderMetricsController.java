@@ -0,0 +1,39 @@
+package com.ecommerce.order_processing_system.controller;
+
+import com.ecommerce.order_processing_system.kafka.streams.OrderMetricsQueryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+@RequestMapping("/api/metrics")
+@ConditionalOnProperty(name = "app.metrics.streams.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderMetricsController {
+
+    private final OrderMetricsQueryService queryService;
+
+    @GetMapping("/orders/status")
+    public ResponseEntity<Map<String, Map<Instant, Long>>> statusCounts(@RequestParam(defaultValue = "60") int minutes,
+                                                                        @RequestParam(defaultValue = "false") boolean local) {
+        log.info("Request GET /api/metrics/orders/status?minutes={}&local={}", minutes, local);
+        return ResponseEntity.ok(queryService.statusCounts(minutes, local));
+    }
+
+    @GetMapping("/revenue/product-type")
+    public ResponseEntity<Map<String, BigDecimal>> revenueByProductType(@RequestParam(defaultValue = "60") int minutes,
+                                                                        @RequestParam(defaultValue = "false") boolean local) {
+        log.info("Request GET /api/metrics/revenue/product-type?minutes={}&local={}", minutes, local);
+        return ResponseEntity.ok(queryService.revenueByProductType(minutes, local));
+    }
+}
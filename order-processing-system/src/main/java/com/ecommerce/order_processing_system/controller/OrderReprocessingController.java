@@ -0,0 +1,46 @@
+package com.ecommerce.order_processing_system.controller;
+
+import com.ecommerce.order_processing_system.dto.ReprocessOrdersRequest;
+import com.ecommerce.order_processing_system.dto.ReprocessingJobResponse;
+import com.ecommerce.order_processing_system.service.OrderReprocessingService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+@RequestMapping("/api/admin/orders/reprocessing")
+public class OrderReprocessingController {
+
+    private final OrderReprocessingService service;
+
+    @PostMapping
+    public ResponseEntity<ReprocessingJobResponse> start(@RequestBody @Valid ReprocessOrdersRequest request) {
+        log.info("Request POST /api/admin/orders/reprocessing [BODY]: {}", request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(service.start(request));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ReprocessingJobResponse>> list() {
+        log.info("Request GET /api/admin/orders/reprocessing");
+        return ResponseEntity.ok(service.list());
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ReprocessingJobResponse> get(@PathVariable String jobId) {
+        log.info("Request GET /api/admin/orders/reprocessing/{}", jobId);
+        return ResponseEntity.ok(service.get(jobId));
+    }
+
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<ReprocessingJobResponse> cancel(@PathVariable String jobId) {
+        log.info("Request DELETE /api/admin/orders/reprocessing/{}", jobId);
+        return ResponseEntity.ok(service.cancel(jobId));
+    }
+}
@@ -0,0 +1,55 @@
+package com.ecommerce.order_processing_system.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(Entitlement.EntitlementId.class)
+@Table(name = "entitlements")
+public class Entitlement {
+
+    @Id
+    private String customerId;
+
+    @Id
+    private String productId;
+
+    @Enumerated(EnumType.STRING)
+    private ProductType productType;
+
+    @Enumerated(EnumType.STRING)
+    private EntitlementStatus status;
+
+    private String orderId;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+        if (status == null) status = EntitlementStatus.ACTIVE;
+    }
+
+    @PreUpdate
+    void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EntitlementId implements Serializable {
+        private String customerId;
+        private String productId;
+    }
+}
@@ -0,0 +1,6 @@
+package com.ecommerce.order_processing_system.domain;
+
+public enum EntitlementStatus {
+    ACTIVE,
+    REVOKED
+}
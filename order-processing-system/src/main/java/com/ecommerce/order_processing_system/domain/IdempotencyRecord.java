@@ -0,0 +1,30 @@
+package com.ecommerce.order_processing_system.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord {
+
+    @Id
+    private String idempotencyKey;
+
+    private String requestHash;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private String response;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+}
@@ -36,6 +36,10 @@ public class Order {
 
     private String failureReason;
 
+    @Version
+    private Long version;
+
+    @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
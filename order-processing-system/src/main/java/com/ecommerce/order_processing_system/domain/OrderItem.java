@@ -9,6 +9,7 @@ import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Data
@@ -41,4 +42,14 @@ public class OrderItem {
     @Column(columnDefinition = "jsonb")
     private Map<String, Object> metadata;
 
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = order != null && order.getCreatedAt() != null ? order.getCreatedAt() : LocalDateTime.now();
+        }
+    }
+
 }
\ No newline at end of file
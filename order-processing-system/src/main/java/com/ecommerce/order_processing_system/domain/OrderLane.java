@@ -0,0 +1,13 @@
+package com.ecommerce.order_processing_system.domain;
+
+/**
+ * Created-event lane an order is processed in; each lane has its own topic, consumer group and lag objective.
+ */
+public enum OrderLane {
+    // Corporate orders and orders above the corporate approval threshold
+    PRIORITY,
+    // Orders above the fraud check threshold
+    HIGH_VALUE,
+    // Everything else, on the original created topic
+    STANDARD
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.order_processing_system.domain;
+
+import com.ecommerce.order_processing_system.dto.OrderItemResponse;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "order_view")
+public class OrderView {
+
+    @Id
+    @Column(name = "order_id")
+    private String orderId;
+
+    private String customerId;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private List<OrderItemResponse> items;
+
+    private BigDecimal totalAmount;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    private String failureReason;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
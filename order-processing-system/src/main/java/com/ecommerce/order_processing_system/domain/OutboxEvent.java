@@ -0,0 +1,48 @@
+package com.ecommerce.order_processing_system.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "event_outbox")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String topic;
+
+    private String messageKey;
+
+    // Class of the serialized event, so the relay sends the same type headers the consumers expect
+    private String eventType;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private String payload;
+
+    // Consumed event this row is an output of, set in transactional processing mode; the relay skips such rows
+    private String sourceEventId;
+
+    // Failed sends so far, maintained by the relay's own statements
+    @Column(insertable = false, updatable = false)
+    private int attempts;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.order_processing_system.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "processed_events")
+public class ProcessedEvent {
+
+    @Id
+    private String eventId;
+
+    private LocalDateTime processedAt;
+}
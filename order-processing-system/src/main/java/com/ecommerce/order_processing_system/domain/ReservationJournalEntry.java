@@ -0,0 +1,59 @@
+package com.ecommerce.order_processing_system.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "reservation_journal")
+public class ReservationJournalEntry {
+
+    public enum Kind {
+        STOCK,
+        PRE_ORDER_SLOTS
+    }
+
+    public enum Status {
+        // Reserved in the catalog by an attempt that has not settled yet
+        RESERVED,
+        // The order failed; waiting for the catalog to acknowledge the release
+        RELEASING
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String attemptId;
+
+    private String orderId;
+
+    private String productId;
+
+    @Enumerated(EnumType.STRING)
+    private Kind kind;
+
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // Stable across replays, so the catalog applies each release once
+    public String releaseId() {
+        return "order-reservation-" + id;
+    }
+}
@@ -6,8 +6,9 @@ import com.ecommerce.order_processing_system.domain.policy.DigitalPolicy;
 import com.ecommerce.order_processing_system.dto.ProductDTO;
 import com.ecommerce.order_processing_system.exception.AlreadyOwnedDigitalProductException;
 import com.ecommerce.order_processing_system.exception.LicenseUnavailableException;
-import com.ecommerce.order_processing_system.service.OrderService;
+import com.ecommerce.order_processing_system.service.EntitlementService;
 import com.ecommerce.order_processing_system.service.ProductService;
+import com.ecommerce.order_processing_system.service.SideEffectDispatcher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -21,9 +22,10 @@ import static com.ecommerce.order_processing_system.domain.OrderStatus.*;
 @RequiredArgsConstructor
 public class DigitalProductValidator implements ProductValidator {
 
-    private final OrderService orderService;
+    private final EntitlementService entitlementService;
     private final ProductService productService;
     private final DigitalPolicy digitalPolicy;
+    private final SideEffectDispatcher sideEffects;
 
     @Override
     public void validate(Order order, OrderItem item) {
@@ -31,15 +33,7 @@ public class DigitalProductValidator implements ProductValidator {
 
         ProductDTO product = productService.getProductOrThrow(item.getProductId());
 
-        boolean clientAlreadyOwnsProduct =
-                orderService.getOrdersByCustomer(order.getCustomerId()).stream()
-                        .filter(o -> o.getStatus() == PROCESSED)
-                        .flatMap(o -> o.getItems().stream())
-                        .anyMatch(i ->
-                                i.getProductId().equals(item.getProductId())
-                        );
-
-        if (clientAlreadyOwnsProduct) {
+        if (entitlementService.ownsProduct(order.getCustomerId(), item.getProductId())) {
             throw new AlreadyOwnedDigitalProductException(ALREADY_OWNED);
         }
 
@@ -66,7 +60,12 @@ public class DigitalProductValidator implements ProductValidator {
 
         String licenseKey = UUID.randomUUID().toString();
         log.info("Key active created={}", licenseKey);
-        digitalPolicy.sendEmail(order.getOrderId(), licenseKey);
+        sideEffects.record("digital.email", () -> digitalPolicy.sendEmail(order.getOrderId(), licenseKey));
+    }
+
+    @Override
+    public boolean isLineIndependent() {
+        return true;
     }
 
 }
\ No newline at end of file
@@ -8,11 +8,14 @@ import com.ecommerce.order_processing_system.exception.OutOfStockException;
 import com.ecommerce.order_processing_system.kafka.producer.KafkaEventPublisher;
 import com.ecommerce.order_processing_system.kafka.events.LowStockAlertEvent;
 import com.ecommerce.order_processing_system.service.ProductService;
+import com.ecommerce.order_processing_system.service.SideEffectDispatcher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+
 import static com.ecommerce.order_processing_system.domain.OrderStatus.OUT_OF_STOCK;
 
 @Slf4j
@@ -23,6 +26,7 @@ public class PhysicalProductValidator implements ProductValidator {
     private final ProductService productService;
     private final KafkaEventPublisher eventPublisher;
     private final PhysicalPolicy physicalPolicy;
+    private final SideEffectDispatcher sideEffects;
 
     @Value("${app.order.stock-zero}")
     private int stockZero;
@@ -45,7 +49,7 @@ public class PhysicalProductValidator implements ProductValidator {
         }
 
         int newStock = product.getStockQuantity() - item.getQuantity();
-        boolean reserved = productService.updateStock(product.getProductId(), newStock);
+        boolean reserved = productService.reserveStock(product.getProductId(), newStock, item.getQuantity());
 
         if (!reserved) {
             throw new OutOfStockException(OUT_OF_STOCK);
@@ -62,8 +66,14 @@ public class PhysicalProductValidator implements ProductValidator {
         }
 
         log.info("Quantity stock now after reserve {} ", newStock);
-        physicalPolicy.paymentCarriedOut(order.getTotalAmount());
-        physicalPolicy.calculateDeliveryDate(order);
+        BigDecimal total = order.getTotalAmount();
+        sideEffects.record("physical.payment", () -> physicalPolicy.paymentCarriedOut(total));
+        sideEffects.record("physical.delivery-date", () -> physicalPolicy.calculateDeliveryDate(order));
+    }
+
+    @Override
+    public boolean isLineIndependent() {
+        return true;
     }
 
 }
@@ -7,6 +7,7 @@ import com.ecommerce.order_processing_system.exception.PreOrderSoldOutException;
 import com.ecommerce.order_processing_system.exception.ReleaseDatePassedException;
 import com.ecommerce.order_processing_system.exception.SlotLimitException;
 import com.ecommerce.order_processing_system.service.ProductService;
+import com.ecommerce.order_processing_system.service.SideEffectDispatcher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -25,6 +26,7 @@ public class PreOrderProductValidator implements ProductValidator {
 
     private final ProductService productService;
     private final PreOrderPolicy preOrderPolicy;
+    private final SideEffectDispatcher sideEffects;
 
     @Value("${app.order.slot-limit}")
     private Integer limitSlot;
@@ -78,6 +80,6 @@ public class PreOrderProductValidator implements ProductValidator {
             throw new PreOrderSoldOutException(PRE_ORDER_SOLD_OUT);
         }
 
-        preOrderPolicy.calculateDeliveryDate(order);
+        sideEffects.record("pre-order.delivery-date", () -> preOrderPolicy.calculateDeliveryDate(order));
     }
 }
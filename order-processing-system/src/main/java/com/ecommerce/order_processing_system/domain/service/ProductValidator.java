@@ -5,4 +5,12 @@ import com.ecommerce.order_processing_system.domain.OrderItem;
 
 public interface ProductValidator {
     void validate(Order order, OrderItem item);
+
+    /**
+     * Whether a line can be validated apart from the rest of its order: the validator reads only its own line
+     * and the catalog, and writes nothing but catalog reservations and published events.
+     */
+    default boolean isLineIndependent() {
+        return false;
+    }
 }
@@ -2,16 +2,14 @@ package com.ecommerce.order_processing_system.domain.service;
 
 import com.ecommerce.order_processing_system.domain.Order;
 import com.ecommerce.order_processing_system.domain.OrderItem;
-import com.ecommerce.order_processing_system.domain.OrderStatus;
 import com.ecommerce.order_processing_system.domain.policy.SubscriptionPolicy;
 import com.ecommerce.order_processing_system.dto.OrderItemResponse;
-import com.ecommerce.order_processing_system.dto.OrderResponse;
 import com.ecommerce.order_processing_system.dto.ProductDTO;
 import com.ecommerce.order_processing_system.exception.DuplicateActiveSubscriptionException;
 import com.ecommerce.order_processing_system.exception.SubscriptionLimitExceededException;
 import com.ecommerce.order_processing_system.kafka.producer.KafkaEventPublisher;
 import com.ecommerce.order_processing_system.kafka.events.OrderSchedulingPaymentEvent;
-import com.ecommerce.order_processing_system.service.OrderService;
+import com.ecommerce.order_processing_system.service.EntitlementService;
 import com.ecommerce.order_processing_system.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,11 +23,17 @@ import java.util.stream.Collectors;
 import static com.ecommerce.order_processing_system.domain.OrderStatus.*;
 import static com.ecommerce.order_processing_system.domain.ProductType.SUBSCRIPTION;
 
+/**
+ * Validates a subscription line against what the customer already holds. The subscription limit counts the
+ * customer's distinct ACTIVE subscription entitlements, one per product, granted when an order is PROCESSED.
+ * Subscriptions on FAILED or unfinished orders, revoked ones and repeat purchases of a product do not count;
+ * the limit used to count every subscription item on the customer's orders, whatever their status.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class SubscriptionProductValidator implements ProductValidator {
-    private final OrderService orderService;
+    private final EntitlementService entitlementService;
     private final KafkaEventPublisher eventPublisher;
 
     @Value("${app.order.subscription-limit}")
@@ -40,13 +44,9 @@ public class SubscriptionProductValidator implements ProductValidator {
 
     @Override
     public void validate(Order order, OrderItem item) {
-        List<OrderResponse> orders = orderService.getOrdersByCustomer(order.getCustomerId());
         ProductDTO product = productService.getProductOrThrow(item.getProductId());
 
-        long subscriptionCount = orders.stream()
-                .flatMap(orderItem -> orderItem.getItems().stream())
-                .filter(it -> SUBSCRIPTION.equals(it.getProductType()))
-                .count();
+        long subscriptionCount = entitlementService.countActive(order.getCustomerId(), SUBSCRIPTION);
 
         if (subscriptionCount >= subscriptionLimit) {
             log.warn("Subscription limit exceeded. customerId={}, total={}, limit={}",
@@ -58,13 +58,8 @@ public class SubscriptionProductValidator implements ProductValidator {
             throw new SubscriptionLimitExceededException(SUBSCRIPTION_LIMIT_EXCEEDED);
         }
 
-        boolean hasDuplicateActiveSubscription = orders.stream()
-                .filter(orderFilter -> orderFilter.getStatus() == PROCESSED)
-                .flatMap(orderFlat -> orderFlat.getItems().stream())
-                .anyMatch(it ->
-                        SUBSCRIPTION.equals(it.getProductType()) &&
-                                it.getProductId().equals(product.getProductId())
-                );
+        boolean hasDuplicateActiveSubscription =
+                entitlementService.ownsProduct(order.getCustomerId(), product.getProductId());
 
         if (hasDuplicateActiveSubscription) {
             log.info("Duplicate active subscription for product {} ", hasDuplicateActiveSubscription);
@@ -76,12 +71,7 @@ public class SubscriptionProductValidator implements ProductValidator {
                 .map(it -> it.getProductId())
                 .collect(Collectors.toSet());
 
-        Set<String> previousSubscriptions = orderService.getOrdersByCustomer(order.getCustomerId()).stream()
-                .filter(orderResp -> orderResp.getStatus() == OrderStatus.PROCESSED)
-                .flatMap(orderResp -> orderResp.getItems().stream())
-                .filter(it -> it.getProductType() == SUBSCRIPTION)
-                .map(it -> it.getProductId())
-                .collect(Collectors.toSet());
+        Set<String> previousSubscriptions = entitlementService.activeProductIds(order.getCustomerId(), SUBSCRIPTION);
 
         isIncompatible.validate(currentSubscriptions, previousSubscriptions);
 
@@ -0,0 +1,44 @@
+package com.ecommerce.order_processing_system.dto;
+
+import com.ecommerce.order_processing_system.domain.OrderStatus;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReprocessOrdersRequest {
+    @NotNull(message = "status required")
+    private OrderStatus status;
+
+    /**
+     * Case-insensitive SQL LIKE pattern on the failure reason, e.g. {@code %RetryableException%}.
+     */
+    private String reasonPattern;
+
+    @NotNull(message = "createdFrom required")
+    private LocalDateTime createdFrom;
+
+    /**
+     * Exclusive; defaults to now.
+     */
+    private LocalDateTime createdTo;
+
+    @Positive(message = "limit must be positive")
+    private Integer limit;
+
+    @Positive(message = "ratePerSecond must be positive")
+    private Double ratePerSecond;
+
+    @Positive(message = "concurrency must be positive")
+    private Integer concurrency;
+
+    /**
+     * Only counts the matching orders.
+     */
+    private boolean dryRun;
+}
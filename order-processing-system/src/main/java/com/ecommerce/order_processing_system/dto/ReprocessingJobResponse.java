@@ -0,0 +1,37 @@
+package com.ecommerce.order_processing_system.dto;
+
+import com.ecommerce.order_processing_system.domain.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReprocessingJobResponse {
+    private String jobId;
+    private String state;
+    private OrderStatus status;
+    private String reasonPattern;
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+    private Integer limit;
+    private double ratePerSecond;
+    private int concurrency;
+    private boolean dryRun;
+    private long scanned;
+    private long attempted;
+    /**
+     * Orders per resulting status, plus SKIPPED, CONFLICT, TRANSIENT_ERROR and ERROR.
+     */
+    private Map<String, Long> outcomes;
+    private double throughputPerSecond;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String message;
+}
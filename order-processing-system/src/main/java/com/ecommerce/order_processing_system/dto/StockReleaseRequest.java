@@ -0,0 +1,18 @@
+package com.ecommerce.order_processing_system.dto;
+
+import com.ecommerce.order_processing_system.domain.ReservationJournalEntry;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockReleaseRequest {
+    private String releaseId;
+    private String productId;
+    private ReservationJournalEntry.Kind kind;
+    private Integer quantity;
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.order_processing_system.exception;
+
+public class IdempotencyKeyConflictException extends RuntimeException {
+    public IdempotencyKeyConflictException(String message) {
+        super(message);
+    }
+}
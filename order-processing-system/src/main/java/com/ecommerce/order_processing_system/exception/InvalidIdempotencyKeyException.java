@@ -0,0 +1,7 @@
+package com.ecommerce.order_processing_system.exception;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+    public InvalidIdempotencyKeyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.order_processing_system.exception;
+
+public class InvalidStatusTransitionException extends RuntimeException {
+    public InvalidStatusTransitionException(String message) {
+        super(message);
+    }
+}
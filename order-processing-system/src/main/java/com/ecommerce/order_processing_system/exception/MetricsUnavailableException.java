@@ -0,0 +1,7 @@
+package com.ecommerce.order_processing_system.exception;
+
+public class MetricsUnavailableException extends RuntimeException {
+    public MetricsUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.order_processing_system.exception;
+
+import lombok.Getter;
+
+@Getter
+public class OrderAdmissionRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public OrderAdmissionRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.order_processing_system.exception;
+
+public class ReprocessingJobConflictException extends RuntimeException {
+    public ReprocessingJobConflictException(String message) {
+        super(message);
+    }
+}
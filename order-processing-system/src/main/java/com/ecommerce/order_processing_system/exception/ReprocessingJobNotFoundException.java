@@ -0,0 +1,7 @@
+package com.ecommerce.order_processing_system.exception;
+
+public class ReprocessingJobNotFoundException extends RuntimeException {
+    public ReprocessingJobNotFoundException(String message) {
+        super(message);
+    }
+}
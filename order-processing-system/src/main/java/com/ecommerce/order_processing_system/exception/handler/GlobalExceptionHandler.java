@@ -3,7 +3,9 @@ package com.ecommerce.order_processing_system.exception.handler;
 import com.ecommerce.order_processing_system.exception.*;
 import feign.FeignException;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -222,4 +224,69 @@ public class GlobalExceptionHandler {
         problem.setProperty("timestamp", Instant.now());
         return problem;
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler(InvalidStatusTransitionException.class)
+    ProblemDetail handleInvalidStatusTransitionException(final InvalidStatusTransitionException ex, final HttpServletRequest request) {
+        ProblemDetail problem = ProblemDetail.forStatus(CONFLICT);
+        problem.setType(URI.create(request.getContextPath()));
+        problem.setDetail(ex.getMessage());
+        problem.setProperty("timestamp", Instant.now());
+        return problem;
+    }
+
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    ProblemDetail handleInvalidIdempotencyKeyException(final InvalidIdempotencyKeyException ex, final HttpServletRequest request) {
+        ProblemDetail problem = ProblemDetail.forStatus(BAD_REQUEST);
+        problem.setType(URI.create(request.getContextPath()));
+        problem.setDetail(ex.getMessage());
+        problem.setProperty("timestamp", Instant.now());
+        return problem;
+    }
+
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    ProblemDetail handleIdempotencyKeyConflictException(final IdempotencyKeyConflictException ex, final HttpServletRequest request) {
+        ProblemDetail problem = ProblemDetail.forStatus(UNPROCESSABLE_ENTITY);
+        problem.setType(URI.create(request.getContextPath()));
+        problem.setDetail(ex.getMessage());
+        problem.setProperty("timestamp", Instant.now());
+        return problem;
+    }
+
+    @ExceptionHandler(MetricsUnavailableException.class)
+    ProblemDetail handleMetricsUnavailableException(final MetricsUnavailableException ex, final HttpServletRequest request) {
+        ProblemDetail problem = ProblemDetail.forStatus(SERVICE_UNAVAILABLE);
+        problem.setType(URI.create(request.getContextPath()));
+        problem.setDetail(ex.getMessage());
+        problem.setProperty("timestamp", Instant.now());
+        return problem;
+    }
+
+    @ExceptionHandler(ReprocessingJobNotFoundException.class)
+    ProblemDetail handleReprocessingJobNotFoundException(final ReprocessingJobNotFoundException ex, final HttpServletRequest request) {
+        ProblemDetail problem = ProblemDetail.forStatus(NOT_FOUND);
+        problem.setType(URI.create(request.getContextPath()));
+        problem.setDetail(ex.getMessage());
+        problem.setProperty("timestamp", Instant.now());
+        return problem;
+    }
+
+    @ExceptionHandler(ReprocessingJobConflictException.class)
+    ProblemDetail handleReprocessingJobConflictException(final ReprocessingJobConflictException ex, final HttpServletRequest request) {
+        ProblemDetail problem = ProblemDetail.forStatus(CONFLICT);
+        problem.setType(URI.create(request.getContextPath()));
+        problem.setDetail(ex.getMessage());
+        problem.setProperty("timestamp", Instant.now());
+        return problem;
+    }
+
+    @ExceptionHandler(OrderAdmissionRejectedException.class)
+    ResponseEntity<ProblemDetail> handleOrderAdmissionRejectedException(final OrderAdmissionRejectedException ex, final HttpServletRequest request) {
+        ProblemDetail problem = ProblemDetail.forStatus(TOO_MANY_REQUESTS);
+        problem.setType(URI.create(request.getContextPath()));
+        problem.setDetail(ex.getMessage());
+        problem.setProperty("timestamp", Instant.now());
+        return ResponseEntity.status(TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(problem);
+    }
+}
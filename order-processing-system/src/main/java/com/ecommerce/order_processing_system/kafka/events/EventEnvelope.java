@@ -0,0 +1,14 @@
+package com.ecommerce.order_processing_system.kafka.events;
+
+/**
+ * Fields every published event carries next to its payload; the serializer copies the identifying ones into
+ * record headers.
+ */
+public interface EventEnvelope {
+
+    String getEventId();
+
+    String getEventType();
+
+    String getTimestamp();
+}
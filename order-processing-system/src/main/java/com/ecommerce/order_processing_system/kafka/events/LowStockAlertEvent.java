@@ -13,7 +13,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class LowStockAlertEvent {
+public class LowStockAlertEvent implements EventEnvelope {
     private String eventId;
     private String eventType;
     private String timestamp;
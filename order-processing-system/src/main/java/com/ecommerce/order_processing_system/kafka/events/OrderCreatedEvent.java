@@ -14,7 +14,7 @@ import static com.ecommerce.order_processing_system.domain.OrderStatus.CREATED;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class OrderCreatedEvent {
+public class OrderCreatedEvent implements EventEnvelope {
 
     private String eventId;
     private String eventType;
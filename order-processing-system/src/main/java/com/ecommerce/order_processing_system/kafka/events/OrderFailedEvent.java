@@ -9,7 +9,9 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class OrderFailedEvent {
+public class OrderFailedEvent implements EventEnvelope {
+    public static final String EVENT_TYPE = "ORDER_FAILED";
+
     private String eventId;
     private String eventType;
     private String timestamp;
@@ -29,7 +31,7 @@ public class OrderFailedEvent {
         String now = Instant.now().toString();
         return OrderFailedEvent.builder()
                 .eventId(UUID.randomUUID().toString())
-                .eventType("ORDER_FAILED")
+                .eventType(EVENT_TYPE)
                 .timestamp(now)
                 .payload(Payload.builder()
                         .orderId(orderId)
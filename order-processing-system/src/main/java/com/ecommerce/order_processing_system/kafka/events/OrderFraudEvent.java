@@ -9,7 +9,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class OrderFraudEvent {
+public class OrderFraudEvent implements EventEnvelope {
     private String eventId;
     private String eventType;
     private String timestamp;
@@ -11,7 +11,7 @@ import static com.ecommerce.order_processing_system.domain.OrderStatus.PENDING_A
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class OrderPendingApprovalEvent {
+public class OrderPendingApprovalEvent implements EventEnvelope {
     private String eventId;
     private String eventType;
     private String timestamp;
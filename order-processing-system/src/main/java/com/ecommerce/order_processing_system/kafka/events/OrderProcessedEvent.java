@@ -2,6 +2,7 @@ package com.ecommerce.order_processing_system.kafka.events;
 
 import lombok.*;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -9,7 +10,9 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class OrderProcessedEvent {
+public class OrderProcessedEvent implements EventEnvelope {
+    public static final String EVENT_TYPE = "ORDER_PROCESSED";
+
     private String eventId;
     private String eventType;
     private String timestamp;
@@ -22,17 +25,23 @@ public class OrderProcessedEvent {
     public static class Payload {
         private String orderId;
         private String processedAt;
+        private BigDecimal totalAmount;
     }
 
     public static OrderProcessedEvent of(String orderId) {
+        return of(orderId, null);
+    }
+
+    public static OrderProcessedEvent of(String orderId, BigDecimal totalAmount) {
         String now = Instant.now().toString();
         return OrderProcessedEvent.builder()
                 .eventId(UUID.randomUUID().toString())
-                .eventType("ORDER_PROCESSED")
+                .eventType(EVENT_TYPE)
                 .timestamp(now)
                 .payload(Payload.builder()
                         .orderId(orderId)
                         .processedAt(now)
+                        .totalAmount(totalAmount)
                         .build())
                 .build();
     }
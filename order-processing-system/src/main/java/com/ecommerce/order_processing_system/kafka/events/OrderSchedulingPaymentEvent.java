@@ -16,7 +16,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class OrderSchedulingPaymentEvent {
+public class OrderSchedulingPaymentEvent implements EventEnvelope {
     private String eventId;
     private String eventType;
     private String timestamp;
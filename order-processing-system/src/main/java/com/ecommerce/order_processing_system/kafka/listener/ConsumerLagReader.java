@@ -0,0 +1,82 @@
+package com.ecommerce.order_processing_system.kafka.listener;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reads how far a consumer group's committed offsets trail the end of a topic, per partition or summed.
+ * A partition the group has not committed on yet lags by everything it retains, since the group starts
+ * from the earliest offset there.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConsumerLagReader {
+
+    private final KafkaAdmin kafkaAdmin;
+
+    @Value("${app.order.metrics.lag-timeout-ms:2000}")
+    private long timeoutMs;
+
+    private AdminClient adminClient;
+
+    public long lag(String consumerGroup, String topic) throws Exception {
+        return lagByPartition(consumerGroup, topic).values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public synchronized Map<TopicPartition, Long> lagByPartition(String consumerGroup, String topic) throws Exception {
+        if (adminClient == null) {
+            adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+        }
+        Map<TopicPartition, OffsetAndMetadata> committed = adminClient.listConsumerGroupOffsets(consumerGroup)
+                .partitionsToOffsetAndMetadata().get(timeoutMs, TimeUnit.MILLISECONDS)
+                .entrySet().stream()
+                .filter(entry -> entry.getKey().topic().equals(topic) && entry.getValue() != null)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+        List<TopicPartition> partitions = adminClient.describeTopics(List.of(topic)).allTopicNames()
+                .get(timeoutMs, TimeUnit.MILLISECONDS).get(topic).partitions().stream()
+                .map(partition -> new TopicPartition(topic, partition.partition()))
+                .toList();
+        List<TopicPartition> uncommitted = partitions.stream().filter(partition -> !committed.containsKey(partition)).toList();
+
+        Map<TopicPartition, Long> latest = offsets(partitions, OffsetSpec.latest());
+        Map<TopicPartition, Long> earliest = uncommitted.isEmpty() ? Map.of() : offsets(uncommitted, OffsetSpec.earliest());
+
+        Map<TopicPartition, Long> lag = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            OffsetAndMetadata position = committed.get(partition);
+            long from = position != null ? position.offset() : earliest.get(partition);
+            lag.put(partition, Math.max(0, latest.get(partition) - from));
+        }
+        return lag;
+    }
+
+    private Map<TopicPartition, Long> offsets(List<TopicPartition> partitions, OffsetSpec spec) throws Exception {
+        return adminClient.listOffsets(partitions.stream().collect(Collectors.toMap(Function.identity(), partition -> spec)))
+                .all().get(timeoutMs, TimeUnit.MILLISECONDS)
+                .entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().offset()));
+    }
+
+    @PreDestroy
+    synchronized void shutdown() {
+        if (adminClient != null) {
+            adminClient.close(Duration.ofSeconds(1));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.order_processing_system.kafka.listener;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed set of single-threaded lanes. A key always hashes to the same lane, so work for one key runs in
+ * submission order while different keys run in parallel. Lane queues are bounded and submission blocks
+ * when a lane is full, which holds back the consumer instead of buffering a whole partition in memory.
+ */
+@Slf4j
+@Component
+public class KeyOrderedDispatcher {
+
+    private static final RejectedExecutionHandler BLOCK_WHEN_FULL = (task, executor) -> {
+        try {
+            executor.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for a free lane slot", e);
+        }
+    };
+
+    private final List<ThreadPoolExecutor> lanes = new ArrayList<>();
+
+    public KeyOrderedDispatcher(@Value("${app.order.processing.parallel.workers:8}") int workers,
+                                @Value("${app.order.processing.parallel.queue-capacity:100}") int queueCapacity) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        for (int i = 0; i < workers; i++) {
+            lanes.add(new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity),
+                    task -> new Thread(task, "order-lane-" + threadIndex.getAndIncrement()),
+                    BLOCK_WHEN_FULL));
+        }
+    }
+
+    public void dispatch(String key, Runnable task) {
+        lanes.get(laneFor(key)).execute(task);
+    }
+
+    int laneFor(String key) {
+        return key == null ? 0 : Math.floorMod(key.hashCode(), lanes.size());
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        lanes.forEach(ThreadPoolExecutor::shutdown);
+        for (ThreadPoolExecutor lane : lanes) {
+            if (!lane.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Order lane did not drain in time, pending={}", lane.getQueue().size());
+                lane.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.ecommerce.order_processing_system.kafka.listener;
+
+import com.ecommerce.order_processing_system.service.OrderResponseCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts an order's cached response on every instance when its status changes. Each instance reads the status
+ * topics in a consumer group of its own, from the latest offset, as a fresh cache holds nothing older. Status
+ * events are keyed by order id, so the payload is not looked at.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderCacheInvalidationListener {
+
+    private final OrderResponseCache responseCache;
+
+    @KafkaListener(
+            topics = {
+                    "${app.order.topic.processed}",
+                    "${app.order.topic.failed}",
+                    "${app.order.topic.pending-approval}"
+            },
+            groupId = "${app.order.cache.invalidation-group-prefix:order-cache-invalidation}-${random.uuid}",
+            properties = "auto.offset.reset=latest"
+    )
+    public void onStatusChanged(ConsumerRecord<String, Object> record) {
+        if (record.key() == null) {
+            return;
+        }
+        log.debug("Evicting cached response of orderId={} on {}", record.key(), record.topic());
+        responseCache.evict(record.key());
+    }
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.order_processing_system.kafka.listener;
+
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.retry.annotation.Backoff;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Retry topics shared by the order-created listeners. Only {@link TransientProcessingException} is retried, so
+ * which failures get another attempt is decided in one place, {@code TransientFailures}; anything else goes
+ * straight to the {@code -dlt} topic. The dead-letter handlers start with every listener, because the modes
+ * that do not consume retry topics dead-letter to the same topic.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@RetryableTopic(
+        attempts = "${app.order.processing.retry-topics.attempts:4}",
+        backoff = @Backoff(
+                delayExpression = "${app.order.processing.retry-topics.initial-delay-ms:1000}",
+                multiplierExpression = "${app.order.processing.retry-topics.multiplier:10}",
+                maxDelayExpression = "${app.order.processing.retry-topics.max-delay-ms:60000}"),
+        include = TransientProcessingException.class,
+        traversingCauses = "true",
+        topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_DELAY_VALUE,
+        dltTopicSuffix = "-dlt",
+        autoStartDltHandler = "true",
+        kafkaTemplate = "kafkaTemplate"
+)
+@interface OrderCreatedRetryableTopic {
+}
@@ -1,61 +1,308 @@
 package com.ecommerce.order_processing_system.kafka.listener;
 
+import com.ecommerce.order_processing_system.domain.OrderLane;
 import com.ecommerce.order_processing_system.kafka.events.OrderCreatedEvent;
-import com.ecommerce.order_processing_system.kafka.events.OrderProcessedEvent;
-import com.ecommerce.order_processing_system.service.OrderProcessingService;
+import com.ecommerce.order_processing_system.kafka.producer.HeldOutputEmitter;
+import com.ecommerce.order_processing_system.service.OrderBatchProcessingService;
+import com.ecommerce.order_processing_system.service.OrderBatchProcessingService.BatchResult;
+import com.ecommerce.order_processing_system.service.OrderProcessingRetryService;
+import com.ecommerce.order_processing_system.util.TransientFailures;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class OrderEventListener {
 
-    private final OrderProcessingService processingService;
     private static final String ORDER_CREATED = "CREATED";
-    private static final String ORDER_PROCESSED = "ORDER_PROCESSED";
 
+    private final OrderProcessingRetryService processingService;
+    private final OrderBatchProcessingService batchProcessingService;
+    private final KeyOrderedDispatcher dispatcher;
+    private final HeldOutputEmitter heldOutputs;
+    private final MeterRegistry meterRegistry;
+    private final DeadLetterPublishingRecoverer deadLetters;
+
+    @Value("${app.order.processing.parallel.transient-attempts:3}")
+    private int parallelTransientAttempts;
+
+    @Value("${app.order.processing.parallel.transient-backoff-ms:1000}")
+    private long parallelTransientBackoffMs;
+
+    /**
+     * Transient failures (catalog outages, throttling, database conflicts) are forwarded to delayed retry
+     * topics so the partition keeps moving; anything else goes straight to the dead-letter topic.
+     */
+    @OrderCreatedRetryableTopic
     @KafkaListener(
-            topics = "order-events-created",
-            groupId = "order-processing-group"
+            id = "order-created-processor",
+            idIsGroup = false,
+            topics = "${app.order.topic.created}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            autoStartup = "#{'${app.order.processing.mode:record}' == 'record'}"
     )
     public void onOrderCreated(OrderCreatedEvent event) {
-        log.info("Received message from topic=order-events-created: eventType={}, orderId={}",
-                event.getEventType(),
-                event.getPayload() != null ? event.getPayload().getOrderId() : "null");
+        handleCreated(event, OrderLane.STANDARD);
+    }
 
-        if (!ORDER_CREATED.equals(event.getEventType())) {
-            log.debug("Ignoring event type {} for orderId={}", event.getEventType(),
-                    event.getPayload() != null ? event.getPayload().getOrderId() : "null");
+    /**
+     * Priority and high-value orders arrive on their own topics, each read by a consumer group with its own
+     * concurrency, so a flood of standard orders does not hold them back. They are processed one record at
+     * a time whatever the processing mode.
+     */
+    @OrderCreatedRetryableTopic
+    @KafkaListener(
+            id = "order-created-priority-processor",
+            idIsGroup = false,
+            topics = "${app.order.topic.created-priority:order-events-created-priority}",
+            groupId = "${app.order.lanes.priority.group-id:order-processing-priority-group}",
+            concurrency = "${app.order.lanes.priority.concurrency:3}"
+    )
+    public void onPriorityOrderCreated(OrderCreatedEvent event) {
+        handleCreated(event, OrderLane.PRIORITY);
+    }
+
+    @OrderCreatedRetryableTopic
+    @KafkaListener(
+            id = "order-created-high-value-processor",
+            idIsGroup = false,
+            topics = "${app.order.topic.created-high-value:order-events-created-high-value}",
+            groupId = "${app.order.lanes.high-value.group-id:order-processing-high-value-group}",
+            concurrency = "${app.order.lanes.high-value.concurrency:2}"
+    )
+    public void onHighValueOrderCreated(OrderCreatedEvent event) {
+        handleCreated(event, OrderLane.HIGH_VALUE);
+    }
+
+    @DltHandler
+    public void onOrderCreatedDeadLetter(OrderCreatedEvent event,
+                                         @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                                         @Header(value = KafkaHeaders.EXCEPTION_MESSAGE, required = false) String error) {
+        String orderId = event.getPayload() != null ? event.getPayload().getOrderId() : "null";
+        meterRegistry.counter("order.processing.dead_lettered").increment();
+        log.error("Order left in dead-letter topic={} orderId={} eventId={} error={}",
+                topic, orderId, event.getEventId(), error);
+    }
+
+    @KafkaListener(
+            id = "order-created-batch-processor",
+            idIsGroup = false,
+            topics = "${app.order.topic.created}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            autoStartup = "#{'${app.order.processing.mode:record}' == 'batch'}",
+            properties = "max.poll.records=${app.order.processing.batch.max-poll-records:200}"
+    )
+    public void onOrderCreatedBatch(List<OrderCreatedEvent> events) {
+        Map<String, String> eventIdsByOrderId = createdEventIds(events);
+        log.info("Received batch of created events: records={}, orders={}", events.size(), eventIdsByOrderId.size());
+
+        if (!eventIdsByOrderId.isEmpty()) {
+            failOnFirstError(events, batchProcessingService.processBatch(eventIdsByOrderId));
+        }
+    }
+
+    /**
+     * Hands the earliest failed record to the batch error handler: the offsets before it commit, and it is retried
+     * or dead-lettered with the rest of the batch redelivered after it. Orders of the redelivered records that were
+     * already written are skipped as processed.
+     */
+    private void failOnFirstError(List<OrderCreatedEvent> events, BatchResult result) {
+        if (result.errors().isEmpty()) {
             return;
         }
+        for (int index = 0; index < events.size(); index++) {
+            OrderCreatedEvent event = events.get(index);
+            RuntimeException failure = event.getPayload() != null ? result.errors().get(event.getPayload().getOrderId()) : null;
+            if (failure != null) {
+                throw new BatchListenerFailedException("Processing orderId=" + event.getPayload().getOrderId() + " failed",
+                        failure, index);
+            }
+        }
+    }
 
-        var orderId = event.getPayload().getOrderId();
-        log.info("Processing ORDER_CREATED event for orderId={}", orderId);
+    /**
+     * Runs in the Kafka transaction the container commits with the batch's offsets. Outcomes commit to Postgres
+     * first, with each order's outputs held under its event id; the held outputs are then sent in the Kafka
+     * transaction. Events already processed by an attempt whose Kafka transaction aborted get their held
+     * outputs sent again, so every event yields its outputs exactly once. Events without an id cannot be
+     * matched to their outputs; theirs go through the outbox relay. The priority and high-value lanes keep
+     * their record listeners and at-least-once delivery in this mode.
+     * <p>
+     * An order whose evaluation fails other than transiently stays PENDING and its record is dead-lettered, so
+     * it does not roll back the rest of the batch. The dead-letter send is not part of the Kafka transaction;
+     * if that aborts, the redelivered record is dead-lettered again.
+     */
+    @KafkaListener(
+            id = "order-created-transactional-processor",
+            idIsGroup = false,
+            topics = "${app.order.topic.created}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "transactionalKafkaListenerContainerFactory",
+            autoStartup = "#{'${app.order.processing.mode:record}' == 'transactional'}",
+            properties = {
+                    "max.poll.records=${app.order.processing.transactional.max-poll-records:500}",
+                    "isolation.level=read_committed"
+            }
+    )
+    public void onOrderCreatedTransactional(List<ConsumerRecord<String, OrderCreatedEvent>> records) {
+        Map<String, String> eventIdsByOrderId = createdEventIds(records.stream().map(ConsumerRecord::value).toList());
+        log.info("Received transactional batch of created events: records={}, orders={}",
+                records.size(), eventIdsByOrderId.size());
 
-        processingService.process(orderId);
+        if (!eventIdsByOrderId.isEmpty()) {
+            deadLetterFailed(records, batchProcessingService.processAtomically(eventIdsByOrderId));
+            heldOutputs.emit(eventIdsByOrderId.values());
+        }
+    }
 
-        log.info("Finished processing ORDER_CREATED event for orderId={}", orderId);
+    /**
+     * Dead-letters the first record of each order the batch left PENDING; a failed send is thrown, aborting the
+     * transaction so the batch is consumed again.
+     */
+    private void deadLetterFailed(List<ConsumerRecord<String, OrderCreatedEvent>> records, BatchResult result) {
+        Map<String, RuntimeException> failures = new HashMap<>(result.errors());
+        for (ConsumerRecord<String, OrderCreatedEvent> record : records) {
+            if (failures.isEmpty()) {
+                return;
+            }
+            OrderCreatedEvent event = record.value();
+            RuntimeException failure = event.getPayload() != null ? failures.remove(event.getPayload().getOrderId()) : null;
+            if (failure != null) {
+                deadLetters.accept(record, failure);
+                log.error("Dead-lettered record partition={} offset={} of orderId={}, it stays PENDING",
+                        record.partition(), record.offset(), event.getPayload().getOrderId(), failure);
+            }
+        }
     }
 
     @KafkaListener(
-            topics = "order-events-processed",
-            groupId = "order-processing-group"
+            id = "order-created-parallel-processor",
+            idIsGroup = false,
+            topics = "${app.order.topic.created}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "keyOrderedKafkaListenerContainerFactory",
+            autoStartup = "#{'${app.order.processing.mode:record}' == 'parallel'}"
     )
-    public void onOrderProcessed(OrderProcessedEvent event) {
-        log.info("Received message from topic=order-events-processed: eventType={}, orderId={}",
-                event.getEventType(),
+    public void onOrderCreatedParallel(ConsumerRecord<String, OrderCreatedEvent> record, Acknowledgment ack) {
+        OrderCreatedEvent event = record.value();
+        if (event == null || !ORDER_CREATED.equals(event.getEventType()) || event.getPayload() == null) {
+            ack.acknowledge();
+            return;
+        }
+
+        var orderId = event.getPayload().getOrderId();
+        String key = record.key() != null ? record.key() : orderId;
+        dispatcher.dispatch(key, () -> {
+            try {
+                processWithRetries(orderId, event);
+                ack.acknowledge();
+            } catch (RuntimeException e) {
+                deadLetter(record, ack, e);
+            }
+        });
+    }
+
+    /**
+     * The record listener's retry topics are not consumed in parallel mode, so transient failures are retried
+     * here on the worker; only the records queued behind this one in its lane wait for it.
+     */
+    private void processWithRetries(String orderId, OrderCreatedEvent event) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                processingService.process(orderId, parseTimestamp(event.getTimestamp()), event.getEventId());
+                return;
+            } catch (RuntimeException e) {
+                if (!TransientFailures.isTransient(e) || attempt >= parallelTransientAttempts) {
+                    throw e;
+                }
+                long backoff = parallelTransientBackoffMs * attempt;
+                log.warn("Transient failure processing orderId={}, attempt={}, retrying in {}ms: {}",
+                        orderId, attempt, backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Acknowledges a failed record only once it is in the dead-letter topic. If that fails too, the partition's
+     * committed offset stays before it and the record is consumed again after a restart or rebalance.
+     */
+    private void deadLetter(ConsumerRecord<String, OrderCreatedEvent> record, Acknowledgment ack, RuntimeException failure) {
+        try {
+            deadLetters.accept(record, failure);
+            log.error("Dead-lettered record partition={} offset={} after failure", record.partition(), record.offset(), failure);
+            ack.acknowledge();
+        } catch (RuntimeException e) {
+            log.error("Could not dead-letter record partition={} offset={}, leaving it unacknowledged",
+                    record.partition(), record.offset(), e);
+        }
+    }
+
+    private Map<String, String> createdEventIds(List<OrderCreatedEvent> events) {
+        Map<String, String> eventIdsByOrderId = new LinkedHashMap<>();
+        events.stream()
+                .filter(event -> ORDER_CREATED.equals(event.getEventType()) && event.getPayload() != null)
+                .forEach(event -> eventIdsByOrderId.putIfAbsent(event.getPayload().getOrderId(), event.getEventId()));
+        return eventIdsByOrderId;
+    }
+
+    private void handleCreated(OrderCreatedEvent event, OrderLane lane) {
+        log.info("Received created event lane={}: eventType={}, orderId={}",
+                lane, event.getEventType(),
                 event.getPayload() != null ? event.getPayload().getOrderId() : "null");
 
-        if (!ORDER_PROCESSED.equals(event.getEventType())) {
+        if (!ORDER_CREATED.equals(event.getEventType())) {
             log.debug("Ignoring event type {} for orderId={}", event.getEventType(),
                     event.getPayload() != null ? event.getPayload().getOrderId() : "null");
             return;
         }
 
         var orderId = event.getPayload().getOrderId();
-        log.info("Consumed ORDER_PROCESSED event for orderId={}.", orderId);
+        log.info("Processing ORDER_CREATED event for orderId={}", orderId);
+
+        try {
+            processingService.process(orderId, parseTimestamp(event.getTimestamp()), event.getEventId());
+        } catch (RuntimeException e) {
+            throw TransientFailures.isTransient(e) ? new TransientProcessingException(e) : e;
+        }
+
+        log.info("Finished processing ORDER_CREATED event for orderId={}", orderId);
+    }
+
+    private Instant parseTimestamp(String timestamp) {
+        if (timestamp == null) {
+            return null;
+        }
+        try {
+            return Instant.parse(timestamp);
+        } catch (DateTimeParseException e) {
+            log.warn("Ignoring unparseable event timestamp={}", timestamp);
+            return null;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.ecommerce.order_processing_system.kafka.listener;
+
+import com.ecommerce.order_processing_system.kafka.events.OrderCreatedEvent;
+import com.ecommerce.order_processing_system.kafka.events.OrderFailedEvent;
+import com.ecommerce.order_processing_system.kafka.events.OrderPendingApprovalEvent;
+import com.ecommerce.order_processing_system.kafka.events.OrderProcessedEvent;
+import com.ecommerce.order_processing_system.service.OrderViewService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import static com.ecommerce.order_processing_system.domain.OrderStatus.*;
+
+/**
+ * Keeps the order_view read model current. Runs in its own consumer group so it sees every
+ * event independently of the processing consumers.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderViewProjectionListener {
+
+    private final OrderViewService orderViewService;
+
+    @KafkaListener(
+            topics = {
+                    "${app.order.topic.created}",
+                    "${app.order.topic.created-priority:order-events-created-priority}",
+                    "${app.order.topic.created-high-value:order-events-created-high-value}"
+            },
+            groupId = "${app.order.view.group-id:order-view-projector}"
+    )
+    public void onOrderCreated(OrderCreatedEvent event) {
+        if (!CREATED.name().equals(event.getEventType()) || event.getPayload() == null) {
+            log.debug("Ignoring event type {} in order view projection", event.getEventType());
+            return;
+        }
+        orderViewService.projectCreated(event);
+    }
+
+    @KafkaListener(
+            topics = "${app.order.topic.processed}",
+            groupId = "${app.order.view.group-id:order-view-projector}"
+    )
+    public void onOrderProcessed(OrderProcessedEvent event) {
+        if (!OrderProcessedEvent.EVENT_TYPE.equals(event.getEventType()) || event.getPayload() == null) {
+            log.debug("Ignoring event type {} in order view projection", event.getEventType());
+            return;
+        }
+        var payload = event.getPayload();
+        log.info("Consumed ORDER_PROCESSED event for orderId={}.", payload.getOrderId());
+        orderViewService.projectStatus(payload.getOrderId(), PROCESSED, null,
+                payload.getTotalAmount(), event.getTimestamp());
+    }
+
+    @KafkaListener(
+            topics = "${app.order.topic.failed}",
+            groupId = "${app.order.view.group-id:order-view-projector}"
+    )
+    public void onOrderFailed(OrderFailedEvent event) {
+        if (!OrderFailedEvent.EVENT_TYPE.equals(event.getEventType()) || event.getPayload() == null) {
+            log.debug("Ignoring event type {} in order view projection", event.getEventType());
+            return;
+        }
+        var payload = event.getPayload();
+        orderViewService.projectStatus(payload.getOrderId(), FAILED, payload.getReason(),
+                null, event.getTimestamp());
+    }
+
+    @KafkaListener(
+            topics = "${app.order.topic.pending-approval}",
+            groupId = "${app.order.view.group-id:order-view-projector}"
+    )
+    public void onOrderPendingApproval(OrderPendingApprovalEvent event) {
+        if (!PENDING_APPROVAL.name().equals(event.getEventType()) || event.getPayload() == null) {
+            log.debug("Ignoring event type {} in order view projection", event.getEventType());
+            return;
+        }
+        var payload = event.getPayload();
+        orderViewService.projectStatus(payload.getOrderId(), PENDING_APPROVAL, payload.getReason(),
+                null, event.getTimestamp());
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.order_processing_system.kafka.listener;
+
+import com.ecommerce.order_processing_system.kafka.serialization.SkippedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.adapter.RecordFilterStrategy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops the records the deserializer skipped on their event-type header before they reach a listener, counting
+ * them as {@code kafka.consumer.records.skipped}. Spring Boot applies it to the default listener container
+ * factory; {@link com.ecommerce.order_processing_system.config.KafkaConfig} to the others.
+ */
+@Component
+@RequiredArgsConstructor
+public class SkippedEventFilter implements RecordFilterStrategy<Object, Object> {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean filter(ConsumerRecord<Object, Object> record) {
+        if (record.value() instanceof SkippedEvent skipped) {
+            meterRegistry.counter("kafka.consumer.records.skipped",
+                    "topic", record.topic(), "event_type", skipped.getEventType()).increment();
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.order_processing_system.kafka.listener;
+
+/**
+ * Marks a processing failure {@code TransientFailures} classifies as transient, for the retry topics of
+ * {@link OrderCreatedRetryableTopic}. Keeps the original failure's message for the dead-letter headers.
+ */
+class TransientProcessingException extends RuntimeException {
+
+    TransientProcessingException(RuntimeException cause) {
+        super(cause.getMessage(), cause);
+    }
+}
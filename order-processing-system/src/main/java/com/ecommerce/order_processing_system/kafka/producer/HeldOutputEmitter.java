@@ -0,0 +1,100 @@
+package com.ecommerce.order_processing_system.kafka.producer;
+
+import com.ecommerce.order_processing_system.domain.OutboxEvent;
+import com.ecommerce.order_processing_system.exception.ErrorSystemDefaultException;
+import com.ecommerce.order_processing_system.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Sends the outputs held in the outbox for consumed events through the transactional producer, so they
+ * commit in the same Kafka transaction as the offsets of the events that caused them. The rows are deleted
+ * once that transaction commits. If it aborts, the events are consumed again, found already processed,
+ * and their held outputs are sent again by the next attempt: each consumed event yields its outputs once
+ * for read-committed consumers. Rows a failed delete leaves behind are purged with the processed event ids.
+ */
+@Slf4j
+@Component
+public class HeldOutputEmitter {
+
+    private final OutboxEventRepository outboxRepository;
+    private final KafkaTemplate<String, Object> transactionalKafkaTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.order.idempotency.retention-days:7}")
+    private long retentionDays;
+
+    public HeldOutputEmitter(OutboxEventRepository outboxRepository,
+                             @Qualifier("transactionalKafkaTemplate") KafkaTemplate<String, Object> transactionalKafkaTemplate,
+                             ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.transactionalKafkaTemplate = transactionalKafkaTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Sends the outputs held for {@code sourceEventIds}, in the order they were written. Must run inside the
+     * Kafka transaction of a {@code transactionalKafkaListenerContainerFactory} listener; null ids are ignored.
+     *
+     * @return the number of records sent
+     */
+    public int emit(Collection<String> sourceEventIds) {
+        List<String> ids = sourceEventIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        if (!transactionalKafkaTemplate.inTransaction()) {
+            throw new IllegalStateException("Held outputs can only be sent inside a Kafka transaction");
+        }
+
+        List<OutboxEvent> held = outboxRepository.findBySourceEventIdInOrderByIdAsc(ids);
+        for (OutboxEvent event : held) {
+            // Not awaited: the commit flushes them, and a failed send fails the commit
+            transactionalKafkaTemplate.send(event.getTopic(), event.getMessageKey(), payload(event));
+        }
+        if (!held.isEmpty()) {
+            List<Long> rowIds = held.stream().map(OutboxEvent::getId).toList();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    try {
+                        outboxRepository.deleteAllByIdInBatch(rowIds);
+                    } catch (RuntimeException e) {
+                        log.warn("Could not delete {} sent held outputs, they are purged later", rowIds.size(), e);
+                    }
+                }
+            });
+        }
+        log.debug("Sent held outputs records={} for events={}", held.size(), ids.size());
+        return held.size();
+    }
+
+    @Transactional
+    @Scheduled(cron = "${app.order.idempotency.cleanup-cron:0 15 * * * *}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int removed = outboxRepository.deleteHeldBefore(cutoff);
+        log.info("Purged {} held outputs older than {}", removed, cutoff);
+    }
+
+    private Object payload(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), Class.forName(event.getEventType()));
+        } catch (Exception e) {
+            throw new ErrorSystemDefaultException("Could not read held output id=" + event.getId() + ": " + e.getMessage());
+        }
+    }
+}
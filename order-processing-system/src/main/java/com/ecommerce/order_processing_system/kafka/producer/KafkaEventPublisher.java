@@ -1,22 +1,32 @@
 package com.ecommerce.order_processing_system.kafka.producer;
 
+import com.ecommerce.order_processing_system.domain.OutboxEvent;
+import com.ecommerce.order_processing_system.exception.ErrorSystemDefaultException;
 import com.ecommerce.order_processing_system.kafka.events.*;
+import com.ecommerce.order_processing_system.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.event.TransactionPhase;
-import org.springframework.transaction.event.TransactionalEventListener;
-
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes events to the outbox in the caller's transaction; {@link OutboxRelay} delivers them to Kafka
+ * after commit. An event is only sent if the state change that produced it committed, and is retried
+ * until the broker acknowledges it. Outputs of an event consumed in transactional processing mode are held
+ * under its id instead, see {@link #holdFor}.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class KafkaEventPublisher {
 
-    @Value("${app.order.topic.created}")
-    private String topicCreated;
-
     @Value("${app.order.topic.processed}")
     private String topicProcessed;
 
@@ -35,54 +45,137 @@ public class KafkaEventPublisher {
     @Value("${app.order.topic.failed}")
     private String topicFailed;
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxEventRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final OrderLaneRouter laneRouter;
+
+    // Events enqueued inside capture() on this thread, written later by the thread that owns the transaction
+    private final ThreadLocal<List<OutboxEvent>> captured = new ThreadLocal<>();
+
+    // Consumed event whose outputs are being written on this thread inside holdFor()
+    private final ThreadLocal<String> heldFor = new ThreadLocal<>();
 
-    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void publishCreated(OrderCreatedEvent event) {
-        log.info("Publishing OrderCreatedEvent for orderId={} to topic={}", event.getPayload().getOrderId(), topicCreated);
+        String topic = laneRouter.topicFor(laneRouter.laneFor(event.getPayload()));
+        log.info("Enqueueing OrderCreatedEvent for orderId={} to topic={}", event.getPayload().getOrderId(), topic);
         log.debug("OrderCreatedEvent payload={}", event);
-        kafkaTemplate.send(topicCreated, event.getPayload().getOrderId(), event);
+        enqueue(topic, event.getPayload().getOrderId(), event);
     }
 
-    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void publishProcessed(OrderProcessedEvent event) {
-        log.info("Publishing OrderProcessedEvent for orderId={} to topic={}",  event.getPayload().getOrderId(), topicProcessed);
+        log.info("Enqueueing OrderProcessedEvent for orderId={} to topic={}",  event.getPayload().getOrderId(), topicProcessed);
         log.debug("OrderProcessedEvent payload={}", event);
-        kafkaTemplate.send(topicProcessed, event.getPayload().getOrderId(), event);
+        enqueue(topicProcessed, event.getPayload().getOrderId(), event);
     }
 
-    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void publishLowStockAlert(LowStockAlertEvent event) {
-        log.info("Publishing LowStockAlertEvent for productId={} to topic={}",  event.getPayload().getProductId(), topicLowStock);
+        log.info("Enqueueing LowStockAlertEvent for productId={} to topic={}",  event.getPayload().getProductId(), topicLowStock);
         log.debug("LowStockAlertEvent payload={}", event);
-        kafkaTemplate.send(topicLowStock, event.getPayload().getProductId(), event);
+        enqueue(topicLowStock, event.getPayload().getProductId(), event);
     }
 
-    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    // Fraud hits roll the processing transaction back, the alert must still go out
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void publishFraudAlert(OrderFraudEvent event) {
-        log.info("Publishing OrderFraudEvent for orderId={} to topic={}",  event.getPayload().getOrderId(), topicFraudAlert);
+        log.info("Enqueueing OrderFraudEvent for orderId={} to topic={}",  event.getPayload().getOrderId(), topicFraudAlert);
         log.debug("OrderFraudEvent payload={}", event);
-        kafkaTemplate.send(topicFraudAlert, event.getPayload().getOrderId(), event);
+        // Written straight away, neither captured nor held: whatever becomes of the order, the alert is relayed
+        outboxRepository.save(toOutboxEvent(topicFraudAlert, event.getPayload().getOrderId(), event));
     }
 
-    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void publishSchedulingPayment(OrderSchedulingPaymentEvent event) {
-        log.info("Publishing SchedulingPayment for orderId={} to topic={}",  event.getPayload().getOrderId(), topicSchedulingPayment);
+        log.info("Enqueueing SchedulingPayment for orderId={} to topic={}",  event.getPayload().getOrderId(), topicSchedulingPayment);
         log.debug("OrderSchedulingPaymentEvent payload={}", event);
-        kafkaTemplate.send(topicSchedulingPayment, event.getPayload().getOrderId(), event);
+        enqueue(topicSchedulingPayment, event.getPayload().getOrderId(), event);
     }
 
-    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void publishPendingApproval(OrderPendingApprovalEvent event) {
-        log.info("Publishing PendingApproval for orderId={} to topic={}",  event.getPayload().getOrderId(), pendingApproval);
+        log.info("Enqueueing PendingApproval for orderId={} to topic={}",  event.getPayload().getOrderId(), pendingApproval);
         log.debug("PendingApproval payload={}", event);
-        kafkaTemplate.send(pendingApproval, event.getPayload().getOrderId(), event);
+        enqueue(pendingApproval, event.getPayload().getOrderId(), event);
     }
 
-    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void publishFailed(OrderFailedEvent event) {
-        log.warn("Publishing OrderFailedEvent for orderId={} to topic={}", event.getPayload().getOrderId(), topicFailed);
+        log.warn("Enqueueing OrderFailedEvent for orderId={} to topic={}", event.getPayload().getOrderId(), topicFailed);
         log.debug("OrderFailedEvent payload={}", event);
-        kafkaTemplate.send(topicFailed, event.getPayload().getOrderId(), event);
+        enqueue(topicFailed, event.getPayload().getOrderId(), event);
+    }
+
+    /**
+     * Runs {@code work} holding back the events it publishes instead of writing them, for work running on a
+     * thread outside the caller's transaction. The returned events go to the outbox through {@link #enqueueAll}.
+     */
+    public List<OutboxEvent> capture(Runnable work) {
+        List<OutboxEvent> previous = captured.get();
+        List<OutboxEvent> events = new ArrayList<>();
+        captured.set(events);
+        try {
+            work.run();
+            return events;
+        } finally {
+            if (previous == null) {
+                captured.remove();
+            } else {
+                captured.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Writes the events {@code work} publishes as outputs of the consumed event {@code sourceEventId}: they are
+     * held in the outbox for {@link HeldOutputEmitter} instead of being relayed. A null id writes them as usual.
+     */
+    public void holdFor(String sourceEventId, Runnable work) {
+        String previous = heldFor.get();
+        heldFor.set(sourceEventId);
+        try {
+            work.run();
+        } finally {
+            if (previous == null) {
+                heldFor.remove();
+            } else {
+                heldFor.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Writes captured events to the outbox, or hands them to the enclosing {@link #capture} if there is one.
+     */
+    public void enqueueAll(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<OutboxEvent> outer = captured.get();
+        if (outer != null) {
+            outer.addAll(events);
+            return;
+        }
+        events.forEach(event -> event.setSourceEventId(heldFor.get()));
+        outboxRepository.saveAll(events);
+    }
+
+    private void enqueue(String topic, String key, Object event) {
+        OutboxEvent outboxEvent = toOutboxEvent(topic, key, event);
+        List<OutboxEvent> events = captured.get();
+        if (events != null) {
+            events.add(outboxEvent);
+        } else {
+            outboxEvent.setSourceEventId(heldFor.get());
+            outboxRepository.save(outboxEvent);
+        }
+    }
+
+    private OutboxEvent toOutboxEvent(String topic, String key, Object event) {
+        try {
+            return OutboxEvent.builder()
+                    .topic(topic)
+                    .messageKey(key)
+                    .eventType(event.getClass().getName())
+                    .payload(objectMapper.writeValueAsString(event))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new ErrorSystemDefaultException("Could not serialize " + event.getClass().getSimpleName() + " for the outbox");
+        }
     }
-}
\ No newline at end of file
+}
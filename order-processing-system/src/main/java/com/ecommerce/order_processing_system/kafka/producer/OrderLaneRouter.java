@@ -0,0 +1,59 @@
+package com.ecommerce.order_processing_system.kafka.producer;
+
+import com.ecommerce.order_processing_system.domain.OrderLane;
+import com.ecommerce.order_processing_system.domain.ProductType;
+import com.ecommerce.order_processing_system.kafka.events.OrderCreatedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Picks the created topic for an order, so a flood of cheap orders on the standard topic never queues
+ * corporate or high-value orders behind it in the same partition.
+ */
+@Component
+public class OrderLaneRouter {
+
+    @Value("${app.order.lanes.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.order.corporate-approval-threshold:50000}")
+    private BigDecimal corporateApprovalThreshold;
+
+    @Value("${app.order.fraud-check-threshold}")
+    private BigDecimal fraudCheckThreshold;
+
+    @Value("${app.order.topic.created}")
+    private String topicCreated;
+
+    @Value("${app.order.topic.created-priority:order-events-created-priority}")
+    private String topicCreatedPriority;
+
+    @Value("${app.order.topic.created-high-value:order-events-created-high-value}")
+    private String topicCreatedHighValue;
+
+    public OrderLane laneFor(OrderCreatedEvent.Payload payload) {
+        if (!enabled) {
+            return OrderLane.STANDARD;
+        }
+        BigDecimal total = payload.getTotalAmount() != null ? payload.getTotalAmount() : BigDecimal.ZERO;
+        boolean corporate = payload.getItems() != null && payload.getItems().stream()
+                .anyMatch(item -> item.getProductType() == ProductType.CORPORATE);
+        if (corporate || total.compareTo(corporateApprovalThreshold) > 0) {
+            return OrderLane.PRIORITY;
+        }
+        if (total.compareTo(fraudCheckThreshold) > 0) {
+            return OrderLane.HIGH_VALUE;
+        }
+        return OrderLane.STANDARD;
+    }
+
+    public String topicFor(OrderLane lane) {
+        return switch (lane) {
+            case PRIORITY -> topicCreatedPriority;
+            case HIGH_VALUE -> topicCreatedHighValue;
+            case STANDARD -> topicCreated;
+        };
+    }
+}
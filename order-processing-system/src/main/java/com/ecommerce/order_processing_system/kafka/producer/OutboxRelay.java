@@ -0,0 +1,150 @@
+package com.ecommerce.order_processing_system.kafka.producer;
+
+import com.ecommerce.order_processing_system.domain.OutboxEvent;
+import com.ecommerce.order_processing_system.repository.OutboxEventRepository;
+import com.ecommerce.order_processing_system.service.OrderPipelineMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains the outbox to Kafka. Each batch is claimed for a lease in a short transaction, sent without waiting
+ * between records so the producer can group them, and settled in a second transaction: only the rows the
+ * broker acknowledged are deleted. Unacknowledged rows stay and are sent again, so delivery is at-least-once.
+ * <p>
+ * Once a row of a key is not acknowledged, the key's later rows in the batch are kept too, even if they were
+ * acknowledged, so they are sent again after it and the key's last event stays its latest. Failed sends are
+ * counted; a row that fails {@code max-attempts} times is moved to event_outbox_dead_letter.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxRepository;
+    private final TrackedEventSender sender;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderPipelineMetrics pipelineMetrics;
+
+    @Value("${app.outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.outbox.relay.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.outbox.relay.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${app.outbox.relay.claim-lease-ms:60000}")
+    private long claimLeaseMs;
+
+    @Value("${app.outbox.relay.max-attempts:10}")
+    private int maxAttempts;
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval-ms:200}")
+    public void relay() {
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            if (relayBatch() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    int relayBatch() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> claimNextBatch());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            sends.add(send(event));
+        }
+
+        List<Long> acknowledged = new ArrayList<>(batch.size());
+        List<Long> failed = new ArrayList<>();
+        List<Long> heldBack = new ArrayList<>();
+        Set<String> blockedKeys = new HashSet<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent event = batch.get(i);
+            if (Thread.currentThread().isInterrupted()
+                    || (event.getMessageKey() != null && blockedKeys.contains(event.getMessageKey()))) {
+                heldBack.add(event.getId());
+                continue;
+            }
+            try {
+                sends.get(i).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+                acknowledged.add(event.getId());
+                if (event.getCreatedAt() != null) {
+                    pipelineMetrics.recordSince(OrderPipelineMetrics.OUTBOX,
+                            event.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant());
+                }
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Outbox event id={} to topic={} not acknowledged, attempt={}, will retry",
+                        event.getId(), event.getTopic(), event.getAttempts() + 1, e);
+                failed.add(event.getId());
+                if (event.getMessageKey() != null) {
+                    blockedKeys.add(event.getMessageKey());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                heldBack.add(event.getId());
+            }
+        }
+
+        transactionTemplate.execute(status -> settle(acknowledged, failed, heldBack));
+        log.debug("Relayed outbox batch size={}, acknowledged={}, failed={}, heldBack={}",
+                batch.size(), acknowledged.size(), failed.size(), heldBack.size());
+        return acknowledged.size();
+    }
+
+    private List<OutboxEvent> claimNextBatch() {
+        List<OutboxEvent> batch = outboxRepository.lockNextBatch(batchSize);
+        if (!batch.isEmpty()) {
+            outboxRepository.claim(batch.stream().map(OutboxEvent::getId).toList(), claimLeaseMs);
+        }
+        return batch;
+    }
+
+    private Void settle(List<Long> acknowledged, List<Long> failed, List<Long> heldBack) {
+        if (!acknowledged.isEmpty()) {
+            outboxRepository.deleteAllByIdInBatch(acknowledged);
+        }
+        if (!failed.isEmpty()) {
+            outboxRepository.recordFailedAttempt(failed);
+            int deadLettered = outboxRepository.deadLetterExhausted(failed, maxAttempts);
+            if (deadLettered > 0) {
+                log.error("Moved {} outbox events to event_outbox_dead_letter after {} failed sends", deadLettered, maxAttempts);
+            }
+        }
+        if (!heldBack.isEmpty()) {
+            outboxRepository.releaseClaims(heldBack);
+        }
+        return null;
+    }
+
+    private CompletableFuture<SendResult<String, Object>> send(OutboxEvent event) {
+        try {
+            Object payload = objectMapper.readValue(event.getPayload(), Class.forName(event.getEventType()));
+            return sender.send(event.getTopic(), event.getMessageKey(), payload);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
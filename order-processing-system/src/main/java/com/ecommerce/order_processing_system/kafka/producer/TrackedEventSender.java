@@ -0,0 +1,79 @@
+package com.ecommerce.order_processing_system.kafka.producer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends through {@link KafkaTemplate} with a completion callback per record: send latency is timed per
+ * topic and outcome, and failures are counted per topic and exception. At most
+ * {@code app.kafka.producer.max-in-flight-sends} records may be unacknowledged; further sends wait for a slot
+ * and fail once {@code acquire-timeout-ms} passes, instead of growing the producer buffer without limit.
+ */
+@Slf4j
+@Component
+public class TrackedEventSender {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore inFlight;
+    private final long acquireTimeoutMs;
+
+    public TrackedEventSender(KafkaTemplate<String, Object> kafkaTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.kafka.producer.max-in-flight-sends:10000}") int maxInFlight,
+                              @Value("${app.kafka.producer.acquire-timeout-ms:5000}") long acquireTimeoutMs) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        meterRegistry.gauge("kafka.producer.sends.in_flight", inFlight, s -> maxInFlight - s.availablePermits());
+    }
+
+    public CompletableFuture<SendResult<String, Object>> send(String topic, String key, Object payload) {
+        try {
+            if (!inFlight.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                meterRegistry.counter("kafka.producer.send.errors", "topic", topic, "exception", "InFlightLimitReached").increment();
+                return CompletableFuture.failedFuture(
+                        new IllegalStateException("In-flight send limit reached for topic " + topic));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<SendResult<String, Object>> future;
+        try {
+            future = kafkaTemplate.send(topic, key, payload);
+        } catch (RuntimeException e) {
+            inFlight.release();
+            recordFailure(topic, e);
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return future.whenComplete((result, failure) -> {
+            inFlight.release();
+            sample.stop(meterRegistry.timer("kafka.producer.send.latency",
+                    "topic", topic, "outcome", failure == null ? "success" : "error"));
+            if (failure != null) {
+                recordFailure(topic, failure);
+            }
+        });
+    }
+
+    private void recordFailure(String topic, Throwable failure) {
+        Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+        meterRegistry.counter("kafka.producer.send.errors",
+                "topic", topic, "exception", cause.getClass().getSimpleName()).increment();
+        log.warn("Kafka send to topic={} failed: {}", topic, cause.getMessage());
+    }
+}
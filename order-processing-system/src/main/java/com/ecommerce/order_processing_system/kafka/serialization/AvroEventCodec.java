@@ -0,0 +1,223 @@
+package com.ecommerce.order_processing_system.kafka.serialization;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.*;
+import org.apache.avro.LogicalType;
+import org.apache.avro.Schema;
+import org.apache.avro.io.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Encodes registered events as {@code 0x0 | schema id (int32) | Avro binary}. Values travel through a Jackson tree,
+ * so the event classes stay plain DTOs: the schema drives the layout, ISO timestamps become
+ * {@code timestamp-nanos} longs (nanoseconds since the epoch, lossless for {@code Instant.now()}), ISO dates
+ * become {@code date} ints, and strings marked {@code "encoding": "json"} carry free-form values such as item
+ * metadata. Messages written with an older schema version are resolved
+ * against the latest one for the same class.
+ */
+public class AvroEventCodec {
+
+    public static final byte MAGIC_BYTE = 0x0;
+    private static final int HEADER_SIZE = 5;
+
+    private final EventSchemaRegistry registry;
+    private final ObjectMapper objectMapper;
+    private final ThreadLocal<Map<Integer, ResolvingDecoder>> decoders = ThreadLocal.withInitial(HashMap::new);
+
+    public AvroEventCodec(EventSchemaRegistry registry, ObjectMapper objectMapper) {
+        this.registry = registry;
+        this.objectMapper = objectMapper;
+    }
+
+    public boolean supports(Class<?> eventClass) {
+        return registry.latestFor(eventClass).isPresent();
+    }
+
+    public Optional<Integer> schemaVersion(Class<?> eventClass) {
+        return registry.latestFor(eventClass).map(EventSchemaRegistry.RegisteredSchema::version);
+    }
+
+    public static boolean isEncoded(byte[] data) {
+        return data != null && data.length >= HEADER_SIZE && data[0] == MAGIC_BYTE;
+    }
+
+    public byte[] encode(Object event) {
+        EventSchemaRegistry.RegisteredSchema registered = registry.latestFor(event.getClass())
+                .orElseThrow(() -> new IllegalArgumentException("No schema registered for " + event.getClass().getName()));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        out.write(MAGIC_BYTE);
+        out.writeBytes(ByteBuffer.allocate(4).putInt(registered.id()).array());
+        try {
+            BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+            write(registered.schema(), objectMapper.valueToTree(event), encoder, registered.schema().getName());
+            encoder.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public Object decode(byte[] data) {
+        if (!isEncoded(data)) {
+            throw new IllegalArgumentException("Not an Avro encoded event");
+        }
+        int id = ByteBuffer.wrap(data, 1, 4).getInt();
+        EventSchemaRegistry.RegisteredSchema writer = registry.byId(id)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown schema id " + id));
+        EventSchemaRegistry.RegisteredSchema reader = registry.latestFor(writer.eventClass()).orElseThrow();
+
+        try {
+            BinaryDecoder binary = DecoderFactory.get().binaryDecoder(data, HEADER_SIZE, data.length - HEADER_SIZE, null);
+            ResolvingDecoder decoder = decoderFor(writer, reader);
+            decoder.configure(binary);
+            JsonNode tree = read(reader.schema(), decoder);
+            decoder.drain();
+            return objectMapper.treeToValue(tree, reader.eventClass());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ResolvingDecoder decoderFor(EventSchemaRegistry.RegisteredSchema writer,
+                                        EventSchemaRegistry.RegisteredSchema reader) {
+        // Building the resolver grammar is expensive; the decoder itself is stateful, hence one per thread
+        return decoders.get().computeIfAbsent(writer.id(), ignored -> {
+            try {
+                return DecoderFactory.get().resolvingDecoder(writer.schema(), reader.schema(), null);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void write(Schema schema, JsonNode node, Encoder out, String path) throws IOException {
+        switch (schema.getType()) {
+            case RECORD -> {
+                for (Schema.Field field : schema.getFields()) {
+                    write(field.schema(), node == null ? null : node.get(field.name()), out, path + "." + field.name());
+                }
+            }
+            case UNION -> {
+                List<Schema> branches = schema.getTypes();
+                boolean absent = node == null || node.isNull();
+                int index = -1;
+                for (int i = 0; i < branches.size() && index < 0; i++) {
+                    if ((branches.get(i).getType() == Schema.Type.NULL) == absent) {
+                        index = i;
+                    }
+                }
+                if (index < 0) {
+                    throw new IllegalArgumentException("No union branch for " + path);
+                }
+                out.writeIndex(index);
+                write(branches.get(index), node, out, path);
+            }
+            case NULL -> out.writeNull();
+            case ARRAY -> {
+                out.writeArrayStart();
+                out.setItemCount(node.size());
+                for (JsonNode element : node) {
+                    out.startItem();
+                    write(schema.getElementType(), element, out, path + "[]");
+                }
+                out.writeArrayEnd();
+            }
+            case ENUM -> out.writeEnum(schema.getEnumOrdinal(required(node, path).asText()));
+            case STRING -> out.writeString(toText(schema, required(node, path)));
+            case INT -> out.writeInt("date".equals(logicalType(schema))
+                    ? (int) LocalDate.parse(required(node, path).asText()).toEpochDay()
+                    : required(node, path).asInt());
+            case LONG -> out.writeLong("timestamp-nanos".equals(logicalType(schema))
+                    ? ChronoUnit.NANOS.between(Instant.EPOCH, Instant.parse(required(node, path).asText()))
+                    : required(node, path).asLong());
+            case BOOLEAN -> out.writeBoolean(required(node, path).asBoolean());
+            case DOUBLE -> out.writeDouble(required(node, path).asDouble());
+            default -> throw new IllegalArgumentException("Unsupported schema type " + schema.getType() + " at " + path);
+        }
+    }
+
+    private JsonNode read(Schema schema, ResolvingDecoder in) throws IOException {
+        JsonNodeFactory nodes = objectMapper.getNodeFactory();
+        return switch (schema.getType()) {
+            case RECORD -> {
+                ObjectNode record = nodes.objectNode();
+                for (Schema.Field field : in.readFieldOrder()) {
+                    record.set(field.name(), read(field.schema(), in));
+                }
+                yield record;
+            }
+            case UNION -> read(schema.getTypes().get(in.readIndex()), in);
+            case NULL -> {
+                in.readNull();
+                yield NullNode.getInstance();
+            }
+            case ARRAY -> {
+                ArrayNode array = nodes.arrayNode();
+                for (long n = in.readArrayStart(); n > 0; n = in.arrayNext()) {
+                    for (long i = 0; i < n; i++) {
+                        array.add(read(schema.getElementType(), in));
+                    }
+                }
+                yield array;
+            }
+            case ENUM -> nodes.textNode(schema.getEnumSymbols().get(in.readEnum()));
+            case STRING -> fromText(schema, in.readString());
+            case INT -> {
+                int value = in.readInt();
+                yield "date".equals(logicalType(schema))
+                        ? nodes.textNode(LocalDate.ofEpochDay(value).toString())
+                        : nodes.numberNode(value);
+            }
+            case LONG -> {
+                long value = in.readLong();
+                yield "timestamp-nanos".equals(logicalType(schema))
+                        ? nodes.textNode(Instant.EPOCH.plus(value, ChronoUnit.NANOS).toString())
+                        : nodes.numberNode(value);
+            }
+            case BOOLEAN -> nodes.booleanNode(in.readBoolean());
+            case DOUBLE -> nodes.numberNode(in.readDouble());
+            default -> throw new IllegalArgumentException("Unsupported schema type " + schema.getType());
+        };
+    }
+
+    private String toText(Schema schema, JsonNode node) {
+        if (isJsonEncoded(schema)) {
+            return node.toString();
+        }
+        return node.isBigDecimal() || node.isFloatingPointNumber() ? node.decimalValue().toPlainString() : node.asText();
+    }
+
+    private JsonNode fromText(Schema schema, String text) throws JsonProcessingException {
+        return isJsonEncoded(schema) ? objectMapper.readTree(text) : objectMapper.getNodeFactory().textNode(text);
+    }
+
+    private static boolean isJsonEncoded(Schema schema) {
+        return "json".equals(schema.getProp("encoding"));
+    }
+
+    private static String logicalType(Schema schema) {
+        return Optional.ofNullable(schema.getLogicalType()).map(LogicalType::getName)
+                .orElse(schema.getProp("logicalType"));
+    }
+
+    private static JsonNode required(JsonNode node, String path) {
+        if (node == null || node.isNull()) {
+            throw new IllegalArgumentException("Missing required value at " + path);
+        }
+        return node;
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.order_processing_system.kafka.serialization;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads both encodings regardless of what this instance produces, so producers can switch encoding without
+ * draining topics first: Avro messages start with {@link AvroEventCodec#MAGIC_BYTE}, which JSON never does.
+ * <p>
+ * Given the event types consumed from each topic, a record whose {@link EventHeaders#EVENT_TYPE} header names
+ * another type comes back as a {@link SkippedEvent} without its payload being parsed. Records without the
+ * header, from producers that predate it, are always parsed.
+ */
+public class EventDeserializer implements Deserializer<Object> {
+
+    private final AvroEventCodec codec;
+    private final Map<String, Set<String>> consumedTypesByTopic;
+    private final JsonDeserializer<Object> json = new JsonDeserializer<>();
+
+    public EventDeserializer(AvroEventCodec codec) {
+        this(codec, Map.of());
+    }
+
+    public EventDeserializer(AvroEventCodec codec, Map<String, Set<String>> consumedTypesByTopic) {
+        this.codec = codec;
+        this.consumedTypesByTopic = Map.copyOf(consumedTypesByTopic);
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return AvroEventCodec.isEncoded(data) ? codec.decode(data) : json.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        Set<String> consumed = consumedTypesByTopic.get(topic);
+        if (consumed != null) {
+            String eventType = EventHeaders.get(headers, EventHeaders.EVENT_TYPE);
+            if (eventType != null && !consumed.contains(eventType)) {
+                return new SkippedEvent(eventType);
+            }
+        }
+        return AvroEventCodec.isEncoded(data) ? codec.decode(data) : json.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
@@ -0,0 +1,38 @@
+package com.ecommerce.order_processing_system.kafka.serialization;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Record headers stamped on every published event, so consumers can route or drop a record without parsing
+ * its payload.
+ */
+public final class EventHeaders {
+
+    public static final String EVENT_TYPE = "event-type";
+    public static final String EVENT_ID = "event-id";
+    /**
+     * Version of the event's registered schema; absent for event classes without one.
+     */
+    public static final String SCHEMA_VERSION = "event-schema-version";
+
+    private EventHeaders() {
+    }
+
+    public static String get(Headers headers, String name) {
+        if (headers == null) {
+            return null;
+        }
+        Header header = headers.lastHeader(name);
+        return header == null || header.value() == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    static void set(Headers headers, String name, Object value) {
+        headers.remove(name);
+        if (value != null) {
+            headers.add(name, value.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
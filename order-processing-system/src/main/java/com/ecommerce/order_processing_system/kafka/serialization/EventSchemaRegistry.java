@@ -0,0 +1,93 @@
+package com.ecommerce.order_processing_system.kafka.serialization;
+
+import org.apache.avro.Schema;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * File-based schema registry read from the classpath: {@code avro/registry.properties} maps each schema id to an
+ * {@code .avsc} file whose record full name is the event class and whose {@code version} property orders the
+ * versions of that class. Binary messages carry the id, so any instance shipping the same files can decode them.
+ */
+public class EventSchemaRegistry {
+
+    public static final String DEFAULT_LOCATION = "avro/";
+
+    public record RegisteredSchema(int id, int version, Schema schema, Class<?> eventClass) {
+    }
+
+    private final Map<Integer, RegisteredSchema> byId;
+    private final Map<Class<?>, RegisteredSchema> latestByClass;
+
+    public EventSchemaRegistry(Collection<RegisteredSchema> schemas) {
+        Map<Integer, RegisteredSchema> ids = new TreeMap<>();
+        Map<Class<?>, RegisteredSchema> latest = new HashMap<>();
+        for (RegisteredSchema schema : schemas) {
+            if (ids.putIfAbsent(schema.id(), schema) != null) {
+                throw new IllegalStateException("Duplicate schema id " + schema.id());
+            }
+            latest.merge(schema.eventClass(), schema, (a, b) -> {
+                if (a.version() == b.version()) {
+                    throw new IllegalStateException("Duplicate version " + a.version() + " for " + a.eventClass().getName());
+                }
+                return a.version() > b.version() ? a : b;
+            });
+        }
+        this.byId = Collections.unmodifiableMap(ids);
+        this.latestByClass = Map.copyOf(latest);
+    }
+
+    public static EventSchemaRegistry load() {
+        return load(DEFAULT_LOCATION);
+    }
+
+    public static EventSchemaRegistry load(String location) {
+        ClassLoader classLoader = EventSchemaRegistry.class.getClassLoader();
+        Properties index = new Properties();
+        try (InputStream in = classLoader.getResourceAsStream(location + "registry.properties")) {
+            if (in == null) {
+                throw new IllegalStateException("No schema registry index at " + location);
+            }
+            index.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<RegisteredSchema> schemas = new ArrayList<>();
+        for (String id : index.stringPropertyNames()) {
+            String file = index.getProperty(id).trim();
+            try (InputStream in = classLoader.getResourceAsStream(location + file)) {
+                if (in == null) {
+                    throw new IllegalStateException("Schema file not found: " + location + file);
+                }
+                Schema schema = new Schema.Parser().parse(in);
+                Object version = schema.getObjectProp("version");
+                if (!(version instanceof Number number)) {
+                    throw new IllegalStateException("Schema " + file + " has no numeric version property");
+                }
+                schemas.add(new RegisteredSchema(Integer.parseInt(id.trim()), number.intValue(), schema,
+                        Class.forName(schema.getFullName(), false, classLoader)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("Schema " + file + " names an unknown event class", e);
+            }
+        }
+        return new EventSchemaRegistry(schemas);
+    }
+
+    public Optional<RegisteredSchema> byId(int id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    public Optional<RegisteredSchema> latestFor(Class<?> eventClass) {
+        return Optional.ofNullable(latestByClass.get(eventClass));
+    }
+
+    public Collection<RegisteredSchema> all() {
+        return byId.values();
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.order_processing_system.kafka.serialization;
+
+import com.ecommerce.order_processing_system.kafka.events.EventEnvelope;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+/**
+ * Writes registered event classes with {@link AvroEventCodec} when binary encoding is enabled and everything else
+ * (or everything, when it is not) as JSON. Events also get their type, id and schema version stamped into
+ * {@link EventHeaders}, whichever the encoding.
+ */
+public class EventSerializer implements Serializer<Object> {
+
+    private final AvroEventCodec codec;
+    private final boolean binary;
+    private final JsonSerializer<Object> json = new JsonSerializer<>();
+
+    public EventSerializer(AvroEventCodec codec, boolean binary) {
+        this.codec = codec;
+        this.binary = binary;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return serialize(topic, null, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (headers != null && data instanceof EventEnvelope event) {
+            EventHeaders.set(headers, EventHeaders.EVENT_TYPE, event.getEventType());
+            EventHeaders.set(headers, EventHeaders.EVENT_ID, event.getEventId());
+            EventHeaders.set(headers, EventHeaders.SCHEMA_VERSION, codec.schemaVersion(data.getClass()).orElse(null));
+        }
+        if (data != null && binary && codec.supports(data.getClass())) {
+            return codec.encode(data);
+        }
+        return headers == null ? json.serialize(topic, data) : json.serialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
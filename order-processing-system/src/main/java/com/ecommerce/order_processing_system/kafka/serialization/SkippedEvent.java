@@ -0,0 +1,23 @@
+package com.ecommerce.order_processing_system.kafka.serialization;
+
+/**
+ * Stands in for a record {@link EventDeserializer} left unparsed because its event-type header is not one the
+ * topic's listeners consume; listener containers filter it out before it reaches a listener.
+ */
+public final class SkippedEvent {
+
+    private final String eventType;
+
+    SkippedEvent(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    @Override
+    public String toString() {
+        return "SkippedEvent[" + eventType + "]";
+    }
+}
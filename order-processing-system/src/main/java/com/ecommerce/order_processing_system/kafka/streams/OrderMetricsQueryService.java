@@ -0,0 +1,141 @@
+package com.ecommerce.order_processing_system.kafka.streams;
+
+import com.ecommerce.order_processing_system.exception.MetricsUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.StreamsMetadata;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyWindowStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Interactive queries over the {@link OrderMetricsTopology} stores. Each instance holds the windows of the store
+ * partitions assigned to it, so a query reads the local stores and, unless {@code local} is set, merges the
+ * local results of every other instance that hosts the same stores.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.metrics.streams.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderMetricsQueryService {
+
+    private final StreamsBuilderFactoryBean streamsFactory;
+    private final HostInfo self;
+    private final RestClient restClient = RestClient.create();
+
+    public OrderMetricsQueryService(StreamsBuilderFactoryBean streamsFactory,
+                                    @Value("${app.metrics.streams.advertised-host:localhost}") String host,
+                                    @Value("${server.port:8080}") int port) {
+        this.streamsFactory = streamsFactory;
+        this.self = new HostInfo(host, port);
+    }
+
+    public Map<String, Map<Instant, Long>> statusCounts(int minutes, boolean local) {
+        Instant from = since(minutes);
+        Map<String, Map<Instant, Long>> counts = countsByStatus(
+                store(OrderMetricsTopology.STATUS_COUNTS_STORE), from, Instant.now());
+        if (!local) {
+            forEachRemote(OrderMetricsTopology.STATUS_COUNTS_STORE, remote -> {
+                Map<String, Map<Instant, Long>> remoteCounts = restClient.get()
+                        .uri("http://{host}:{port}/api/metrics/orders/status?minutes={minutes}&local=true",
+                                remote.host(), remote.port(), minutes)
+                        .retrieve()
+                        .body(new ParameterizedTypeReference<Map<String, Map<Instant, Long>>>() {});
+                if (remoteCounts != null) {
+                    remoteCounts.forEach((status, series) -> series.forEach((window, count) ->
+                            counts.computeIfAbsent(status, ignored -> new TreeMap<>()).merge(window, count, Long::sum)));
+                }
+            });
+        }
+        return counts;
+    }
+
+    public Map<String, BigDecimal> revenueByProductType(int minutes, boolean local) {
+        Instant from = since(minutes);
+        Map<String, BigDecimal> revenue = revenueTotals(store(OrderMetricsTopology.REVENUE_STORE), from, Instant.now());
+        if (!local) {
+            forEachRemote(OrderMetricsTopology.REVENUE_STORE, remote -> {
+                Map<String, BigDecimal> remoteRevenue = restClient.get()
+                        .uri("http://{host}:{port}/api/metrics/revenue/product-type?minutes={minutes}&local=true",
+                                remote.host(), remote.port(), minutes)
+                        .retrieve()
+                        .body(new ParameterizedTypeReference<Map<String, BigDecimal>>() {});
+                if (remoteRevenue != null) {
+                    remoteRevenue.forEach((type, amount) -> revenue.merge(type, amount, BigDecimal::add));
+                }
+            });
+        }
+        return revenue;
+    }
+
+    static Map<String, Map<Instant, Long>> countsByStatus(ReadOnlyWindowStore<String, Long> store, Instant from, Instant to) {
+        Map<String, Map<Instant, Long>> counts = new TreeMap<>();
+        try (KeyValueIterator<Windowed<String>, Long> windows = store.fetchAll(from, to)) {
+            while (windows.hasNext()) {
+                KeyValue<Windowed<String>, Long> window = windows.next();
+                counts.computeIfAbsent(window.key.key(), ignored -> new TreeMap<>())
+                        .merge(window.key.window().startTime(), window.value, Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    static Map<String, BigDecimal> revenueTotals(ReadOnlyWindowStore<String, BigDecimal> store, Instant from, Instant to) {
+        Map<String, BigDecimal> revenue = new TreeMap<>();
+        try (KeyValueIterator<Windowed<String>, BigDecimal> windows = store.fetchAll(from, to)) {
+            while (windows.hasNext()) {
+                KeyValue<Windowed<String>, BigDecimal> window = windows.next();
+                revenue.merge(window.key.key(), window.value, BigDecimal::add);
+            }
+        }
+        return revenue;
+    }
+
+    private static Instant since(int minutes) {
+        return Instant.now().minus(Duration.ofMinutes(minutes)).truncatedTo(ChronoUnit.MINUTES);
+    }
+
+    private <V> ReadOnlyWindowStore<String, V> store(String name) {
+        KafkaStreams streams = streamsFactory.getKafkaStreams();
+        if (streams == null) {
+            throw new MetricsUnavailableException("Order metrics stream is not running");
+        }
+        try {
+            return streams.store(StoreQueryParameters.fromNameAndType(name, QueryableStoreTypes.windowStore()));
+        } catch (InvalidStateStoreException e) {
+            throw new MetricsUnavailableException("Order metrics store " + name + " is not queryable yet: " + e.getMessage());
+        }
+    }
+
+    private void forEachRemote(String storeName, Consumer<HostInfo> query) {
+        for (StreamsMetadata metadata : streamsFactory.getKafkaStreams().streamsMetadataForStore(storeName)) {
+            HostInfo host = metadata.hostInfo();
+            if (host.equals(self)) {
+                continue;
+            }
+            try {
+                query.accept(host);
+            } catch (RuntimeException e) {
+                throw new MetricsUnavailableException("Order metrics host " + host + " did not answer: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.ecommerce.order_processing_system.kafka.streams;
+
+import com.ecommerce.order_processing_system.dto.OrderItemResponse;
+import com.ecommerce.order_processing_system.kafka.events.*;
+import com.ecommerce.order_processing_system.kafka.serialization.AvroEventCodec;
+import com.ecommerce.order_processing_system.kafka.serialization.EventDeserializer;
+import com.ecommerce.order_processing_system.kafka.serialization.EventSerializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.*;
+import org.apache.kafka.streams.state.WindowStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static com.ecommerce.order_processing_system.domain.OrderStatus.*;
+
+/**
+ * Per-minute aggregates over the order event topics, kept in local window stores and read through
+ * {@link OrderMetricsQueryService}:
+ * <ul>
+ *     <li>{@value #STATUS_COUNTS_STORE}: orders reaching each status, keyed by status.</li>
+ *     <li>{@value #REVENUE_STORE}: item subtotals of processed orders, keyed by product type. Items come from the
+ *     order-created event, joined by order id within {@code app.metrics.streams.join-window}.</li>
+ * </ul>
+ * The created topics and the processed topic are not created with the same partition count, so both join
+ * sides are repartitioned to {@code app.metrics.streams.join-partitions} first; the join needs them co-partitioned.
+ * Range queries over the one-minute windows answer both "per minute" and "last hour" questions.
+ */
+@Component
+@ConditionalOnProperty(name = "app.metrics.streams.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderMetricsTopology {
+
+    public static final String STATUS_COUNTS_STORE = "order-status-counts-per-minute";
+    public static final String REVENUE_STORE = "revenue-by-product-type-per-minute";
+    public static final Duration WINDOW = Duration.ofMinutes(1);
+
+    private final Serde<Object> eventSerde;
+    private final Serde<BigDecimal> amountSerde = Serdes.serdeFrom(
+            (topic, amount) -> amount.toPlainString().getBytes(StandardCharsets.UTF_8),
+            (topic, bytes) -> new BigDecimal(new String(bytes, StandardCharsets.UTF_8)));
+
+    @Value("${app.order.topic.created}")
+    private String topicCreated;
+
+    @Value("${app.order.topic.created-priority:order-events-created-priority}")
+    private String topicCreatedPriority;
+
+    @Value("${app.order.topic.created-high-value:order-events-created-high-value}")
+    private String topicCreatedHighValue;
+
+    @Value("${app.order.topic.processed}")
+    private String topicProcessed;
+
+    @Value("${app.order.topic.failed}")
+    private String topicFailed;
+
+    @Value("${app.order.topic.pending-approval}")
+    private String topicPendingApproval;
+
+    @Value("${app.metrics.streams.grace:PT30S}")
+    private Duration grace;
+
+    @Value("${app.metrics.streams.retention:PT24H}")
+    private Duration retention;
+
+    @Value("${app.metrics.streams.join-window:PT1H}")
+    private Duration joinWindow;
+
+    @Value("${app.metrics.streams.join-partitions:3}")
+    private int joinPartitions;
+
+    public OrderMetricsTopology(AvroEventCodec avroEventCodec) {
+        EventDeserializer deserializer = new EventDeserializer(avroEventCodec);
+        // Serdes handed to Consumed/StreamJoined are not configured by Streams itself
+        deserializer.configure(Map.of(JsonDeserializer.TRUSTED_PACKAGES, OrderCreatedEvent.class.getPackageName()), false);
+        // Join stores hold events without record headers, so JSON type info would be lost: always store them as Avro
+        this.eventSerde = Serdes.serdeFrom(new EventSerializer(avroEventCodec, true), deserializer);
+    }
+
+    @Autowired
+    public void build(StreamsBuilder builder) {
+        Consumed<String, Object> consumed = Consumed.with(Serdes.String(), eventSerde);
+        KStream<String, Object> created = builder.stream(List.of(topicCreated, topicCreatedPriority, topicCreatedHighValue), consumed);
+        KStream<String, Object> processed = builder.stream(topicProcessed, consumed);
+        KStream<String, Object> failed = builder.stream(topicFailed, consumed);
+        KStream<String, Object> pendingApproval = builder.stream(topicPendingApproval, consumed);
+
+        created.merge(processed).merge(failed).merge(pendingApproval)
+                .mapValues(OrderMetricsTopology::statusOf)
+                .filter((orderId, status) -> status != null)
+                .groupBy((orderId, status) -> status, Grouped.with("order-status", Serdes.String(), Serdes.String()))
+                .windowedBy(TimeWindows.ofSizeAndGrace(WINDOW, grace))
+                .count(Materialized.<String, Long, WindowStore<Bytes, byte[]>>as(STATUS_COUNTS_STORE)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(Serdes.Long())
+                        .withRetention(retention.plus(grace)));
+
+        KStream<String, Object> createdOrders = created.filter((orderId, event) -> event instanceof OrderCreatedEvent)
+                .repartition(joinSide("created-orders"));
+        processed.filter((orderId, event) -> event instanceof OrderProcessedEvent)
+                .repartition(joinSide("processed-orders-by-id"))
+                .join(createdOrders,
+                        (processedEvent, createdEvent) -> createdEvent,
+                        JoinWindows.ofTimeDifferenceAndGrace(joinWindow, grace),
+                        StreamJoined.with(Serdes.String(), eventSerde, eventSerde).withName("processed-orders"))
+                .flatMap((orderId, event) -> revenueByProductType((OrderCreatedEvent) event))
+                .groupByKey(Grouped.with("product-type", Serdes.String(), amountSerde))
+                .windowedBy(TimeWindows.ofSizeAndGrace(WINDOW, grace))
+                .reduce(BigDecimal::add, Materialized.<String, BigDecimal, WindowStore<Bytes, byte[]>>as(REVENUE_STORE)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(amountSerde)
+                        .withRetention(retention.plus(grace)));
+    }
+
+    private Repartitioned<String, Object> joinSide(String name) {
+        return Repartitioned.<String, Object>as(name)
+                .withKeySerde(Serdes.String())
+                .withValueSerde(eventSerde)
+                .withNumberOfPartitions(joinPartitions);
+    }
+
+    static String statusOf(Object event) {
+        if (event instanceof OrderCreatedEvent) {
+            return CREATED.name();
+        }
+        if (event instanceof OrderProcessedEvent) {
+            return PROCESSED.name();
+        }
+        if (event instanceof OrderFailedEvent) {
+            return FAILED.name();
+        }
+        if (event instanceof OrderPendingApprovalEvent) {
+            return PENDING_APPROVAL.name();
+        }
+        return null;
+    }
+
+    private static List<KeyValue<String, BigDecimal>> revenueByProductType(OrderCreatedEvent event) {
+        List<OrderItemResponse> items = event.getPayload().getItems();
+        if (items == null) {
+            return List.of();
+        }
+        return items.stream()
+                .filter(item -> item.getProductType() != null && item.getSubtotal() != null)
+                .map(item -> KeyValue.pair(item.getProductType().name(), item.getSubtotal()))
+                .toList();
+    }
+}
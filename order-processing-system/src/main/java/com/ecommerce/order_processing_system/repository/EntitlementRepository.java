@@ -0,0 +1,39 @@
+package com.ecommerce.order_processing_system.repository;
+
+import com.ecommerce.order_processing_system.domain.Entitlement;
+import com.ecommerce.order_processing_system.domain.EntitlementStatus;
+import com.ecommerce.order_processing_system.domain.ProductType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface EntitlementRepository extends JpaRepository<Entitlement, Entitlement.EntitlementId> {
+
+    boolean existsByCustomerIdAndProductIdAndStatus(String customerId, String productId, EntitlementStatus status);
+
+    long countByCustomerIdAndProductTypeAndStatus(String customerId, ProductType productType, EntitlementStatus status);
+
+    @Query("SELECT e.productId FROM Entitlement e " +
+            "WHERE e.customerId = :customerId AND e.productType = :productType AND e.status = :status")
+    List<String> findProductIds(@Param("customerId") String customerId,
+                                @Param("productType") ProductType productType,
+                                @Param("status") EntitlementStatus status);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO entitlements (customer_id, product_id, product_type, status, order_id, created_at, updated_at)
+            VALUES (:customerId, :productId, :productType, 'ACTIVE', :orderId, now(), now())
+            ON CONFLICT (customer_id, product_id)
+            DO UPDATE SET product_type = EXCLUDED.product_type,
+                          status = 'ACTIVE',
+                          order_id = EXCLUDED.order_id,
+                          updated_at = now()
+            """, nativeQuery = true)
+    void upsertActive(@Param("customerId") String customerId,
+                      @Param("productId") String productId,
+                      @Param("productType") String productType,
+                      @Param("orderId") String orderId);
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.order_processing_system.repository;
+
+import com.ecommerce.order_processing_system.domain.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Returns 1 if this transaction now owns the key; an expired record is taken over in place.
+     * A concurrent owner makes this wait until it commits or rolls back.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotency_keys (idempotency_key, request_hash, created_at, expires_at)
+            VALUES (:key, :requestHash, :now, :expiresAt)
+            ON CONFLICT (idempotency_key)
+            DO UPDATE SET request_hash = EXCLUDED.request_hash,
+                          response = NULL,
+                          created_at = EXCLUDED.created_at,
+                          expires_at = EXCLUDED.expires_at
+            WHERE idempotency_keys.expires_at < :now
+            """, nativeQuery = true)
+    int claim(@Param("key") String key,
+              @Param("requestHash") String requestHash,
+              @Param("now") LocalDateTime now,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query(value = "UPDATE idempotency_keys SET response = CAST(:response AS JSONB) WHERE idempotency_key = :key",
+            nativeQuery = true)
+    int complete(@Param("key") String key, @Param("response") String response);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,176 @@
+package com.ecommerce.order_processing_system.repository;
+
+import com.ecommerce.order_processing_system.dto.OrderResponse;
+import com.ecommerce.order_processing_system.exception.ErrorSystemDefaultException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Append-only archive of finished orders on local disk.
+ * <p>
+ * Each archive run writes a new segment: one gzip member per order, so a single order can be read back
+ * by seeking to its offset without inflating the rest of the segment. The segment's index file, listing
+ * order id, customer id, offset and length, is written last and atomically, so only complete segments
+ * are ever visible. Indexes are loaded into memory at startup, and segments written since, by the instance that
+ * ran the archival on the shared directory, are picked up every {@code refresh-interval-ms}.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class OrderArchiveStore {
+
+    private static final String SEGMENT_SUFFIX = ".ndjson.gz";
+    private static final String INDEX_SUFFIX = ".idx";
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.order.archive.directory:./data/order-archive}")
+    private String directory;
+
+    private final Map<String, Location> byOrderId = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> byCustomerId = new ConcurrentHashMap<>();
+    private final Set<String> loadedSegments = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void loadIndexes() throws IOException {
+        Path root = Files.createDirectories(Path.of(directory));
+        loadNewIndexes(root);
+        log.info("Loaded order archive index directory={}, orders={}", root.toAbsolutePath(), byOrderId.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.order.archive.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            int loaded = loadNewIndexes(Path.of(directory));
+            if (loaded > 0) {
+                log.info("Loaded {} new order archive segments, orders={}", loaded, byOrderId.size());
+            }
+        } catch (IOException e) {
+            log.warn("Could not refresh order archive index directory={}: {}", directory, e.getMessage());
+        }
+    }
+
+    private synchronized int loadNewIndexes(Path root) throws IOException {
+        int loaded = 0;
+        try (Stream<Path> files = Files.list(root)) {
+            for (Path index : files.filter(p -> p.toString().endsWith(INDEX_SUFFIX)).sorted().toList()) {
+                String segment = index.getFileName().toString().replace(INDEX_SUFFIX, "");
+                if (!loadedSegments.add(segment)) {
+                    continue;
+                }
+                for (String line : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+                    String[] fields = line.split("\t", -1);
+                    register(fields[0], fields[1], new Location(segment, Long.parseLong(fields[2]), Integer.parseInt(fields[3])));
+                }
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    public synchronized void append(List<OrderResponse> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+
+        Path root = Path.of(directory);
+        String segment = "segment-%d-%s".formatted(System.currentTimeMillis(), UUID.randomUUID().toString().substring(0, 8));
+        Map<OrderResponse, Location> written = new LinkedHashMap<>();
+
+        try (FileChannel channel = FileChannel.open(root.resolve(segment + SEGMENT_SUFFIX),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long offset = 0;
+            for (OrderResponse order : orders) {
+                byte[] member = gzip(objectMapper.writeValueAsBytes(order));
+                channel.write(ByteBuffer.wrap(member));
+                written.put(order, new Location(segment, offset, member.length));
+                offset += member.length;
+            }
+            channel.force(true);
+
+            StringBuilder index = new StringBuilder();
+            written.forEach((order, location) -> index
+                    .append(order.getOrderId()).append('\t')
+                    .append(Objects.toString(order.getCustomerId(), "")).append('\t')
+                    .append(location.offset()).append('\t')
+                    .append(location.length()).append('\n'));
+
+            Path tmp = root.resolve(segment + INDEX_SUFFIX + ".tmp");
+            Files.writeString(tmp, index, StandardCharsets.UTF_8);
+            Files.move(tmp, root.resolve(segment + INDEX_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Failed to write archive segment={}", segment, e);
+            throw new ErrorSystemDefaultException("Could not write order archive segment " + segment);
+        }
+
+        loadedSegments.add(segment);
+        written.forEach((order, location) -> register(order.getOrderId(), order.getCustomerId(), location));
+        log.info("Archived {} orders into segment={}", written.size(), segment);
+    }
+
+    public Optional<OrderResponse> find(String orderId) {
+        Location location = byOrderId.get(orderId);
+        if (location == null) {
+            return Optional.empty();
+        }
+
+        try (FileChannel channel = FileChannel.open(Path.of(directory, location.segment() + SEGMENT_SUFFIX))) {
+            ByteBuffer buffer = ByteBuffer.allocate(location.length());
+            channel.read(buffer, location.offset());
+            return Optional.of(objectMapper.readValue(gunzip(buffer.array()), OrderResponse.class));
+        } catch (IOException e) {
+            log.error("Failed to read archived orderId={} from segment={}", orderId, location.segment(), e);
+            throw new ErrorSystemDefaultException("Could not read archived order " + orderId);
+        }
+    }
+
+    public List<OrderResponse> findByCustomer(String customerId) {
+        return byCustomerId.getOrDefault(customerId, Set.of()).stream()
+                .map(this::find)
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    private void register(String orderId, String customerId, Location location) {
+        byOrderId.put(orderId, location);
+        if (customerId != null && !customerId.isEmpty()) {
+            byCustomerId.computeIfAbsent(customerId, c -> ConcurrentHashMap.newKeySet()).add(orderId);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+            gzip.write('\n');
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] member) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(member))) {
+            return gzip.readAllBytes();
+        }
+    }
+
+    private record Location(String segment, long offset, int length) {
+    }
+}
@@ -2,10 +2,45 @@ package com.ecommerce.order_processing_system.repository;
 
 
 import com.ecommerce.order_processing_system.domain.Order;
+import com.ecommerce.order_processing_system.domain.OrderStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, String> {
     List<Order> findByCustomerId(String customerId);
-}
\ No newline at end of file
+
+    @Query("SELECT o FROM Order o WHERE o.orderId = :orderId AND o.createdAt >= :createdFrom")
+    Optional<Order> findByIdCreatedSince(@Param("orderId") String orderId,
+                                         @Param("createdFrom") LocalDateTime createdFrom);
+
+    @Query("SELECT o.orderId FROM Order o WHERE o.status IN :statuses AND o.createdAt < :cutoff ORDER BY o.createdAt")
+    List<String> findArchivableIds(@Param("statuses") Collection<OrderStatus> statuses,
+                                   @Param("cutoff") LocalDateTime cutoff,
+                                   Pageable pageable);
+
+    @EntityGraph(attributePaths = "items")
+    @Query("SELECT o FROM Order o WHERE o.orderId IN :orderIds")
+    List<Order> findWithItemsByOrderIdIn(@Param("orderIds") Collection<String> orderIds);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.totalAmount = :totalAmount WHERE o.orderId = :orderId")
+    int updateTotalAmount(@Param("orderId") String orderId, @Param("totalAmount") BigDecimal totalAmount);
+
+    @Modifying
+    @Query("DELETE FROM OrderItem i WHERE i.order.orderId IN :orderIds AND i.createdAt < :cutoff")
+    int deleteItemsByOrderIds(@Param("orderIds") Collection<String> orderIds, @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.orderId IN :orderIds AND o.createdAt < :cutoff")
+    int deleteByOrderIds(@Param("orderIds") Collection<String> orderIds, @Param("cutoff") LocalDateTime cutoff);
+}
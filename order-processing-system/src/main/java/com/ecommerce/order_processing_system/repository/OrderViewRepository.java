@@ -0,0 +1,53 @@
+package com.ecommerce.order_processing_system.repository;
+
+import com.ecommerce.order_processing_system.domain.OrderView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderViewRepository extends JpaRepository<OrderView, String> {
+
+    List<OrderView> findByCustomerId(String customerId);
+
+    /**
+     * Status events may be consumed before the created event, so this never overwrites a status
+     * or a total that a later event already set.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO order_view (order_id, customer_id, items, total_amount, status, created_at, updated_at)
+            VALUES (:orderId, :customerId, CAST(:items AS JSONB), :totalAmount, 'PENDING', :createdAt, :createdAt)
+            ON CONFLICT (order_id)
+            DO UPDATE SET customer_id = EXCLUDED.customer_id,
+                          items = EXCLUDED.items,
+                          total_amount = COALESCE(order_view.total_amount, EXCLUDED.total_amount),
+                          created_at = EXCLUDED.created_at
+            """, nativeQuery = true)
+    void upsertCreated(@Param("orderId") String orderId,
+                       @Param("customerId") String customerId,
+                       @Param("items") String items,
+                       @Param("totalAmount") BigDecimal totalAmount,
+                       @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO order_view (order_id, total_amount, status, failure_reason, updated_at)
+            VALUES (:orderId, :totalAmount, :status, :failureReason, :updatedAt)
+            ON CONFLICT (order_id)
+            DO UPDATE SET status = EXCLUDED.status,
+                          failure_reason = EXCLUDED.failure_reason,
+                          total_amount = COALESCE(EXCLUDED.total_amount, order_view.total_amount),
+                          updated_at = EXCLUDED.updated_at
+            WHERE order_view.updated_at IS NULL OR order_view.updated_at <= EXCLUDED.updated_at
+            """, nativeQuery = true)
+    void upsertStatus(@Param("orderId") String orderId,
+                      @Param("status") String status,
+                      @Param("failureReason") String failureReason,
+                      @Param("totalAmount") BigDecimal totalAmount,
+                      @Param("updatedAt") LocalDateTime updatedAt);
+}
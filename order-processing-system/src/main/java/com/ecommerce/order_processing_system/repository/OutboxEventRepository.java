@@ -0,0 +1,65 @@
+package com.ecommerce.order_processing_system.repository;
+
+import com.ecommerce.order_processing_system.domain.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest pending events that no relay instance holds a live claim on. Rows locked by another
+     * instance's claim are skipped rather than waited on, so several instances drain disjoint batches.
+     * A row is not taken while an earlier row of its key is claimed elsewhere, which keeps each key's events
+     * in order across instances. Outputs held for a consumed event are not the relay's to send.
+     */
+    @Query(value = """
+            SELECT * FROM event_outbox e
+            WHERE e.source_event_id IS NULL
+              AND (e.claimed_until IS NULL OR e.claimed_until < now())
+              AND NOT EXISTS (
+                  SELECT 1 FROM event_outbox p
+                  WHERE p.message_key = e.message_key AND p.id < e.id
+                    AND p.source_event_id IS NULL AND p.claimed_until >= now())
+            ORDER BY e.id LIMIT :limit FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE event_outbox SET claimed_until = now() + :leaseMs * interval '1 millisecond' WHERE id IN (:ids)",
+            nativeQuery = true)
+    int claim(@Param("ids") Collection<Long> ids, @Param("leaseMs") long leaseMs);
+
+    @Modifying
+    @Query(value = "UPDATE event_outbox SET claimed_until = NULL WHERE id IN (:ids)", nativeQuery = true)
+    int releaseClaims(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "UPDATE event_outbox SET attempts = attempts + 1, claimed_until = NULL WHERE id IN (:ids)",
+            nativeQuery = true)
+    int recordFailedAttempt(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Moves the rows among {@code ids} that have failed {@code maxAttempts} times to event_outbox_dead_letter.
+     */
+    @Modifying
+    @Query(value = """
+            WITH exhausted AS (
+                DELETE FROM event_outbox WHERE id IN (:ids) AND attempts >= :maxAttempts
+                RETURNING id, topic, message_key, event_type, payload, attempts, created_at)
+            INSERT INTO event_outbox_dead_letter (id, topic, message_key, event_type, payload, attempts, created_at)
+            SELECT id, topic, message_key, event_type, payload, attempts, created_at FROM exhausted
+            """, nativeQuery = true)
+    int deadLetterExhausted(@Param("ids") Collection<Long> ids, @Param("maxAttempts") int maxAttempts);
+
+    List<OutboxEvent> findBySourceEventIdInOrderByIdAsc(Collection<String> sourceEventIds);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.sourceEventId IS NOT NULL AND e.createdAt < :cutoff")
+    int deleteHeldBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.order_processing_system.repository;
+
+import com.ecommerce.order_processing_system.domain.ProcessedEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, String> {
+
+    /**
+     * Returns 1 if this transaction claimed the event. A concurrent claim of the same id blocks until
+     * the other transaction ends and then returns 0 if it committed.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO processed_events (event_id, processed_at)
+            VALUES (:eventId, :processedAt)
+            ON CONFLICT (event_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("eventId") String eventId, @Param("processedAt") LocalDateTime processedAt);
+
+    @Modifying
+    @Query("DELETE FROM ProcessedEvent p WHERE p.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
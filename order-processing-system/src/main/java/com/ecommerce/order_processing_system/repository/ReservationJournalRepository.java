@@ -0,0 +1,39 @@
+package com.ecommerce.order_processing_system.repository;
+
+import com.ecommerce.order_processing_system.domain.ReservationJournalEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ReservationJournalRepository extends JpaRepository<ReservationJournalEntry, Long> {
+
+    List<ReservationJournalEntry> findByAttemptIdInAndStatus(Collection<String> attemptIds, ReservationJournalEntry.Status status);
+
+    @Modifying
+    @Query("DELETE FROM ReservationJournalEntry e WHERE e.attemptId IN :attemptIds AND e.status = 'RESERVED'")
+    int deleteReserved(@Param("attemptIds") Collection<String> attemptIds);
+
+    @Modifying
+    @Query("UPDATE ReservationJournalEntry e SET e.status = 'RELEASING' WHERE e.attemptId IN :attemptIds AND e.status = 'RESERVED'")
+    int markReleasing(@Param("attemptIds") Collection<String> attemptIds);
+
+    /**
+     * Releases whose immediate attempt did not get through, and reservations of attempts that never settled
+     * because their transaction rolled back or the process died.
+     */
+    @Query("""
+            SELECT e FROM ReservationJournalEntry e
+            WHERE (e.status = 'RELEASING' AND e.createdAt < :releasingBefore)
+               OR (e.status = 'RESERVED' AND e.createdAt < :reservedBefore)
+            ORDER BY e.id
+            """)
+    List<ReservationJournalEntry> findUnsettled(@Param("releasingBefore") LocalDateTime releasingBefore,
+                                                @Param("reservedBefore") LocalDateTime reservedBefore,
+                                                Pageable pageable);
+}
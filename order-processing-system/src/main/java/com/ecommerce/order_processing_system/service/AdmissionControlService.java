@@ -0,0 +1,237 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.dto.CreateOrderItemRequest;
+import com.ecommerce.order_processing_system.dto.CreateOrderRequest;
+import com.ecommerce.order_processing_system.exception.OrderAdmissionRejectedException;
+import com.ecommerce.order_processing_system.kafka.listener.ConsumerLagReader;
+import com.ecommerce.order_processing_system.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission control for order intake. Every few seconds it samples the lag of the standard order lane,
+ * the outbox backlog and the smoothed created-to-processed latency, and turns the worst of them, relative to its
+ * limit, into a pressure ratio:
+ * <ul>
+ *     <li>below 1, every request is admitted while concurrency allows; standard requests queue for a slot;</li>
+ *     <li>from 1, standard requests are shed with 429 and a Retry-After scaled by the pressure;</li>
+ *     <li>from {@code critical-ratio}, priority requests (corporate orders and the configured priority customers)
+ *     are limited to the reserved slots.</li>
+ * </ul>
+ * Priority requests can always use the {@code reserved-concurrency} slots that standard traffic never takes.
+ * Sampling errors leave the previous reading in place, so intake fails open when Kafka cannot be inspected.
+ * The smoothed latency halves every {@code latency-half-life-ms} without new completions, so it cannot keep
+ * intake shed once shedding has stopped the orders that would have brought it down.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdmissionControlService {
+
+    public enum Lane { PRIORITY, STANDARD }
+
+    /**
+     * Held for the duration of the request; closing it frees the concurrency slot.
+     */
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final ConsumerLagReader lagReader;
+    private final OutboxEventRepository outboxRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.order.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.order.topic.created}")
+    private String topicCreated;
+
+    @Value("${spring.kafka.consumer.group-id}")
+    private String consumerGroup;
+
+    @Value("${app.order.admission.max-consumer-lag:5000}")
+    private long maxConsumerLag;
+
+    @Value("${app.order.admission.max-outbox-depth:10000}")
+    private long maxOutboxDepth;
+
+    @Value("${app.order.admission.max-processing-latency-ms:30000}")
+    private long maxProcessingLatencyMs;
+
+    @Value("${app.order.admission.latency-half-life-ms:30000}")
+    private long latencyHalfLifeMs;
+
+    @Value("${app.order.admission.critical-ratio:2.0}")
+    private double criticalRatio;
+
+    @Value("${app.order.admission.max-concurrency:200}")
+    private int maxConcurrency;
+
+    @Value("${app.order.admission.reserved-concurrency:40}")
+    private int reservedConcurrency;
+
+    @Value("${app.order.admission.queue-timeout-ms:200}")
+    private long queueTimeoutMs;
+
+    @Value("${app.order.admission.retry-after-seconds:5}")
+    private long retryAfterSeconds;
+
+    @Value("${app.order.admission.max-retry-after-seconds:120}")
+    private long maxRetryAfterSeconds;
+
+    @Value("${app.order.admission.priority-customers:}")
+    private Set<String> priorityCustomers;
+
+    private Semaphore standardSlots;
+    private Semaphore reservedSlots;
+
+    private volatile double pressure;
+    private volatile long consumerLag;
+    private volatile long outboxDepth;
+    // Exponentially weighted so a single slow order does not flip the service into shedding
+    private double processingLatencyMs;
+    private long latencyRecordedAtNanos;
+
+    @PostConstruct
+    void init() {
+        standardSlots = new Semaphore(Math.max(0, maxConcurrency - reservedConcurrency));
+        reservedSlots = new Semaphore(reservedConcurrency);
+        meterRegistry.gauge("order.admission.pressure", this, s -> s.pressure);
+        meterRegistry.gauge("order.admission.consumer_lag", this, s -> s.consumerLag);
+        meterRegistry.gauge("order.admission.outbox_depth", this, s -> s.outboxDepth);
+    }
+
+    public Lane laneFor(CreateOrderRequest request) {
+        if (priorityCustomers.contains(request.getCustomerId())) {
+            return Lane.PRIORITY;
+        }
+        boolean corporate = request.getItems() != null && request.getItems().stream()
+                .map(CreateOrderItemRequest::getMetadata)
+                .anyMatch(metadata -> metadata != null && metadata.get("cnpj") != null);
+        return corporate ? Lane.PRIORITY : Lane.STANDARD;
+    }
+
+    public Permit admit(CreateOrderRequest request) {
+        if (!enabled) {
+            return () -> { };
+        }
+
+        Lane lane = laneFor(request);
+        double current = pressure;
+        if (lane == Lane.STANDARD && current >= 1.0) {
+            throw reject(lane, "Order intake is shedding standard traffic, pressure=" + String.format("%.2f", current));
+        }
+
+        if (lane == Lane.STANDARD || current < criticalRatio) {
+            if (acquire(standardSlots, lane == Lane.STANDARD ? queueTimeoutMs : 0)) {
+                return admitted(lane, standardSlots);
+            }
+            if (lane == Lane.STANDARD) {
+                throw reject(lane, "Order intake is at its concurrency limit");
+            }
+        }
+
+        if (acquire(reservedSlots, queueTimeoutMs)) {
+            return admitted(lane, reservedSlots);
+        }
+        throw reject(lane, "Reserved order intake capacity is exhausted");
+    }
+
+    public void recordProcessingLatency(Instant publishedAt) {
+        if (publishedAt == null) {
+            return;
+        }
+        long latencyMs = Math.max(0, Duration.between(publishedAt, Instant.now()).toMillis());
+        meterRegistry.timer("order.processing.end_to_end").record(latencyMs, TimeUnit.MILLISECONDS);
+        synchronized (this) {
+            long now = System.nanoTime();
+            double previous = decayedLatencyMs(now);
+            processingLatencyMs = previous == 0 ? latencyMs : previous * 0.8 + latencyMs * 0.2;
+            latencyRecordedAtNanos = now;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.order.admission.sample-interval-ms:5000}")
+    public void sample() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            applySignals(lagReader.lag(consumerGroup, topicCreated), outboxRepository.count());
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.warn("Admission control sampling failed, keeping pressure={}: {}", pressure, e.getMessage());
+        }
+    }
+
+    void applySignals(long lag, long depth) {
+        consumerLag = lag;
+        outboxDepth = depth;
+        double latencyMs;
+        synchronized (this) {
+            latencyMs = decayedLatencyMs(System.nanoTime());
+        }
+        double next = Math.max(
+                Math.max((double) lag / maxConsumerLag, (double) depth / maxOutboxDepth),
+                latencyMs / maxProcessingLatencyMs);
+        if ((next >= 1.0) != (pressure >= 1.0)) {
+            log.warn("Order admission pressure changed {} -> {} (lag={}, outboxDepth={}, latencyMs={})",
+                    String.format("%.2f", pressure), String.format("%.2f", next), lag, depth, Math.round(latencyMs));
+        }
+        pressure = next;
+    }
+
+    private double decayedLatencyMs(long nowNanos) {
+        if (processingLatencyMs == 0 || latencyHalfLifeMs <= 0) {
+            return processingLatencyMs;
+        }
+        double elapsedMs = (nowNanos - latencyRecordedAtNanos) / 1_000_000.0;
+        return processingLatencyMs * Math.pow(0.5, elapsedMs / latencyHalfLifeMs);
+    }
+
+    double pressure() {
+        return pressure;
+    }
+
+    private static boolean acquire(Semaphore slots, long timeoutMs) {
+        try {
+            return timeoutMs > 0 ? slots.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS) : slots.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Permit admitted(Lane lane, Semaphore slots) {
+        meterRegistry.counter("order.admission.decisions", "lane", lane.name(), "outcome", "admitted").increment();
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                slots.release();
+            }
+        };
+    }
+
+    private OrderAdmissionRejectedException reject(Lane lane, String message) {
+        meterRegistry.counter("order.admission.decisions", "lane", lane.name(), "outcome", "rejected").increment();
+        long retryAfter = Math.min(maxRetryAfterSeconds, Math.max(1, (long) Math.ceil(retryAfterSeconds * Math.max(1.0, pressure))));
+        log.warn("{} lane={}, retryAfter={}s", message, lane, retryAfter);
+        return new OrderAdmissionRejectedException(message, retryAfter);
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.domain.Order;
+import com.ecommerce.order_processing_system.domain.OrderItem;
+import com.ecommerce.order_processing_system.domain.ProductType;
+import com.ecommerce.order_processing_system.repository.EntitlementRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.ecommerce.order_processing_system.domain.EntitlementStatus.ACTIVE;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EntitlementService {
+
+    private static final Set<ProductType> ENTITLED_TYPES = EnumSet.of(ProductType.DIGITAL, ProductType.SUBSCRIPTION);
+
+    private final EntitlementRepository repository;
+
+    @Transactional(readOnly = true)
+    public boolean ownsProduct(String customerId, String productId) {
+        return repository.existsByCustomerIdAndProductIdAndStatus(customerId, productId, ACTIVE);
+    }
+
+    /**
+     * Distinct products of the type the customer holds an ACTIVE entitlement to; revoked ones are not counted.
+     */
+    @Transactional(readOnly = true)
+    public long countActive(String customerId, ProductType productType) {
+        return repository.countByCustomerIdAndProductTypeAndStatus(customerId, productType, ACTIVE);
+    }
+
+    @Transactional(readOnly = true)
+    public Set<String> activeProductIds(String customerId, ProductType productType) {
+        return new HashSet<>(repository.findProductIds(customerId, productType, ACTIVE));
+    }
+
+    /**
+     * Must run in the same transaction that moves the order to PROCESSED.
+     */
+    @Transactional
+    public void grant(Order order) {
+        for (OrderItem item : order.getItems()) {
+            if (!ENTITLED_TYPES.contains(item.getProductType())) {
+                continue;
+            }
+            repository.upsertActive(order.getCustomerId(), item.getProductId(),
+                    item.getProductType().name(), order.getOrderId());
+            log.debug("Entitlement granted customerId={}, productId={}, orderId={}",
+                    order.getCustomerId(), item.getProductId(), order.getOrderId());
+        }
+    }
+}
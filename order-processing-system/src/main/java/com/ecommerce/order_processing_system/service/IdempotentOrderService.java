@@ -0,0 +1,157 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.domain.IdempotencyRecord;
+import com.ecommerce.order_processing_system.dto.CreateOrderRequest;
+import com.ecommerce.order_processing_system.dto.OrderResponse;
+import com.ecommerce.order_processing_system.exception.ErrorSystemDefaultException;
+import com.ecommerce.order_processing_system.exception.IdempotencyKeyConflictException;
+import com.ecommerce.order_processing_system.exception.InvalidIdempotencyKeyException;
+import com.ecommerce.order_processing_system.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+/**
+ * Creates orders at most once per Idempotency-Key. The key is claimed in the same transaction as the
+ * order and stores its response, so a retry replays the stored response without reaching
+ * {@link OrderService}. Duplicates in flight on this instance wait on the first request; duplicates on
+ * other instances wait on the key's row lock.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotentOrderService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository repository;
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${app.order.idempotency-key.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${app.order.idempotency-key.wait-timeout-ms:30000}")
+    private long waitTimeoutMs;
+
+    public Result createOrder(String key, CreateOrderRequest request) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException("Idempotency-Key must have between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+
+        Optional<Result> stored = replay(key, requestHash);
+        if (stored.isPresent()) {
+            log.info("Replaying stored response for Idempotency-Key={}", key);
+            return stored.get();
+        }
+
+        CompletableFuture<Void> mine = new CompletableFuture<>();
+        CompletableFuture<Void> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            awaitInFlight(key, running);
+            return createOrder(key, request);
+        }
+
+        try {
+            return transactionTemplate.execute(status -> createInTransaction(key, requestHash, request));
+        } finally {
+            inFlight.remove(key, mine);
+            mine.complete(null);
+        }
+    }
+
+    @Transactional
+    @Scheduled(cron = "${app.order.idempotency-key.cleanup-cron:0 45 * * * *}")
+    public void purgeExpired() {
+        int removed = repository.deleteExpired(LocalDateTime.now());
+        log.info("Purged {} expired idempotency keys", removed);
+    }
+
+    private Result createInTransaction(String key, String requestHash, CreateOrderRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        if (repository.claim(key, requestHash, now, now.plusHours(ttlHours)) == 0) {
+            // Another instance held the key; the claim blocked until it committed
+            return replay(key, requestHash).orElseThrow(() ->
+                    new IdempotencyKeyConflictException("Request with Idempotency-Key " + key + " is still being processed"));
+        }
+
+        OrderResponse response = orderService.createOrder(request);
+        repository.complete(key, write(response));
+        log.info("Stored response for Idempotency-Key={}, orderId={}", key, response.getOrderId());
+        return new Result(response, false);
+    }
+
+    private Optional<Result> replay(String key, String requestHash) {
+        Optional<IdempotencyRecord> record = repository.findById(key)
+                .filter(r -> r.getResponse() != null && r.getExpiresAt().isAfter(LocalDateTime.now()));
+        if (record.isEmpty()) {
+            return Optional.empty();
+        }
+        if (!record.get().getRequestHash().equals(requestHash)) {
+            throw new IdempotencyKeyConflictException("Idempotency-Key " + key + " was already used with a different request");
+        }
+        return Optional.of(new Result(read(record.get().getResponse()), true));
+    }
+
+    private void awaitInFlight(String key, CompletableFuture<Void> running) {
+        try {
+            running.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyConflictException("Request with Idempotency-Key " + key + " is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ErrorSystemDefaultException("Interrupted while waiting for Idempotency-Key " + key);
+        } catch (ExecutionException e) {
+            // Never completed exceptionally; the owner always completes in finally
+        }
+    }
+
+    private String hash(CreateOrderRequest request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new ErrorSystemDefaultException("Could not fingerprint order request");
+        }
+    }
+
+    private String write(OrderResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new ErrorSystemDefaultException("Could not store response for idempotent order request");
+        }
+    }
+
+    private OrderResponse read(String response) {
+        try {
+            return objectMapper.readValue(response, OrderResponse.class);
+        } catch (IOException e) {
+            throw new ErrorSystemDefaultException("Could not read stored response for idempotent order request");
+        }
+    }
+
+    /**
+     * @param replayed whether the response was stored by an earlier request with the same key
+     */
+    public record Result(OrderResponse response, boolean replayed) {
+    }
+}
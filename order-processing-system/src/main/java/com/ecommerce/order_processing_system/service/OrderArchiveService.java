@@ -0,0 +1,121 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.domain.Order;
+import com.ecommerce.order_processing_system.domain.OrderStatus;
+import com.ecommerce.order_processing_system.dto.OrderResponse;
+import com.ecommerce.order_processing_system.repository.OrderArchiveStore;
+import com.ecommerce.order_processing_system.repository.OrderRepository;
+import com.ecommerce.order_processing_system.repository.OrderViewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves finished orders out of the hot tables into {@link OrderArchiveStore}.
+ * The segment is written before the rows are deleted, so a crash in between leaves the order in both places
+ * and the next run archives it again; the archive index keeps the latest copy.
+ * <p>
+ * Off by default: the rows are gone once archived, so the archive directory must be durable storage every
+ * instance mounts. A run holds a Postgres advisory lock, so with several instances only one of them archives.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderArchiveService {
+
+    static final List<OrderStatus> ARCHIVABLE_STATUSES = List.of(OrderStatus.PROCESSED, OrderStatus.FAILED);
+
+    private static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_lock(hashtext('order-archive'))";
+    private static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtext('order-archive'))";
+
+    private final OrderRepository orderRepository;
+    private final OrderViewRepository orderViewRepository;
+    private final OrderArchiveStore archiveStore;
+    private final OrderService orderService;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.order.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.order.archive.older-than-months:6}")
+    private int olderThanMonths;
+
+    @Value("${app.order.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.order.archive.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(cron = "${app.order.archive.cron:0 30 2 * * *}")
+    public void archiveFinishedOrders() {
+        if (!enabled) {
+            return;
+        }
+        // Session-level, so it is held on this connection for the whole run and released with it
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (!advisoryLock(connection, TRY_LOCK_SQL)) {
+                log.info("Order archival already running on another instance, skipping");
+                return null;
+            }
+            try {
+                archive();
+            } finally {
+                advisoryLock(connection, UNLOCK_SQL);
+            }
+            return null;
+        });
+    }
+
+    private void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMonths(olderThanMonths);
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer archived = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += archived != null ? archived : 0;
+            if (archived == null || archived < batchSize) {
+                break;
+            }
+        }
+        log.info("Order archival finished cutoff={}, archived={}", cutoff, total);
+    }
+
+    private static boolean advisoryLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet result = statement.executeQuery()) {
+            return result.next() && result.getBoolean(1);
+        }
+    }
+
+    int archiveBatch(LocalDateTime cutoff) {
+        List<String> orderIds = orderRepository.findArchivableIds(ARCHIVABLE_STATUSES, cutoff, PageRequest.of(0, batchSize));
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+
+        List<OrderResponse> responses = orderRepository.findWithItemsByOrderIdIn(orderIds).stream()
+                .map(orderService::toResponse)
+                .toList();
+        archiveStore.append(responses);
+
+        orderRepository.deleteItemsByOrderIds(orderIds, cutoff);
+        orderRepository.deleteByOrderIds(orderIds, cutoff);
+        orderViewRepository.deleteAllByIdInBatch(orderIds);
+
+        log.debug("Archived batch of {} orders", orderIds.size());
+        return orderIds.size();
+    }
+}
@@ -0,0 +1,290 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.domain.Order;
+import com.ecommerce.order_processing_system.domain.OrderStatus;
+import com.ecommerce.order_processing_system.domain.OutboxEvent;
+import com.ecommerce.order_processing_system.kafka.events.OrderFailedEvent;
+import com.ecommerce.order_processing_system.kafka.events.OrderPendingApprovalEvent;
+import com.ecommerce.order_processing_system.kafka.events.OrderProcessedEvent;
+import com.ecommerce.order_processing_system.kafka.producer.KafkaEventPublisher;
+import com.ecommerce.order_processing_system.repository.OrderRepository;
+import com.ecommerce.order_processing_system.service.OrderProcessingService.Outcome;
+import com.ecommerce.order_processing_system.util.TransientFailures;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.ecommerce.order_processing_system.domain.OrderStatus.PENDING;
+
+/**
+ * Processes a poll's worth of created orders together: one query loads every order with its items,
+ * catalog lookups are shared across the batch, and outcomes are written as conditional status
+ * transitions in chunked transactions. An order that throws is left PENDING without affecting the rest of the
+ * batch, and reported with its failure in the result for the listener to retry or dead-letter. Totals the
+ * validators changed, such as corporate discounts, are written with the transition.
+ * <p>
+ * {@link #processAtomically} is the variant for transactional processing mode, where the batch's offsets
+ * commit in a Kafka transaction after it returns.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderBatchProcessingService {
+
+    private final OrderRepository repository;
+    private final OrderProcessingService processingService;
+    private final OrderStatusTransitionService transitionService;
+    private final EntitlementService entitlementService;
+    private final ProductService productService;
+    private final KafkaEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ProcessedEventService processedEvents;
+    private final ReservationJournalService reservations;
+    private final SideEffectDispatcher sideEffects;
+    private final OrderPipelineMetrics pipelineMetrics;
+
+    @Value("${app.order.processing.batch.commit-chunk-size:50}")
+    private int commitChunkSize;
+
+    /**
+     * @param eventIdsByOrderId created-event id per order, in consumption order; ids may be null for events without one
+     */
+    public BatchResult processBatch(Map<String, String> eventIdsByOrderId) {
+        List<String> orderIds = unprocessed(eventIdsByOrderId);
+        if (orderIds.isEmpty()) {
+            return new BatchResult(eventIdsByOrderId.size(), 0, Map.of());
+        }
+
+        Evaluation evaluation = evaluateBatch(orderIds, false);
+
+        List<Map.Entry<Order, Outcome>> entries = new ArrayList<>(evaluation.outcomes.entrySet());
+        int transitioned = 0;
+        for (int start = 0; start < entries.size(); start += commitChunkSize) {
+            List<Map.Entry<Order, Outcome>> chunk = entries.subList(start, Math.min(start + commitChunkSize, entries.size()));
+            try {
+                Integer moved = transactionTemplate.execute(status -> applyChunk(chunk, eventIdsByOrderId, evaluation));
+                transitioned += moved != null ? moved : 0;
+            } catch (RuntimeException e) {
+                chunk.forEach(entry -> evaluation.errors.put(entry.getKey().getOrderId(), e));
+                log.error("Failed to commit batch chunk of {} orders, they stay PENDING", chunk.size(), e);
+            }
+        }
+
+        return logged(new BatchResult(eventIdsByOrderId.size(), transitioned, Collections.unmodifiableMap(evaluation.errors)));
+    }
+
+    /**
+     * Like {@link #processBatch}, but every outcome is written in a single transaction, whose failure is thrown
+     * so the batch is consumed again, and each order's outputs, including the events its validators published,
+     * are held in the outbox under its created-event id rather than relayed. A transient evaluation failure is
+     * thrown, after giving back the batch's reservations, so the whole batch is consumed again. Any other failure,
+     * such as a fraud hit, leaves its order PENDING, as in the other modes, and is reported in the result for the
+     * listener to dead-letter its record.
+     */
+    public BatchResult processAtomically(Map<String, String> eventIdsByOrderId) {
+        List<String> orderIds = unprocessed(eventIdsByOrderId);
+        if (orderIds.isEmpty()) {
+            return new BatchResult(eventIdsByOrderId.size(), 0, Map.of());
+        }
+
+        Evaluation evaluation = evaluateBatch(orderIds, true);
+
+        Integer moved = transactionTemplate.execute(
+                status -> applyChunk(new ArrayList<>(evaluation.outcomes.entrySet()), eventIdsByOrderId, evaluation));
+        return logged(new BatchResult(eventIdsByOrderId.size(), moved != null ? moved : 0,
+                Collections.unmodifiableMap(evaluation.errors)));
+    }
+
+    private List<String> unprocessed(Map<String, String> eventIdsByOrderId) {
+        return eventIdsByOrderId.entrySet().stream()
+                .filter(entry -> {
+                    boolean duplicate = processedEvents.isProcessed(entry.getValue());
+                    if (duplicate) {
+                        log.info("Skipping already processed eventId={} for orderId={}", entry.getValue(), entry.getKey());
+                    }
+                    return !duplicate;
+                })
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * @param hold whether the events each order's evaluation publishes are collected, to be held with its outputs
+     */
+    private Evaluation evaluateBatch(List<String> orderIds, boolean hold) {
+        Map<String, Order> orders = repository.findWithItemsByOrderIdIn(orderIds).stream()
+                .collect(Collectors.toMap(Order::getOrderId, Function.identity(), (a, b) -> a));
+        Evaluation evaluation = new Evaluation(hold);
+        productService.withSharedLookups(() -> {
+            evaluateAll(orderIds, orders, evaluation);
+            return evaluation;
+        });
+        return evaluation;
+    }
+
+    private BatchResult logged(BatchResult result) {
+        log.info("Processed order batch received={}, transitioned={}, errors={}",
+                result.received(), result.transitioned(), result.errors().size());
+        return result;
+    }
+
+    private void evaluateAll(List<String> orderIds, Map<String, Order> orders, Evaluation evaluation) {
+        for (String orderId : new LinkedHashSet<>(orderIds)) {
+            Order order = orders.get(orderId);
+            if (order == null) {
+                log.warn("Order not found for batch processing orderId={}", orderId);
+                continue;
+            }
+            if (order.getStatus() != PENDING) {
+                log.info("Skipping orderId={} already in status={}", orderId, order.getStatus());
+                continue;
+            }
+            BigDecimal loadedTotal = order.getTotalAmount();
+            try {
+                if (evaluation.published == null) {
+                    evaluation.outcomes.put(order, processingService.evaluate(order));
+                } else {
+                    AtomicReference<Outcome> outcome = new AtomicReference<>();
+                    List<OutboxEvent> events = eventPublisher.capture(() -> outcome.set(processingService.evaluate(order)));
+                    evaluation.outcomes.put(order, outcome.get());
+                    evaluation.published.put(orderId, events);
+                }
+            } catch (RuntimeException e) {
+                if (evaluation.published != null && TransientFailures.isTransient(e)) {
+                    // Nothing of the batch is written; it is evaluated again when redelivered
+                    evaluation.outcomes.values().forEach(outcome -> reservations.abandon(outcome.reservationAttempt()));
+                    throw e;
+                }
+                evaluation.errors.put(orderId, e);
+                log.error("Order evaluation failed orderId={}, it stays PENDING", orderId, e);
+            }
+            if (order.getTotalAmount() != null && !Objects.equals(loadedTotal, order.getTotalAmount())) {
+                evaluation.repriced.put(orderId, order.getTotalAmount());
+            }
+        }
+    }
+
+    /**
+     * Claims the chunk's events, writes the outcomes with their events and returns how many orders moved;
+     * orders a concurrent processor already claimed or moved out of PENDING are left alone and publish nothing.
+     * Their reservations are released in the same transaction, while the order's winning attempt keeps its own.
+     */
+    private int applyChunk(List<Map.Entry<Order, Outcome>> claimable, Map<String, String> eventIdsByOrderId,
+                           Evaluation evaluation) {
+        pipelineMetrics.timeCommit();
+        int transitioned = 0;
+        List<String> kept = new ArrayList<>();
+        List<String> released = new ArrayList<>();
+
+        // Evaluation reserved stock before the claim could be taken, so an order that loses it, to another consumer
+        // or to a concurrent transition, gives its reservations back here rather than waiting for the reconciler
+        List<Map.Entry<Order, Outcome>> chunk = new ArrayList<>(claimable.size());
+        for (Map.Entry<Order, Outcome> entry : claimable) {
+            String eventId = eventIdsByOrderId.get(entry.getKey().getOrderId());
+            if (eventId == null || processedEvents.claim(eventId)) {
+                chunk.add(entry);
+            } else {
+                released.add(entry.getValue().reservationAttempt());
+            }
+        }
+
+        List<Map.Entry<Order, Outcome>> processed = chunk.stream()
+                .filter(e -> e.getValue().status() == OrderStatus.PROCESSED)
+                .toList();
+        if (!processed.isEmpty()) {
+            Set<String> moved = new HashSet<>(transitionService.transitionAll(
+                    processed.stream().map(e -> e.getKey().getOrderId()).toList(), PENDING, OrderStatus.PROCESSED, null).transitioned());
+            for (Map.Entry<Order, Outcome> entry : processed) {
+                Order order = entry.getKey();
+                if (moved.contains(order.getOrderId())) {
+                    writeTotal(order.getOrderId(), evaluation);
+                    kept.add(entry.getValue().reservationAttempt());
+                    sideEffects.executeAfterCommit(entry.getValue().sideEffects());
+                    entitlementService.grant(order);
+                    writeOutputs(order.getOrderId(), eventIdsByOrderId, evaluation, () -> eventPublisher.publishProcessed(
+                            OrderProcessedEvent.of(order.getOrderId(), order.getTotalAmount())));
+                    transitioned++;
+                } else {
+                    released.add(entry.getValue().reservationAttempt());
+                }
+            }
+        }
+
+        for (Map.Entry<Order, Outcome> entry : chunk) {
+            String orderId = entry.getKey().getOrderId();
+            Outcome outcome = entry.getValue();
+            if (outcome.status() == OrderStatus.PROCESSED) {
+                continue;
+            }
+            if (!transitionService.transition(orderId, PENDING, outcome.status(), outcome.reason())) {
+                released.add(outcome.reservationAttempt());
+                continue;
+            }
+            writeTotal(orderId, evaluation);
+            if (outcome.status() == OrderStatus.PENDING_APPROVAL) {
+                writeOutputs(orderId, eventIdsByOrderId, evaluation,
+                        () -> eventPublisher.publishPendingApproval(OrderPendingApprovalEvent.of(orderId, outcome.reason())));
+                kept.add(outcome.reservationAttempt());
+                sideEffects.executeAfterCommit(outcome.sideEffects());
+            } else {
+                writeOutputs(orderId, eventIdsByOrderId, evaluation,
+                        () -> eventPublisher.publishFailed(OrderFailedEvent.of(orderId, outcome.reason())));
+                released.add(outcome.reservationAttempt());
+            }
+            transitioned++;
+        }
+
+        reservations.confirm(kept);
+        reservations.release(released);
+        return transitioned;
+    }
+
+    // The orders are detached, so what the validators changed is only saved if written explicitly
+    private void writeTotal(String orderId, Evaluation evaluation) {
+        BigDecimal total = evaluation.repriced.get(orderId);
+        if (total != null) {
+            repository.updateTotalAmount(orderId, total);
+        }
+    }
+
+    private void writeOutputs(String orderId, Map<String, String> eventIdsByOrderId, Evaluation evaluation, Runnable publish) {
+        if (evaluation.published == null) {
+            publish.run();
+            return;
+        }
+        eventPublisher.holdFor(eventIdsByOrderId.get(orderId), () -> {
+            eventPublisher.enqueueAll(evaluation.published.getOrDefault(orderId, List.of()));
+            publish.run();
+        });
+    }
+
+    /**
+     * What evaluating a batch produced, carried into the transactions that write it.
+     */
+    private static final class Evaluation {
+
+        private final Map<Order, Outcome> outcomes = new LinkedHashMap<>();
+        private final Map<String, RuntimeException> errors = new LinkedHashMap<>();
+        private final Map<String, BigDecimal> repriced = new HashMap<>();
+        // Events each order's evaluation published, when they are held with its outputs; null otherwise
+        private final Map<String, List<OutboxEvent>> published;
+
+        private Evaluation(boolean hold) {
+            this.published = hold ? new HashMap<>() : null;
+        }
+    }
+
+    /**
+     * @param errors failure of each order whose evaluation or commit threw and was left PENDING, in the order they happened
+     */
+    public record BatchResult(int received, int transitioned, Map<String, RuntimeException> errors) {
+    }
+}
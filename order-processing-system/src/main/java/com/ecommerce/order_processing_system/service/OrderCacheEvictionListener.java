@@ -0,0 +1,58 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.domain.Order;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hibernate listener on {@link Order}, so every writer on this instance that goes through the entity invalidates
+ * the cached response without having to remember to. It registers itself with the session factory rather than
+ * being named on the entity, which keeps the domain free of the service layer. Other instances evict on the
+ * order's status event, see {@code OrderCacheInvalidationListener}.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderCacheEvictionListener implements PostUpdateEventListener, PostDeleteEventListener {
+
+    private final OrderResponseCache responseCache;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        onChange(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        onChange(event.getEntity());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void onChange(Object entity) {
+        if (entity instanceof Order order) {
+            responseCache.evictAfterCommit(order.getOrderId());
+        }
+    }
+}
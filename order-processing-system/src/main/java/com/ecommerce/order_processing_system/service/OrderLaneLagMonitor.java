@@ -0,0 +1,135 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.domain.OrderLane;
+import com.ecommerce.order_processing_system.kafka.listener.ConsumerLagReader;
+import com.ecommerce.order_processing_system.kafka.producer.OrderLaneRouter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Samples the consumer lag of each order lane against that lane's objective and publishes it as
+ * {@code order.lane.consumer_lag} and {@code order.lane.slo_breached}, tagged by lane, logging when a lane
+ * starts or stops breaching. The lag of every partition is also published as {@code kafka.consumer.group.lag},
+ * tagged by group, topic and partition.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderLaneLagMonitor {
+
+    private final ConsumerLagReader lagReader;
+    private final OrderLaneRouter laneRouter;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.order.lanes.enabled:true}")
+    private boolean enabled;
+
+    @Value("${spring.kafka.consumer.group-id}")
+    private String standardGroup;
+
+    @Value("${app.order.lanes.priority.group-id:order-processing-priority-group}")
+    private String priorityGroup;
+
+    @Value("${app.order.lanes.high-value.group-id:order-processing-high-value-group}")
+    private String highValueGroup;
+
+    @Value("${app.order.lanes.priority.max-lag:50}")
+    private long priorityMaxLag;
+
+    @Value("${app.order.lanes.high-value.max-lag:200}")
+    private long highValueMaxLag;
+
+    @Value("${app.order.lanes.standard.max-lag:5000}")
+    private long standardMaxLag;
+
+    private final Map<OrderLane, AtomicLong> lags = new EnumMap<>(OrderLane.class);
+    private final Map<OrderLane, AtomicLong> breached = new EnumMap<>(OrderLane.class);
+    private final Map<TopicPartition, AtomicLong> partitionLags = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        for (OrderLane lane : OrderLane.values()) {
+            lags.put(lane, new AtomicLong());
+            breached.put(lane, new AtomicLong());
+            Gauge.builder("order.lane.consumer_lag", lags.get(lane), AtomicLong::get)
+                    .tag("lane", lane.name())
+                    .register(meterRegistry);
+            Gauge.builder("order.lane.slo_breached", breached.get(lane), AtomicLong::get)
+                    .tag("lane", lane.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.order.lanes.lag-sample-interval-ms:10000}")
+    public void sample() {
+        if (!enabled) {
+            return;
+        }
+        for (OrderLane lane : OrderLane.values()) {
+            try {
+                Map<TopicPartition, Long> byPartition = lagReader.lagByPartition(groupFor(lane), laneRouter.topicFor(lane));
+                byPartition.forEach((partition, lag) -> recordPartition(groupFor(lane), partition, lag));
+                record(lane, byPartition.values().stream().mapToLong(Long::longValue).sum());
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                log.warn("Lag sampling failed for lane={}: {}", lane, e.getMessage());
+            }
+        }
+    }
+
+    void record(OrderLane lane, long lag) {
+        lags.get(lane).set(lag);
+        long maxLag = maxLagFor(lane);
+        long nowBreached = lag > maxLag ? 1 : 0;
+        if (breached.get(lane).getAndSet(nowBreached) != nowBreached) {
+            if (nowBreached == 1) {
+                log.warn("Order lane {} is over its lag objective: lag={}, maxLag={}", lane, lag, maxLag);
+            } else {
+                log.info("Order lane {} is back within its lag objective: lag={}, maxLag={}", lane, lag, maxLag);
+            }
+        }
+    }
+
+    void recordPartition(String group, TopicPartition partition, long lag) {
+        partitionLags.computeIfAbsent(partition, tp -> {
+            AtomicLong value = new AtomicLong();
+            Gauge.builder("kafka.consumer.group.lag", value, AtomicLong::get)
+                    .tag("group", group)
+                    .tag("topic", tp.topic())
+                    .tag("partition", String.valueOf(tp.partition()))
+                    .register(meterRegistry);
+            return value;
+        }).set(lag);
+    }
+
+    private String groupFor(OrderLane lane) {
+        return switch (lane) {
+            case PRIORITY -> priorityGroup;
+            case HIGH_VALUE -> highValueGroup;
+            case STANDARD -> standardGroup;
+        };
+    }
+
+    private long maxLagFor(OrderLane lane) {
+        return switch (lane) {
+            case PRIORITY -> priorityMaxLag;
+            case HIGH_VALUE -> highValueMaxLag;
+            case STANDARD -> standardMaxLag;
+        };
+    }
+}
@@ -0,0 +1,186 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.domain.Order;
+import com.ecommerce.order_processing_system.domain.OrderItem;
+import com.ecommerce.order_processing_system.domain.OutboxEvent;
+import com.ecommerce.order_processing_system.domain.service.ProductValidator;
+import com.ecommerce.order_processing_system.domain.service.ProductValidatorFactory;
+import com.ecommerce.order_processing_system.exception.ErrorSystemDefaultException;
+import com.ecommerce.order_processing_system.kafka.producer.KafkaEventPublisher;
+import com.ecommerce.order_processing_system.service.SideEffectDispatcher.SideEffect;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the product validators over an order's lines. Sequential by default; with parallel validation enabled,
+ * lines whose validator is {@link ProductValidator#isLineIndependent() line independent} are grouped by product
+ * and the groups run concurrently on a bounded pool, while the lines with cross-line rules run on the calling
+ * thread. Lines of one product stay in one group, in order, since each reads the stock the previous one wrote.
+ * <p>
+ * Workers run outside the caller's transaction: their catalog reservations join the caller's journal attempt,
+ * and their events and side effects are handed back to the caller once every group has finished. The first
+ * failing group stops the others before their next line; lines already talking to the catalog finish, so
+ * every reservation made is journaled and released with the failed order.
+ */
+@Slf4j
+@Service
+public class OrderLineValidationService {
+
+    private final ProductValidatorFactory validatorFactory;
+    private final ProductService productService;
+    private final ReservationJournalService reservations;
+    private final KafkaEventPublisher eventPublisher;
+    private final SideEffectDispatcher sideEffects;
+    private final OrderPipelineMetrics pipelineMetrics;
+    private final boolean parallel;
+    private final ThreadPoolExecutor executor;
+
+    public OrderLineValidationService(ProductValidatorFactory validatorFactory,
+                                      ProductService productService,
+                                      ReservationJournalService reservations,
+                                      KafkaEventPublisher eventPublisher,
+                                      SideEffectDispatcher sideEffects,
+                                      OrderPipelineMetrics pipelineMetrics,
+                                      @Value("${app.order.processing.line-validation.parallel:false}") boolean parallel,
+                                      @Value("${app.order.processing.line-validation.threads:16}") int threads,
+                                      @Value("${app.order.processing.line-validation.queue-capacity:64}") int queueCapacity) {
+        this.validatorFactory = validatorFactory;
+        this.productService = productService;
+        this.reservations = reservations;
+        this.eventPublisher = eventPublisher;
+        this.sideEffects = sideEffects;
+        this.pipelineMetrics = pipelineMetrics;
+        this.parallel = parallel;
+        AtomicInteger threadIndex = new AtomicInteger();
+        // A full pool runs the group on the caller instead of queueing without bound
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                task -> new Thread(task, "order-line-" + threadIndex.getAndIncrement()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public void validateAll(Order order) {
+        List<Line> lines = order.getItems().stream()
+                .map(item -> new Line(item, validatorFactory.getValidator(item.getProductType())))
+                .toList();
+
+        Map<String, List<Line>> independent = new LinkedHashMap<>();
+        List<Line> crossLine = new ArrayList<>();
+        for (Line line : lines) {
+            if (line.validator().isLineIndependent()) {
+                independent.computeIfAbsent(String.valueOf(line.item().getProductId()), id -> new ArrayList<>()).add(line);
+            } else {
+                crossLine.add(line);
+            }
+        }
+
+        int groups = independent.size() + (crossLine.isEmpty() ? 0 : 1);
+        if (!parallel || groups < 2) {
+            lines.forEach(line -> validate(order, line));
+            return;
+        }
+        validateConcurrently(order, new ArrayList<>(independent.values()), crossLine);
+    }
+
+    private void validateConcurrently(Order order, List<List<Line>> groups, List<Line> crossLine) {
+        log.debug("Validating orderId={} in {} parallel groups, {} cross-line items",
+                order.getOrderId(), groups.size(), crossLine.size());
+        AtomicBoolean failed = new AtomicBoolean();
+
+        List<Future<GroupResult>> futures = new ArrayList<>(groups.size());
+        for (List<Line> group : groups) {
+            Runnable work = reservations.inCurrentAttempt(productService.withCurrentLookups(
+                    () -> validateGroup(order, group, failed)));
+            futures.add(executor.submit(() -> {
+                List<SideEffect> effects = new ArrayList<>();
+                List<OutboxEvent> events = eventPublisher.capture(() -> effects.addAll(sideEffects.capture(work)));
+                return new GroupResult(events, effects);
+            }));
+        }
+
+        RuntimeException failure = null;
+        try {
+            validateGroup(order, crossLine, failed);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+
+        List<OutboxEvent> events = new ArrayList<>();
+        List<SideEffect> effects = new ArrayList<>();
+        for (Future<GroupResult> future : futures) {
+            try {
+                GroupResult result = future.get();
+                events.addAll(result.events());
+                effects.addAll(result.sideEffects());
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = unwrap(e);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.set(true);
+                throw new ErrorSystemDefaultException("Interrupted while validating order " + order.getOrderId());
+            }
+        }
+
+        eventPublisher.enqueueAll(events);
+        sideEffects.recordAll(effects);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void validateGroup(Order order, List<Line> group, AtomicBoolean failed) {
+        for (Line line : group) {
+            if (failed.get()) {
+                // Another group already failed the order; reserving more would only be released again
+                return;
+            }
+            try {
+                validate(order, line);
+            } catch (RuntimeException e) {
+                failed.set(true);
+                throw e;
+            }
+        }
+    }
+
+    private void validate(Order order, Line line) {
+        long start = System.nanoTime();
+        try {
+            line.validator().validate(order, line.item());
+        } finally {
+            pipelineMetrics.recordValidation(line.item().getProductType(), start);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new ErrorSystemDefaultException("Order line validation failed: " + cause);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private record Line(OrderItem item, ProductValidator validator) {
+    }
+
+    private record GroupResult(List<OutboxEvent> events, List<SideEffect> sideEffects) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.ecommerce.order_processing_system.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderPartitionMaintenanceService {
+
+    // Items are detached before their orders so a month never has orphaned item rows attached
+    static final List<String> PARTITIONED_TABLES = List.of("order_items", "orders");
+
+    // Cloned onto every order_items partition and kept when one is detached
+    private static final String ORDER_ITEMS_FOREIGN_KEY = "fk_order_items_order";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String LIST_PARTITIONS_SQL = """
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_class p ON p.oid = i.inhparent
+            WHERE p.relname = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.order.partition.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${app.order.partition.retention-months:24}")
+    private int retentionMonths;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.order.partition.cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        YearMonth current = YearMonth.now();
+        log.info("Running order partition maintenance month={}, monthsAhead={}, retentionMonths={}",
+                current, monthsAhead, retentionMonths);
+
+        for (String table : PARTITIONED_TABLES) {
+            createUpcomingPartitions(table, current);
+            detachExpiredPartitions(table, current);
+        }
+    }
+
+    void createUpcomingPartitions(String table, YearMonth current) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            String partition = jdbcTemplate.queryForObject(
+                    "SELECT ensure_monthly_partition(?, ?)", String.class, table, month.atDay(1));
+            log.debug("Partition ready table={}, partition={}", table, partition);
+        }
+    }
+
+    void detachExpiredPartitions(String table, YearMonth current) {
+        YearMonth oldestRetained = current.minusMonths(retentionMonths);
+        Pattern monthlyPartition = Pattern.compile(Pattern.quote(table) + "_p(\\d{4}_\\d{2})");
+
+        for (String partition : jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class, table)) {
+            Matcher matcher = monthlyPartition.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+
+            YearMonth month = YearMonth.parse(matcher.group(1), PARTITION_SUFFIX);
+            if (month.isBefore(oldestRetained)) {
+                log.info("Detaching expired partition table={}, partition={}", table, partition);
+                jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+                if ("order_items".equals(table)) {
+                    // Otherwise the detached items would still reference, and block detaching, the month's orders
+                    jdbcTemplate.execute("ALTER TABLE " + partition + " DROP CONSTRAINT IF EXISTS " + ORDER_ITEMS_FOREIGN_KEY);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.domain.ProductType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times where an order spends its way from {@code POST /api/orders} to its final status, as
+ * {@code order.pipeline.stage.duration} tagged by stage: {@code persist}, {@code publish} (outbox write),
+ * {@code outbox} (outbox write to broker ack), {@code broker_dwell} (event timestamp to consumption) and
+ * {@code commit} of the processing transaction, which writes one order in the record and parallel modes, a chunk in
+ * batch mode and the whole batch in transactional mode. Each validator is timed as {@code order.pipeline.validation.duration}
+ * tagged by product type. HTTP intake is Spring's own {@code http.server.requests}.
+ * <p>
+ * Timers publish client-side percentiles from an HdrHistogram-backed window plus Prometheus histogram buckets,
+ * so percentiles can also be aggregated across instances.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderPipelineMetrics {
+
+    public static final String PERSIST = "persist";
+    public static final String PUBLISH = "publish";
+    public static final String OUTBOX = "outbox";
+    public static final String BROKER_DWELL = "broker_dwell";
+    public static final String COMMIT = "commit";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> stages = new ConcurrentHashMap<>();
+    private final Map<ProductType, Timer> validations = new ConcurrentHashMap<>();
+
+    /**
+     * Records the time since {@code startNanos}, a {@link System#nanoTime()} reading.
+     */
+    public void record(String stage, long startNanos) {
+        stage(stage).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the wall-clock time since {@code from}; for stages that start in another process. Clock skew
+     * can make it negative, which is recorded as zero.
+     */
+    public void recordSince(String stage, Instant from) {
+        if (from == null) {
+            return;
+        }
+        Duration elapsed = Duration.between(from, Instant.now());
+        stage(stage).record(elapsed.isNegative() ? Duration.ZERO : elapsed);
+    }
+
+    public void recordValidation(ProductType productType, long startNanos) {
+        validations.computeIfAbsent(productType, type -> timer("order.pipeline.validation.duration")
+                        .tag("product_type", String.valueOf(type))
+                        .register(meterRegistry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Times the commit of the current transaction, from its before-commit callbacks to the end of the commit.
+     * Does nothing outside a transaction.
+     */
+    public void timeCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long start;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                start = System.nanoTime();
+            }
+
+            @Override
+            public void afterCommit() {
+                record(COMMIT, start);
+            }
+        });
+    }
+
+    private Timer stage(String stage) {
+        return stages.computeIfAbsent(stage, name -> timer("order.pipeline.stage.duration")
+                .tag("stage", name)
+                .register(meterRegistry));
+    }
+
+    private static Timer.Builder timer(String name) {
+        return Timer.builder(name)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .distributionStatisticExpiry(Duration.ofMinutes(2));
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecommerce.order_processing_system.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs {@link OrderProcessingService#process} in a fresh transaction per attempt and retries when the
+ * commit loses an optimistic-lock race. Each retry reloads the order, so a competing writer that already
+ * finished it turns the retry into a no-op.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderProcessingRetryService {
+
+    private final OrderProcessingService processingService;
+    private final MeterRegistry meterRegistry;
+    private final AdmissionControlService admissionControl;
+    private final OrderPipelineMetrics pipelineMetrics;
+
+    @Value("${app.order.processing.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.order.processing.retry.initial-backoff-ms:50}")
+    private long initialBackoffMs;
+
+    @Value("${app.order.processing.retry.max-backoff-ms:1000}")
+    private long maxBackoffMs;
+
+    public void process(String orderId, Instant publishedAt, String eventId) {
+        meterRegistry.counter("order.processing.invocations").increment();
+        pipelineMetrics.recordSince(OrderPipelineMetrics.BROKER_DWELL, publishedAt);
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                processingService.process(orderId, publishedAt, eventId);
+                admissionControl.recordProcessingLatency(publishedAt);
+                return;
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= maxAttempts) {
+                    conflicts("exhausted").increment();
+                    log.error("Optimistic lock conflict not resolved after {} attempts orderId={}", attempt, orderId);
+                    throw e;
+                }
+                conflicts("retried").increment();
+                long backoff = backoffFor(attempt);
+                log.warn("Optimistic lock conflict orderId={}, attempt={}, retrying in {}ms", orderId, attempt, backoff);
+                sleep(backoff, e);
+            }
+        }
+    }
+
+    // Full jitter: a uniform delay up to the exponential cap keeps competing processors from retrying in lockstep
+    long backoffFor(int attempt) {
+        long cap = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private Counter conflicts(String outcome) {
+        return meterRegistry.counter("order.processing.conflicts", "outcome", outcome);
+    }
+
+    private void sleep(long millis, RuntimeException cause) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
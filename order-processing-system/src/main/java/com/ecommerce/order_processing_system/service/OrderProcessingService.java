@@ -1,10 +1,7 @@
 package com.ecommerce.order_processing_system.service;
 
 import com.ecommerce.order_processing_system.domain.Order;
-import com.ecommerce.order_processing_system.domain.OrderItem;
 import com.ecommerce.order_processing_system.domain.OrderStatus;
-import com.ecommerce.order_processing_system.domain.service.ProductValidator;
-import com.ecommerce.order_processing_system.domain.service.ProductValidatorFactory;
 import com.ecommerce.order_processing_system.exception.FraudDetectedException;
 import com.ecommerce.order_processing_system.exception.OrderNotFoundException;
 import com.ecommerce.order_processing_system.kafka.events.OrderPendingApprovalEvent;
@@ -13,6 +10,8 @@ import com.ecommerce.order_processing_system.kafka.events.OrderFailedEvent;
 import com.ecommerce.order_processing_system.kafka.events.OrderFraudEvent;
 import com.ecommerce.order_processing_system.kafka.events.OrderProcessedEvent;
 import com.ecommerce.order_processing_system.repository.OrderRepository;
+import com.ecommerce.order_processing_system.service.SideEffectDispatcher.SideEffect;
+import com.ecommerce.order_processing_system.util.TransientFailures;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,7 +19,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.ecommerce.order_processing_system.domain.OrderStatus.FRAUD_DETECTED;
 
@@ -29,8 +34,13 @@ import static com.ecommerce.order_processing_system.domain.OrderStatus.FRAUD_DET
 @RequiredArgsConstructor
 public class OrderProcessingService {
     private final OrderRepository repository;
-    private final ProductValidatorFactory validatorFactory;
+    private final OrderLineValidationService lineValidation;
     private final KafkaEventPublisher eventPublisher;
+    private final EntitlementService entitlementService;
+    private final ProcessedEventService processedEvents;
+    private final ReservationJournalService reservations;
+    private final SideEffectDispatcher sideEffects;
+    private final OrderPipelineMetrics pipelineMetrics;
 
     @Value("${app.order.fraud-check-threshold}")
     private BigDecimal fraudCheckThreshold;
@@ -38,36 +48,132 @@ public class OrderProcessingService {
     @Value("${app.order.corporate-approval-threshold:50000}")
     private BigDecimal corporateApprovalThreshold;
 
+    @Value("${app.order.partition.lookup-window-hours:24}")
+    private long lookupWindowHours;
+
     @Transactional
     public void process(String orderId) {
-        Order order = repository.findById(orderId)
-                .orElseThrow(() -> new OrderNotFoundException(orderId));
+        process(orderId, null);
+    }
+
+    @Transactional
+    public void process(String orderId, Instant publishedAt) {
+        process(orderId, publishedAt, null);
+    }
+
+    @Transactional
+    public void process(String orderId, Instant publishedAt, String eventId) {
+        if (processedEvents.isProcessed(eventId)) {
+            log.info("Skipping already processed eventId={} for orderId={}", eventId, orderId);
+            return;
+        }
+
+        Order order = loadOrder(orderId, publishedAt);
+        if (order.getStatus() != OrderStatus.PENDING) {
+            // A redelivery or a concurrent writer already moved this order on; reprocessing would overwrite its outcome
+            log.info("Skipping orderId={} already in status={}", orderId, order.getStatus());
+            return;
+        }
+        // Claimed before any stock is touched; a rollback releases the claim
+        if (eventId != null && !processedEvents.claim(eventId)) {
+            log.info("Event eventId={} for orderId={} claimed by a concurrent consumer", eventId, orderId);
+            return;
+        }
+        pipelineMetrics.timeCommit();
+        Outcome outcome = evaluate(order);
+
+        switch (outcome.status()) {
+            case PENDING_APPROVAL -> {
+                order.setStatus(OrderStatus.PENDING_APPROVAL);
+                order.setFailureReason(outcome.reason());
+                eventPublisher.publishPendingApproval(OrderPendingApprovalEvent.of(orderId, outcome.reason()));
+                reservations.confirm(outcome.reservationAttempt());
+                sideEffects.executeAfterCommit(outcome.sideEffects());
+            }
+            case PROCESSED -> {
+                try {
+                    entitlementService.grant(order);
+                    order.setStatus(OrderStatus.PROCESSED);
+                    eventPublisher.publishProcessed(OrderProcessedEvent.of(order.getOrderId(), order.getTotalAmount()));
+                    reservations.confirm(outcome.reservationAttempt());
+                    sideEffects.executeAfterCommit(outcome.sideEffects());
+                } catch (RuntimeException e) {
+                    if (TransientFailures.isTransient(e)) {
+                        throw e;
+                    }
+                    fail(order, e.getMessage(), outcome.reservationAttempt());
+                }
+            }
+            default -> fail(order, outcome.reason(), outcome.reservationAttempt());
+        }
+    }
+
+    /**
+     * Runs the global and per-item rules against a loaded order without changing it. Validation failures
+     * become a FAILED outcome; transient failures and a fraud hit are thrown, as the order must not be
+     * finished automatically, and the reservations made before the throw are released.
+     * <p>
+     * Reservations made by the validators are journaled under the outcome's {@code reservationAttempt}; the
+     * caller settles it with {@link ReservationJournalService#confirm} or {@link ReservationJournalService#release}
+     * in the transaction that writes the outcome. Side effects the validators recorded come back in the outcome,
+     * to be scheduled only if the order is kept.
+     */
+    public Outcome evaluate(Order order) {
         validateGlobal(order);
 
+        String attempt = reservations.openAttempt(order.getOrderId());
         try {
+            AtomicReference<Outcome> outcome = new AtomicReference<>();
+            List<SideEffect> effects = sideEffects.capture(() -> outcome.set(validateItems(order)));
+            return new Outcome(outcome.get().status(), outcome.get().reason(), attempt, effects);
+        } catch (RuntimeException e) {
+            reservations.abandon(attempt);
+            throw e;
+        } finally {
+            reservations.closeAttempt();
+        }
+    }
 
-            for (OrderItem item : order.getItems()) {
-                ProductValidator validator = validatorFactory.getValidator(item.getProductType());
-                validator.validate(order, item);
-            }
+    private Outcome validateItems(Order order) {
+        try {
+            lineValidation.validateAll(order);
 
             if (order.getTotalAmount().compareTo(corporateApprovalThreshold) > 0) {
-                order.setStatus(OrderStatus.PENDING_APPROVAL);
-                order.setFailureReason("High value order pending approval: " + order.getTotalAmount());
                 log.info("High value order pending approval: orderId={}, amount={}",
                         order.getOrderId(), order.getTotalAmount());
-                eventPublisher.publishPendingApproval(OrderPendingApprovalEvent.of(orderId, order.getFailureReason()));
-                return;
+                return new Outcome(OrderStatus.PENDING_APPROVAL, "High value order pending approval: " + order.getTotalAmount());
             }
-
-            order.setStatus(OrderStatus.PROCESSED);
-            eventPublisher.publishProcessed(OrderProcessedEvent.of(order.getOrderId()));
+            return new Outcome(OrderStatus.PROCESSED, null);
 
         } catch (RuntimeException e) {
-            order.setFailureReason(e.getMessage());
-            order.setStatus(OrderStatus.FAILED);
-            eventPublisher.publishFailed(OrderFailedEvent.of(orderId, e.getMessage()));
+            if (TransientFailures.isTransient(e)) {
+                // Rolled back and retried later; failing the order would make a catalog blip permanent
+                throw e;
+            }
+            return new Outcome(OrderStatus.FAILED, e.getMessage());
+        }
+    }
+
+    private void fail(Order order, String reason, String reservationAttempt) {
+        order.setFailureReason(reason);
+        order.setStatus(OrderStatus.FAILED);
+        eventPublisher.publishFailed(OrderFailedEvent.of(order.getOrderId(), reason));
+        reservations.release(reservationAttempt);
+    }
+
+    private Order loadOrder(String orderId, Instant publishedAt) {
+        if (publishedAt != null) {
+            // An order is always persisted before its event is published, so the lower bound lets Postgres prune partitions
+            LocalDateTime createdFrom = LocalDateTime.ofInstant(publishedAt, ZoneId.systemDefault())
+                    .minusHours(lookupWindowHours);
+            Optional<Order> recent = repository.findByIdCreatedSince(orderId, createdFrom);
+            if (recent.isPresent()) {
+                return recent.get();
+            }
+            log.debug("Order not found within partition window, falling back to full lookup orderId={}", orderId);
         }
+        return repository.findById(orderId)
+                .orElseThrow(() -> new OrderNotFoundException(orderId));
     }
 
     private void validateGlobal(Order order) {
@@ -84,4 +190,19 @@ public class OrderProcessingService {
             log.debug("Fraud check passed for orderId={}", order.getOrderId());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * @param reservationAttempt journal attempt holding the catalog reservations made while evaluating
+     * @param sideEffects         actions to run once the outcome commits, if the order is kept
+     */
+    public record Outcome(OrderStatus status, String reason, String reservationAttempt, List<SideEffect> sideEffects) {
+
+        public Outcome(OrderStatus status, String reason) {
+            this(status, reason, null, List.of());
+        }
+
+        public Outcome(OrderStatus status, String reason, String reservationAttempt) {
+            this(status, reason, reservationAttempt, List.of());
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.domain.Order;
+import com.ecommerce.order_processing_system.domain.OrderStatus;
+import com.ecommerce.order_processing_system.dto.ReprocessOrdersRequest;
+import com.ecommerce.order_processing_system.dto.ReprocessingJobResponse;
+import com.ecommerce.order_processing_system.exception.InvalidStatusTransitionException;
+import com.ecommerce.order_processing_system.exception.ReprocessingJobConflictException;
+import com.ecommerce.order_processing_system.exception.ReprocessingJobNotFoundException;
+import com.ecommerce.order_processing_system.repository.OrderRepository;
+import com.ecommerce.order_processing_system.util.TransientFailures;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.ecommerce.order_processing_system.domain.OrderStatus.FAILED;
+import static com.ecommerce.order_processing_system.domain.OrderStatus.PENDING;
+
+/**
+ * Re-drives FAILED or stuck PENDING orders through {@link OrderProcessingService}, for recovering after a catalog
+ * outage without hand-written SQL. Orders are selected by status, created-at range and failure-reason pattern with
+ * a keyset scan over {@code (created_at, order_id)}, which rides the status/created-at index and prunes partitions.
+ * <p>
+ * Each order is handled in its own transaction: FAILED orders move back to PENDING and are processed again, so a
+ * transient failure rolls the move back and leaves the order as it was. Orders are started at a fixed rate with a
+ * bound on how many are in flight, and the job aborts once a run of consecutive transient failures shows the
+ * catalog is still unhealthy. One job runs at a time; its progress is kept in memory.
+ * <p>
+ * Without an explicit upper bound, orders younger than {@code min-age-minutes} are left out: a PENDING order that
+ * young is normally still on its way through the consumers rather than stuck. A job stays running until every
+ * order it started has finished.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderReprocessingService {
+
+    static final String SKIPPED = "SKIPPED";
+    static final String CONFLICT = "CONFLICT";
+    static final String TRANSIENT_ERROR = "TRANSIENT_ERROR";
+    static final String ERROR = "ERROR";
+
+    private static final String SELECT_PAGE_SQL = """
+            SELECT order_id, created_at
+            FROM orders
+            WHERE status = :status AND created_at >= :createdFrom AND created_at < :createdTo
+            """;
+    private static final String REASON_CLAUSE = " AND failure_reason ILIKE :reasonPattern";
+    private static final String CURSOR_CLAUSE = " AND (created_at, order_id) > (:afterCreatedAt, :afterOrderId)";
+    private static final String PAGE_CLAUSE = " ORDER BY created_at, order_id LIMIT :pageSize";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final OrderStatusTransitionService transitionService;
+    private final OrderProcessingService processingService;
+    private final OrderRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.order.reprocessing.page-size:500}")
+    private int pageSize;
+
+    @Value("${app.order.reprocessing.default-rate-per-second:10}")
+    private double defaultRatePerSecond;
+
+    @Value("${app.order.reprocessing.max-rate-per-second:100}")
+    private double maxRatePerSecond;
+
+    @Value("${app.order.reprocessing.default-concurrency:2}")
+    private int defaultConcurrency;
+
+    @Value("${app.order.reprocessing.max-concurrency:8}")
+    private int maxConcurrency;
+
+    @Value("${app.order.reprocessing.max-consecutive-transient-failures:25}")
+    private int maxConsecutiveTransientFailures;
+
+    @Value("${app.order.reprocessing.min-age-minutes:5}")
+    private long minAgeMinutes;
+
+    @Value("${app.order.reprocessing.retained-jobs:20}")
+    private int retainedJobs;
+
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(task -> new Thread(task, "order-reprocessing"));
+
+    public ReprocessingJobResponse start(ReprocessOrdersRequest request) {
+        if (request.getStatus() != FAILED && request.getStatus() != PENDING) {
+            throw new InvalidStatusTransitionException("Orders in status " + request.getStatus() + " cannot be reprocessed");
+        }
+        double rate = Math.min(Optional.ofNullable(request.getRatePerSecond()).orElse(defaultRatePerSecond), maxRatePerSecond);
+        int concurrency = Math.min(Optional.ofNullable(request.getConcurrency()).orElse(defaultConcurrency), maxConcurrency);
+        LocalDateTime createdTo = Optional.ofNullable(request.getCreatedTo())
+                .orElseGet(() -> LocalDateTime.now().minusMinutes(minAgeMinutes));
+
+        Job job;
+        synchronized (jobs) {
+            jobs.values().stream()
+                    .filter(Job::isRunning)
+                    .findFirst()
+                    .ifPresent(running -> {
+                        throw new ReprocessingJobConflictException("Reprocessing job " + running.id + " is still running");
+                    });
+            job = new Job(UUID.randomUUID().toString(), request, createdTo, rate, concurrency);
+            jobs.put(job.id, job);
+            evictFinishedJobs();
+        }
+
+        log.info("Starting reprocessing job={} status={} reasonPattern={} createdFrom={} createdTo={} rate={}/s concurrency={} dryRun={}",
+                job.id, job.status, job.reasonPattern, job.createdFrom, job.createdTo, rate, concurrency, job.dryRun);
+        runner.execute(() -> run(job));
+        return job.toResponse();
+    }
+
+    public ReprocessingJobResponse get(String jobId) {
+        return find(jobId).toResponse();
+    }
+
+    public List<ReprocessingJobResponse> list() {
+        synchronized (jobs) {
+            return jobs.values().stream().map(Job::toResponse).toList();
+        }
+    }
+
+    public ReprocessingJobResponse cancel(String jobId) {
+        Job job = find(jobId);
+        job.stop("Cancelled");
+        log.info("Cancelling reprocessing job={}", jobId);
+        return job.toResponse();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdownNow();
+    }
+
+    private void run(Job job) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(job.concurrency,
+                task -> new Thread(task, "order-reprocessing-worker-" + threadIndex.getAndIncrement()));
+        Semaphore inFlight = new Semaphore(job.concurrency);
+        Pacer pacer = new Pacer(job.ratePerSecond);
+
+        try {
+            Candidate cursor = null;
+            long remaining = job.limit == null ? Long.MAX_VALUE : job.limit;
+            while (!job.stopRequested() && remaining > 0) {
+                int size = (int) Math.min(pageSize, remaining);
+                List<Candidate> page = nextPage(job, cursor, size);
+                for (Candidate candidate : page) {
+                    if (job.stopRequested()) {
+                        break;
+                    }
+                    job.scanned.incrementAndGet();
+                    remaining--;
+                    if (job.dryRun) {
+                        continue;
+                    }
+                    pacer.acquire();
+                    inFlight.acquire();
+                    job.attempted.incrementAndGet();
+                    workers.execute(() -> {
+                        try {
+                            job.record(reprocess(candidate, job.status), maxConsecutiveTransientFailures);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+                if (page.size() < size) {
+                    break;
+                }
+                cursor = page.get(page.size() - 1);
+            }
+            workers.shutdown();
+            while (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.warn("Reprocessing job={} still waiting for {} in-flight orders",
+                        job.id, job.concurrency - inFlight.availablePermits());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.stop("Interrupted");
+            workers.shutdownNow();
+        } catch (RuntimeException e) {
+            log.error("Reprocessing job={} failed", job.id, e);
+            job.stop("Failed: " + e.getMessage());
+            workers.shutdownNow();
+        } finally {
+            job.finish();
+            log.info("Reprocessing job={} finished state={} scanned={} attempted={} outcomes={}",
+                    job.id, job.state, job.scanned.get(), job.attempted.get(), job.outcomes());
+        }
+    }
+
+    private List<Candidate> nextPage(Job job, Candidate cursor, int size) {
+        StringBuilder sql = new StringBuilder(SELECT_PAGE_SQL);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("status", job.status.name())
+                .addValue("createdFrom", job.createdFrom)
+                .addValue("createdTo", job.createdTo)
+                .addValue("pageSize", size);
+        if (job.reasonPattern != null) {
+            sql.append(REASON_CLAUSE);
+            params.addValue("reasonPattern", job.reasonPattern);
+        }
+        if (cursor != null) {
+            sql.append(CURSOR_CLAUSE);
+            params.addValue("afterCreatedAt", cursor.createdAt()).addValue("afterOrderId", cursor.orderId());
+        }
+        sql.append(PAGE_CLAUSE);
+        return jdbcTemplate.query(sql.toString(), params,
+                (rs, row) -> new Candidate(rs.getString("order_id"), rs.getObject("created_at", LocalDateTime.class)));
+    }
+
+    private String reprocess(Candidate candidate, OrderStatus from) {
+        String outcome;
+        try {
+            outcome = transactionTemplate.execute(tx -> {
+                if (from == FAILED && !transitionService.transition(candidate.orderId(), FAILED, PENDING, null)) {
+                    return SKIPPED;
+                }
+                // The creation time lets the load prune partitions
+                processingService.process(candidate.orderId(),
+                        candidate.createdAt().atZone(ZoneId.systemDefault()).toInstant(), null);
+                return repository.findById(candidate.orderId())
+                        .map(Order::getStatus)
+                        .map(OrderStatus::name)
+                        .orElse(SKIPPED);
+            });
+        } catch (OptimisticLockingFailureException e) {
+            outcome = CONFLICT;
+        } catch (RuntimeException e) {
+            if (TransientFailures.isTransient(e)) {
+                log.warn("Reprocessing orderId={} hit a transient failure, left unchanged: {}", candidate.orderId(), e.getMessage());
+                outcome = TRANSIENT_ERROR;
+            } else {
+                log.error("Reprocessing orderId={} failed, left unchanged", candidate.orderId(), e);
+                outcome = ERROR;
+            }
+        }
+        meterRegistry.counter("order.reprocessing.outcomes", "outcome", outcome).increment();
+        return outcome;
+    }
+
+    private Job find(String jobId) {
+        synchronized (jobs) {
+            Job job = jobs.get(jobId);
+            if (job == null) {
+                throw new ReprocessingJobNotFoundException("Reprocessing job not found: " + jobId);
+            }
+            return job;
+        }
+    }
+
+    private void evictFinishedJobs() {
+        Iterator<Job> oldestFirst = jobs.values().iterator();
+        while (jobs.size() > retainedJobs && oldestFirst.hasNext()) {
+            if (!oldestFirst.next().isRunning()) {
+                oldestFirst.remove();
+            }
+        }
+    }
+
+    record Candidate(String orderId, LocalDateTime createdAt) {
+    }
+
+    /**
+     * Spaces starts evenly at the job's rate; only the job's scanning thread calls it.
+     */
+    private static final class Pacer {
+
+        private final long intervalNanos;
+        private long next = System.nanoTime();
+
+        Pacer(double ratePerSecond) {
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        }
+
+        void acquire() throws InterruptedException {
+            long now = System.nanoTime();
+            if (next > now) {
+                TimeUnit.NANOSECONDS.sleep(next - now);
+            }
+            next = Math.max(next, now) + intervalNanos;
+        }
+    }
+
+    private static final class Job {
+
+        private final String id;
+        private final OrderStatus status;
+        private final String reasonPattern;
+        private final LocalDateTime createdFrom;
+        private final LocalDateTime createdTo;
+        private final Integer limit;
+        private final double ratePerSecond;
+        private final int concurrency;
+        private final boolean dryRun;
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong scanned = new AtomicLong();
+        private final AtomicLong attempted = new AtomicLong();
+        private final Map<String, AtomicLong> outcomes = new ConcurrentHashMap<>();
+        private final AtomicInteger consecutiveTransientFailures = new AtomicInteger();
+        private volatile String state = "RUNNING";
+        private volatile boolean stopRequested;
+        private volatile String message;
+        private volatile Instant finishedAt;
+
+        Job(String id, ReprocessOrdersRequest request, LocalDateTime createdTo, double ratePerSecond, int concurrency) {
+            this.id = id;
+            this.status = request.getStatus();
+            this.reasonPattern = request.getReasonPattern();
+            this.createdFrom = request.getCreatedFrom();
+            this.createdTo = createdTo;
+            this.limit = request.getLimit();
+            this.ratePerSecond = ratePerSecond;
+            this.concurrency = concurrency;
+            this.dryRun = request.isDryRun();
+        }
+
+        boolean isRunning() {
+            return finishedAt == null;
+        }
+
+        boolean stopRequested() {
+            return stopRequested;
+        }
+
+        void stop(String reason) {
+            if (isRunning() && !stopRequested) {
+                message = reason;
+                stopRequested = true;
+            }
+        }
+
+        void record(String outcome, int maxConsecutiveTransientFailures) {
+            outcomes.computeIfAbsent(outcome, key -> new AtomicLong()).incrementAndGet();
+            if (!TRANSIENT_ERROR.equals(outcome)) {
+                consecutiveTransientFailures.set(0);
+            } else if (consecutiveTransientFailures.incrementAndGet() >= maxConsecutiveTransientFailures) {
+                stop("Aborted after " + maxConsecutiveTransientFailures + " consecutive transient failures");
+            }
+        }
+
+        void finish() {
+            state = message == null ? "COMPLETED" : message.startsWith("Cancelled") ? "CANCELLED" : "ABORTED";
+            finishedAt = Instant.now();
+        }
+
+        Map<String, Long> outcomes() {
+            Map<String, Long> counts = new TreeMap<>();
+            outcomes.forEach((outcome, count) -> counts.put(outcome, count.get()));
+            return counts;
+        }
+
+        ReprocessingJobResponse toResponse() {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            double seconds = Math.max(Duration.between(startedAt, end).toMillis(), 1) / 1000.0;
+            return ReprocessingJobResponse.builder()
+                    .jobId(id)
+                    .state(state)
+                    .status(status)
+                    .reasonPattern(reasonPattern)
+                    .createdFrom(createdFrom)
+                    .createdTo(createdTo)
+                    .limit(limit)
+                    .ratePerSecond(ratePerSecond)
+                    .concurrency(concurrency)
+                    .dryRun(dryRun)
+                    .scanned(scanned.get())
+                    .attempted(attempted.get())
+                    .outcomes(outcomes())
+                    .throughputPerSecond(attempted.get() / seconds)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .message(message)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.domain.OrderStatus;
+import com.ecommerce.order_processing_system.dto.OrderResponse;
+import com.ecommerce.order_processing_system.exception.ErrorSystemDefaultException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static com.ecommerce.order_processing_system.domain.OrderStatus.*;
+
+/**
+ * Bounded cache of serialized {@link OrderResponse} payloads for the single-order endpoint.
+ * Orders still moving through processing expire within seconds, so a missed invalidation only
+ * delays a status change briefly; orders in a final state are kept much longer. Every instance
+ * evicts an order when its status event arrives, not only the one that wrote it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderResponseCache {
+
+    private static final Set<OrderStatus> IN_FLIGHT = EnumSet.of(PENDING, CREATED, PENDING_APPROVAL);
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.order.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.order.cache.in-flight-ttl-seconds:2}")
+    private long inFlightTtlSeconds;
+
+    @Value("${app.order.cache.terminal-ttl-minutes:10}")
+    private long terminalTtlMinutes;
+
+    private Cache<String, CachedResponse> cache;
+
+    @PostConstruct
+    void init() {
+        Duration inFlightTtl = Duration.ofSeconds(inFlightTtlSeconds);
+        Duration terminalTtl = Duration.ofMinutes(terminalTtlMinutes);
+
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+                        return (IN_FLIGHT.contains(value.status()) ? inFlightTtl : terminalTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Concurrent misses for the same order share a single load.
+     */
+    public byte[] get(String orderId, Supplier<OrderResponse> loader) {
+        return cache.get(orderId, id -> serialize(loader.get())).body();
+    }
+
+    public void evict(String orderId) {
+        cache.invalidate(orderId);
+    }
+
+    /**
+     * Evicts now and again once the surrounding transaction completes, so a read that
+     * raced with the write cannot leave the pre-commit state cached.
+     */
+    public void evictAfterCommit(String orderId) {
+        evict(orderId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(orderId);
+                }
+            });
+        }
+    }
+
+    private CachedResponse serialize(OrderResponse response) {
+        try {
+            return new CachedResponse(objectMapper.writeValueAsBytes(response), response.getStatus());
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize order response orderId={}", response.getOrderId(), e);
+            throw new ErrorSystemDefaultException("Could not serialize order " + response.getOrderId());
+        }
+    }
+
+    private record CachedResponse(byte[] body, OrderStatus status) {
+    }
+}
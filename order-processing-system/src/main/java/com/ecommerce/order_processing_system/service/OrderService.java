@@ -11,17 +11,18 @@ import com.ecommerce.order_processing_system.exception.OrderNotFoundException;
 import com.ecommerce.order_processing_system.exception.OutOfStockException;
 import com.ecommerce.order_processing_system.kafka.producer.KafkaEventPublisher;
 import com.ecommerce.order_processing_system.kafka.events.OrderCreatedEvent;
+import com.ecommerce.order_processing_system.repository.OrderArchiveStore;
 import com.ecommerce.order_processing_system.repository.OrderRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.support.TransactionSynchronizationAdapter;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static com.ecommerce.order_processing_system.domain.OrderStatus.OUT_OF_STOCK;
@@ -35,6 +36,8 @@ public class OrderService {
     private final ProductService productService;
     private final ObjectMapper objectMapper;
     private final KafkaEventPublisher eventPublisher;
+    private final OrderArchiveStore archiveStore;
+    private final OrderPipelineMetrics pipelineMetrics;
 
     @Transactional
     public OrderResponse createOrder(CreateOrderRequest request) {
@@ -61,8 +64,10 @@ public class OrderService {
         items.forEach(i -> i.setOrder(finalOrder));
         log.debug("Linked all items to the order");
 
+        long persistStart = System.nanoTime();
         order = orderRepository.save(order);
         orderRepository.flush();
+        pipelineMetrics.record(OrderPipelineMetrics.PERSIST, persistStart);
         log.info("Order persisted successfully orderId={}", order.getOrderId());
 
         OrderResponse response = toResponse(order);
@@ -75,7 +80,9 @@ public class OrderService {
                 response.getTotalAmount()
         );
 
-        publishEventAfterCommit(event);
+        long publishStart = System.nanoTime();
+        eventPublisher.publishCreated(event);
+        pipelineMetrics.record(OrderPipelineMetrics.PUBLISH, publishStart);
 
         var responseOrder = OrderResponse.builder()
                 .orderId(response.getOrderId())
@@ -91,14 +98,17 @@ public class OrderService {
     @Transactional(readOnly = true)
     public OrderResponse getOrder(String orderId) {
         log.info("Fetching order by id={}", orderId);
-        Order order = orderRepository.findById(orderId)
+        Optional<OrderResponse> hot = orderRepository.findById(orderId).map(this::toResponse);
+        if (hot.isPresent()) {
+            log.debug("Order found id={} status={}", orderId, hot.get().getStatus());
+            return hot.get();
+        }
+
+        return archiveStore.find(orderId)
                 .orElseThrow(() -> {
                     log.warn("Order not found id={}", orderId);
                     return new OrderNotFoundException("Order " + orderId + " not found");
                 });
-
-        log.debug("Order found id={} status={}", orderId, order.getStatus());
-        return toResponse(order);
     }
 
     @Transactional(readOnly = true)
@@ -109,6 +119,11 @@ public class OrderService {
                 .stream()
                 .map(this::toResponse)
                 .collect(Collectors.toList());
+        // An order stays in the hot tables until its archive run commits; the hot copy wins
+        Set<String> hot = list.stream().map(OrderResponse::getOrderId).collect(Collectors.toSet());
+        archiveStore.findByCustomer(customerId).stream()
+                .filter(archived -> !hot.contains(archived.getOrderId()))
+                .forEach(list::add);
 
         log.info("Found {} orders for customerId={}", list.size(), customerId);
         return list;
@@ -186,19 +201,4 @@ public class OrderService {
                 .build();
     }
 
-    protected void publishEventAfterCommit(OrderCreatedEvent event) {
-        if (TransactionSynchronizationManager.isSynchronizationActive()) {
-            TransactionSynchronizationManager.registerSynchronization(
-                    new TransactionSynchronizationAdapter() {
-                        @Override
-                        public void afterCommit() {
-                            eventPublisher.publishCreated(event);
-                        }
-                    }
-            );
-        } else {
-            eventPublisher.publishCreated(event);
-        }
-    }
-
 }
@@ -0,0 +1,109 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.domain.OrderStatus;
+import com.ecommerce.order_processing_system.exception.InvalidStatusTransitionException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static com.ecommerce.order_processing_system.domain.OrderStatus.*;
+
+/**
+ * Order status state machine. Transitions are written with conditional UPDATEs on the current status
+ * instead of loading the aggregate, so a row only moves if it is still in the expected state and the
+ * caller learns exactly which rows did.
+ * <p>
+ * Entities already loaded in the calling persistence context are not refreshed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderStatusTransitionService {
+
+    static final Map<OrderStatus, Set<OrderStatus>> ALLOWED_TRANSITIONS;
+
+    static {
+        Map<OrderStatus, Set<OrderStatus>> allowed = new EnumMap<>(OrderStatus.class);
+        allowed.put(PENDING, EnumSet.of(PENDING_APPROVAL, PROCESSED, FAILED));
+        allowed.put(PENDING_APPROVAL, EnumSet.of(PROCESSED, FAILED));
+        allowed.put(FAILED, EnumSet.of(PENDING));
+        ALLOWED_TRANSITIONS = Collections.unmodifiableMap(allowed);
+    }
+
+    // version is bumped so a concurrent JPA writer holding the old row fails its optimistic check
+    private static final String TRANSITION_ORDERS_SQL = """
+            UPDATE orders
+            SET status = :to, failure_reason = :failureReason, updated_at = :updatedAt, version = version + 1
+            WHERE order_id IN (:orderIds) AND status = :from
+            RETURNING order_id
+            """;
+
+    private static final String TRANSITION_VIEW_SQL = """
+            UPDATE order_view
+            SET status = :to, failure_reason = :failureReason, updated_at = :updatedAt
+            WHERE order_id IN (:orderIds) AND (updated_at IS NULL OR updated_at <= :updatedAt)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final OrderResponseCache responseCache;
+
+    @Value("${app.order.status.batch-size:1000}")
+    private int batchSize;
+
+    public boolean canTransition(OrderStatus from, OrderStatus to) {
+        return ALLOWED_TRANSITIONS.getOrDefault(from, Set.of()).contains(to);
+    }
+
+    @Transactional
+    public boolean transition(String orderId, OrderStatus from, OrderStatus to, String failureReason) {
+        return !transitionAll(List.of(orderId), from, to, failureReason).transitioned().isEmpty();
+    }
+
+    @Transactional
+    public TransitionResult transitionAll(Collection<String> orderIds, OrderStatus from, OrderStatus to, String failureReason) {
+        if (!canTransition(from, to)) {
+            throw new InvalidStatusTransitionException("Order status cannot change from " + from + " to " + to);
+        }
+
+        List<String> requested = List.copyOf(new LinkedHashSet<>(orderIds));
+        List<String> transitioned = new ArrayList<>();
+        LocalDateTime updatedAt = LocalDateTime.now();
+
+        for (int start = 0; start < requested.size(); start += batchSize) {
+            List<String> chunk = requested.subList(start, Math.min(start + batchSize, requested.size()));
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("orderIds", chunk)
+                    .addValue("from", from.name())
+                    .addValue("to", to.name())
+                    .addValue("failureReason", failureReason)
+                    .addValue("updatedAt", updatedAt);
+
+            List<String> moved = jdbcTemplate.queryForList(TRANSITION_ORDERS_SQL, params, String.class);
+            if (!moved.isEmpty()) {
+                jdbcTemplate.update(TRANSITION_VIEW_SQL, params.addValue("orderIds", moved));
+                moved.forEach(responseCache::evictAfterCommit);
+                transitioned.addAll(moved);
+            }
+        }
+
+        Set<String> movedIds = new HashSet<>(transitioned);
+        List<String> skipped = requested.stream().filter(id -> !movedIds.contains(id)).toList();
+
+        log.info("Status transition from={} to={} requested={} transitioned={} skipped={}",
+                from, to, requested.size(), transitioned.size(), skipped.size());
+        return new TransitionResult(from, to, List.copyOf(transitioned), skipped);
+    }
+
+    /**
+     * @param skipped ids that were missing or no longer in {@code from} when the update ran
+     */
+    public record TransitionResult(OrderStatus from, OrderStatus to, List<String> transitioned, List<String> skipped) {
+    }
+}
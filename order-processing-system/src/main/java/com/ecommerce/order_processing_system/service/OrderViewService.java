@@ -0,0 +1,118 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.domain.OrderStatus;
+import com.ecommerce.order_processing_system.domain.OrderView;
+import com.ecommerce.order_processing_system.dto.OrderResponse;
+import com.ecommerce.order_processing_system.exception.ErrorSystemDefaultException;
+import com.ecommerce.order_processing_system.kafka.events.OrderCreatedEvent;
+import com.ecommerce.order_processing_system.repository.OrderArchiveStore;
+import com.ecommerce.order_processing_system.repository.OrderViewRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderViewService {
+
+    private final OrderViewRepository repository;
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final OrderResponseCache responseCache;
+    private final OrderArchiveStore archiveStore;
+
+    /**
+     * Served from the read model. Falls back to the write model while the created event
+     * has not been projected yet, so a client reading its own order right after POST never gets a 404.
+     */
+    @Transactional(readOnly = true)
+    public OrderResponse getOrder(String orderId) {
+        log.info("Fetching order view by id={}", orderId);
+        return repository.findById(orderId)
+                .filter(view -> view.getCustomerId() != null)
+                .map(this::toResponse)
+                .orElseGet(() -> {
+                    log.debug("Order view not projected yet, reading aggregate id={}", orderId);
+                    return orderService.getOrder(orderId);
+                });
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderResponse> getOrdersByCustomer(String customerId) {
+        log.info("Fetching order views for customerId={}", customerId);
+
+        List<OrderResponse> list = repository.findByCustomerId(customerId)
+                .stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+        // An order stays in the hot tables until its archive run commits; the hot copy wins
+        Set<String> hot = list.stream().map(OrderResponse::getOrderId).collect(Collectors.toSet());
+        archiveStore.findByCustomer(customerId).stream()
+                .filter(archived -> !hot.contains(archived.getOrderId()))
+                .forEach(list::add);
+
+        log.info("Found {} order views for customerId={}", list.size(), customerId);
+        return list;
+    }
+
+    @Transactional
+    public void projectCreated(OrderCreatedEvent event) {
+        OrderCreatedEvent.Payload payload = event.getPayload();
+        log.debug("Projecting created orderId={}", payload.getOrderId());
+
+        repository.upsertCreated(
+                payload.getOrderId(),
+                payload.getCustomerId(),
+                toJson(payload),
+                payload.getTotalAmount(),
+                toLocalDateTime(event.getTimestamp())
+        );
+        responseCache.evictAfterCommit(payload.getOrderId());
+    }
+
+    @Transactional
+    public void projectStatus(String orderId, OrderStatus status, String failureReason,
+                              BigDecimal totalAmount, String timestamp) {
+        log.debug("Projecting status orderId={}, status={}", orderId, status);
+        repository.upsertStatus(orderId, status.name(), failureReason, totalAmount, toLocalDateTime(timestamp));
+        responseCache.evictAfterCommit(orderId);
+    }
+
+    public OrderResponse toResponse(OrderView view) {
+        return OrderResponse.builder()
+                .orderId(view.getOrderId())
+                .customerId(view.getCustomerId())
+                .items(view.getItems())
+                .totalAmount(view.getTotalAmount())
+                .status(view.getStatus())
+                .failureReason(view.getFailureReason())
+                .createdAt(view.getCreatedAt())
+                .updatedAt(view.getUpdatedAt())
+                .build();
+    }
+
+    private String toJson(OrderCreatedEvent.Payload payload) {
+        try {
+            return objectMapper.writeValueAsString(payload.getItems() != null ? payload.getItems() : List.of());
+        } catch (JsonProcessingException e) {
+            throw new ErrorSystemDefaultException("Could not serialize items for orderId=" + payload.getOrderId());
+        }
+    }
+
+    private LocalDateTime toLocalDateTime(String timestamp) {
+        Instant instant = timestamp != null ? Instant.parse(timestamp) : Instant.now();
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.repository.ProcessedEventRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency guard for consumed events. Recently seen ids are answered from a bounded in-memory cache;
+ * everything else from the processed_events table, which is the source of truth.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProcessedEventService {
+
+    private final ProcessedEventRepository repository;
+
+    @Value("${app.order.idempotency.cache-max-size:100000}")
+    private long cacheMaxSize;
+
+    @Value("${app.order.idempotency.cache-ttl-minutes:60}")
+    private long cacheTtlMinutes;
+
+    @Value("${app.order.idempotency.retention-days:7}")
+    private long retentionDays;
+
+    private Cache<String, Boolean> recent;
+
+    @PostConstruct
+    void init() {
+        recent = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+                .build();
+    }
+
+    public boolean isProcessed(String eventId) {
+        if (eventId == null) {
+            return false;
+        }
+        if (recent.getIfPresent(eventId) != null) {
+            return true;
+        }
+        boolean stored = repository.existsById(eventId);
+        if (stored) {
+            recent.put(eventId, Boolean.TRUE);
+        }
+        return stored;
+    }
+
+    /**
+     * Records the event in the caller's transaction, so the claim commits or rolls back with the
+     * order update. Returns false if the event was already processed.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean claim(String eventId) {
+        boolean claimed = repository.insertIfAbsent(eventId, LocalDateTime.now()) == 1;
+        if (claimed) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recent.put(eventId, Boolean.TRUE);
+                }
+            });
+        } else {
+            recent.put(eventId, Boolean.TRUE);
+        }
+        return claimed;
+    }
+
+    @Transactional
+    @Scheduled(cron = "${app.order.idempotency.cleanup-cron:0 15 * * * *}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int removed = repository.deleteProcessedBefore(cutoff);
+        log.info("Purged {} processed event ids older than {}", removed, cutoff);
+    }
+}
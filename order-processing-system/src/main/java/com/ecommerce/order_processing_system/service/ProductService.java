@@ -1,6 +1,7 @@
 package com.ecommerce.order_processing_system.service;
 
 import com.ecommerce.order_processing_system.client.ProductCatalogClient;
+import com.ecommerce.order_processing_system.domain.ReservationJournalEntry;
 import com.ecommerce.order_processing_system.dto.ProductDTO;
 import com.ecommerce.order_processing_system.exception.ProductIsNotAvailableException;
 import com.ecommerce.order_processing_system.exception.ProductNotFoundException;
@@ -8,15 +9,58 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
     private final ProductCatalogClient client;
+    private final ReservationJournalService reservations;
+
+    // Catalog responses shared by every order validated inside withSharedLookups on this thread
+    private final ThreadLocal<Map<String, ProductDTO>> sharedLookups = new ThreadLocal<>();
+
+    /**
+     * Runs {@code work} with catalog lookups memoized per product, so a batch of orders fetches each product once.
+     * Stock written through {@link #updateStock} is reflected in the memoized product.
+     */
+    public <T> T withSharedLookups(Supplier<T> work) {
+        if (sharedLookups.get() != null) {
+            return work.get();
+        }
+        // Concurrent, as the lines of one order may be validated in parallel
+        sharedLookups.set(new ConcurrentHashMap<>());
+        try {
+            return work.get();
+        } finally {
+            sharedLookups.remove();
+        }
+    }
+
+    /**
+     * Wraps {@code task} so it sees the lookups shared on this thread when it runs on another one.
+     */
+    public Runnable withCurrentLookups(Runnable task) {
+        Map<String, ProductDTO> shared = sharedLookups.get();
+        return () -> {
+            Map<String, ProductDTO> previous = sharedLookups.get();
+            sharedLookups.set(shared);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    sharedLookups.remove();
+                } else {
+                    sharedLookups.set(previous);
+                }
+            }
+        };
+    }
 
     public ProductDTO getProductOrThrow(String productId) {
-        ProductDTO dto = client.getProduct(productId);
+        ProductDTO dto = lookup(productId);
         if (dto == null) {
             throw new ProductNotFoundException("Product " + productId + " not found");
         }
@@ -27,10 +71,32 @@ public class ProductService {
     }
 
     public boolean updateStock(String productId, int quantity) {
-        return client.updateStock(productId, quantity);
+        boolean updated = client.updateStock(productId, quantity);
+        Map<String, ProductDTO> shared = sharedLookups.get();
+        if (updated && shared != null && shared.get(productId) != null) {
+            shared.get(productId).setStockQuantity(quantity);
+        }
+        return updated;
+    }
+
+    /**
+     * Writes the stock left after reserving {@code quantity} units, journaling the reservation for compensation.
+     */
+    public boolean reserveStock(String productId, int newStock, int quantity) {
+        return reservations.reserve(ReservationJournalEntry.Kind.STOCK, productId, quantity,
+                () -> updateStock(productId, newStock));
     }
 
     public boolean reservePreOrderSlots(String productId, Integer quantity) {
-        return client.reservePreOrderSlots(productId, quantity);
+        return reservations.reserve(ReservationJournalEntry.Kind.PRE_ORDER_SLOTS, productId, quantity,
+                () -> client.reservePreOrderSlots(productId, quantity));
+    }
+
+    private ProductDTO lookup(String productId) {
+        Map<String, ProductDTO> shared = sharedLookups.get();
+        if (shared == null) {
+            return client.getProduct(productId);
+        }
+        return shared.computeIfAbsent(productId, client::getProduct);
     }
-}
\ No newline at end of file
+}
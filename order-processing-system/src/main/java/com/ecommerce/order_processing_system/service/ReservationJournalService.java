@@ -0,0 +1,223 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.client.ProductCatalogClient;
+import com.ecommerce.order_processing_system.domain.ReservationJournalEntry;
+import com.ecommerce.order_processing_system.dto.StockReleaseRequest;
+import com.ecommerce.order_processing_system.repository.ReservationJournalRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Journal of the catalog reservations an order's validation makes, so they can be given back when the order
+ * does not keep them. Validation runs inside an attempt opened with {@link #openAttempt}; each reservation is
+ * journaled in its own transaction before the catalog call. The attempt is then settled in the transaction
+ * that writes the order's outcome: {@link #confirm} drops the entries of orders that keep their reservations,
+ * {@link #release} marks those of failed orders and returns them to the catalog in one batched call after
+ * commit. Entries of attempts that never settle (rolled back, lost a race, or crashed) and releases the catalog
+ * did not acknowledge are picked up by {@link #reconcile}.
+ * <p>
+ * Journal writes take a second pooled connection while the caller's transaction holds its own, so every
+ * thread processing orders needs two; {@code spring.datasource.hikari.maximum-pool-size} is budgeted for that.
+ */
+@Slf4j
+@Service
+public class ReservationJournalService {
+
+    private record Attempt(String id, String orderId) {
+    }
+
+    private final ReservationJournalRepository repository;
+    private final ProductCatalogClient client;
+    private final TransactionTemplate requiresNew;
+    private final ThreadLocal<Attempt> currentAttempt = new ThreadLocal<>();
+
+    @Value("${app.order.reservations.reconcile-batch-size:200}")
+    private int reconcileBatchSize;
+
+    @Value("${app.order.reservations.stale-after-minutes:10}")
+    private long staleAfterMinutes;
+
+    @Value("${app.order.reservations.release-retry-after-seconds:60}")
+    private long releaseRetryAfterSeconds;
+
+    public ReservationJournalService(ReservationJournalRepository repository,
+                                     ProductCatalogClient client,
+                                     PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.client = client;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Starts journaling reservations made on this thread for {@code orderId}; must be paired with {@link #closeAttempt}.
+     */
+    public String openAttempt(String orderId) {
+        Attempt attempt = new Attempt(UUID.randomUUID().toString(), orderId);
+        currentAttempt.set(attempt);
+        return attempt.id();
+    }
+
+    public void closeAttempt() {
+        currentAttempt.remove();
+    }
+
+    /**
+     * Wraps {@code task} so the reservations it makes on another thread join the attempt open on this one.
+     */
+    public Runnable inCurrentAttempt(Runnable task) {
+        Attempt attempt = currentAttempt.get();
+        return () -> {
+            Attempt previous = currentAttempt.get();
+            currentAttempt.set(attempt);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    currentAttempt.remove();
+                } else {
+                    currentAttempt.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * Journals the reservation, then runs the catalog call. The entry is dropped unless the catalog confirms the
+     * reservation, so a rejected or failed call is never released later.
+     */
+    public boolean reserve(ReservationJournalEntry.Kind kind, String productId, int quantity, BooleanSupplier call) {
+        Attempt attempt = currentAttempt.get();
+        if (attempt == null) {
+            return call.getAsBoolean();
+        }
+
+        ReservationJournalEntry entry = requiresNew.execute(status -> repository.save(ReservationJournalEntry.builder()
+                .attemptId(attempt.id())
+                .orderId(attempt.orderId())
+                .productId(productId)
+                .kind(kind)
+                .quantity(quantity)
+                .status(ReservationJournalEntry.Status.RESERVED)
+                .build()));
+
+        boolean reserved = false;
+        try {
+            reserved = call.getAsBoolean();
+            return reserved;
+        } finally {
+            if (!reserved) {
+                requiresNew.executeWithoutResult(status -> repository.deleteById(entry.getId()));
+            }
+        }
+    }
+
+    public void confirm(String attemptId) {
+        confirm(Collections.singletonList(attemptId));
+    }
+
+    /**
+     * The orders behind these attempts keep their reservations. Runs in the caller's transaction.
+     */
+    public void confirm(Collection<String> attemptIds) {
+        List<String> ids = nonNull(attemptIds);
+        if (!ids.isEmpty()) {
+            repository.deleteReserved(ids);
+        }
+    }
+
+    public void release(String attemptId) {
+        release(Collections.singletonList(attemptId));
+    }
+
+    /**
+     * The orders behind these attempts failed. Marks their reservations in the caller's transaction and sends
+     * the releases once it commits.
+     */
+    public void release(Collection<String> attemptIds) {
+        List<String> ids = nonNull(attemptIds);
+        if (ids.isEmpty() || repository.markReleasing(ids) == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sendReleases(repository.findByAttemptIdInAndStatus(ids, ReservationJournalEntry.Status.RELEASING));
+                }
+            });
+        } else {
+            sendReleases(repository.findByAttemptIdInAndStatus(ids, ReservationJournalEntry.Status.RELEASING));
+        }
+    }
+
+    /**
+     * Releases an attempt whose validation threw: its order stays PENDING and will reserve again when retried.
+     */
+    public void abandon(String attemptId) {
+        requiresNew.executeWithoutResult(status -> release(attemptId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.order.reservations.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ReservationJournalEntry> unsettled = repository.findUnsettled(
+                now.minusSeconds(releaseRetryAfterSeconds), now.minusMinutes(staleAfterMinutes),
+                PageRequest.of(0, reconcileBatchSize));
+        if (unsettled.isEmpty()) {
+            return;
+        }
+
+        long abandoned = unsettled.stream().filter(e -> e.getStatus() == ReservationJournalEntry.Status.RESERVED).count();
+        log.warn("Reconciling {} unsettled reservations ({} from attempts that never settled)", unsettled.size(), abandoned);
+        sendReleases(unsettled);
+    }
+
+    void sendReleases(List<ReservationJournalEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        Map<String, ReservationJournalEntry> byReleaseId = new LinkedHashMap<>();
+        entries.forEach(entry -> byReleaseId.put(entry.releaseId(), entry));
+        List<StockReleaseRequest> requests = entries.stream()
+                .map(entry -> StockReleaseRequest.builder()
+                        .releaseId(entry.releaseId())
+                        .productId(entry.getProductId())
+                        .kind(entry.getKind())
+                        .quantity(entry.getQuantity())
+                        .build())
+                .toList();
+
+        try {
+            List<String> acknowledged = client.releaseReservations(requests);
+            List<Long> done = acknowledged == null ? List.of() : acknowledged.stream()
+                    .map(byReleaseId::get)
+                    .filter(Objects::nonNull)
+                    .map(ReservationJournalEntry::getId)
+                    .toList();
+            if (!done.isEmpty()) {
+                repository.deleteAllByIdInBatch(done);
+            }
+            log.info("Released {} of {} reservations to the catalog", done.size(), entries.size());
+        } catch (RuntimeException e) {
+            log.warn("Releasing {} reservations failed, the reconciler will retry: {}", entries.size(), e.getMessage());
+        }
+    }
+
+    private static List<String> nonNull(Collection<String> attemptIds) {
+        return attemptIds.stream().filter(Objects::nonNull).distinct().toList();
+    }
+}
@@ -0,0 +1,162 @@
+package com.ecommerce.order_processing_system.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the side effects of processing an order (e-mails, payment and delivery hooks) off the processing
+ * transaction. Validators {@link #record} them; {@link OrderProcessingService} captures what an evaluation
+ * recorded and hands it to {@link #executeAfterCommit} only if the order is kept, so a failed or rolled back
+ * order triggers nothing. After commit the actions run on a bounded pool with retries, timed per action as
+ * {@code order.side_effects.duration}. Actions live in memory only: ones still queued when the process stops
+ * are lost, which these best-effort notifications tolerate.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SideEffectDispatcher {
+
+    public record SideEffect(String action, Runnable effect) {
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.order.side-effects.threads:4}")
+    private int threads;
+
+    @Value("${app.order.side-effects.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${app.order.side-effects.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.order.side-effects.initial-backoff-ms:200}")
+    private long initialBackoffMs;
+
+    @Value("${app.order.side-effects.max-backoff-ms:5000}")
+    private long maxBackoffMs;
+
+    private final ThreadLocal<List<SideEffect>> captured = new ThreadLocal<>();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        // A full queue runs the action on the committing thread rather than dropping it
+        executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                task -> new Thread(task, "order-side-effect-" + threadIndex.getAndIncrement()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        meterRegistry.gauge("order.side_effects.queued", executor, e -> e.getQueue().size());
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Side effects did not drain in time, dropping={}", executor.shutdownNow().size());
+        }
+    }
+
+    /**
+     * Records an action of the work running inside {@link #capture} on this thread; outside a capture it runs
+     * after the current transaction commits, or right away when there is none.
+     */
+    public void record(String action, Runnable effect) {
+        recordAll(List.of(new SideEffect(action, effect)));
+    }
+
+    public void recordAll(List<SideEffect> effects) {
+        List<SideEffect> current = captured.get();
+        if (current != null) {
+            current.addAll(effects);
+        } else {
+            executeAfterCommit(effects);
+        }
+    }
+
+    /**
+     * Runs {@code work} and returns the actions it recorded instead of scheduling them.
+     */
+    public List<SideEffect> capture(Runnable work) {
+        List<SideEffect> previous = captured.get();
+        List<SideEffect> effects = new ArrayList<>();
+        captured.set(effects);
+        try {
+            work.run();
+            return effects;
+        } finally {
+            if (previous == null) {
+                captured.remove();
+            } else {
+                captured.set(previous);
+            }
+        }
+    }
+
+    public void executeAfterCommit(List<SideEffect> effects) {
+        if (effects == null || effects.isEmpty()) {
+            return;
+        }
+        List<SideEffect> pending = List.copyOf(effects);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.forEach(SideEffectDispatcher.this::submit);
+                }
+            });
+        } else {
+            pending.forEach(this::submit);
+        }
+    }
+
+    private void submit(SideEffect effect) {
+        executor.execute(() -> execute(effect));
+    }
+
+    void execute(SideEffect effect) {
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                effect.effect().run();
+                timer(effect, "success").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return;
+            } catch (RuntimeException e) {
+                timer(effect, "error").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("order.side_effects.exhausted", "action", effect.action()).increment();
+                    log.error("Side effect action={} failed after {} attempts", effect.action(), attempt, e);
+                    return;
+                }
+                long backoff = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+                log.warn("Side effect action={} failed, attempt={}, retrying in {}ms: {}",
+                        effect.action(), attempt, backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private Timer timer(SideEffect effect, String outcome) {
+        return meterRegistry.timer("order.side_effects.duration", "action", effect.action(), "outcome", outcome);
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.order_processing_system.util;
+
+import feign.FeignException;
+import feign.RetryableException;
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.dao.TransientDataAccessException;
+
+/**
+ * Failures that may succeed if the same order is processed again later: catalog outages, throttling and
+ * transient database conflicts. Everything else is a property of the order itself.
+ */
+public final class TransientFailures {
+
+    private TransientFailures() {
+
+    }
+
+    public static boolean isTransient(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof RetryableException
+                    || t instanceof FeignException.FeignServerException
+                    || t instanceof FeignException.TooManyRequests
+                    || t instanceof TransientDataAccessException
+                    || t instanceof OptimisticLockException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
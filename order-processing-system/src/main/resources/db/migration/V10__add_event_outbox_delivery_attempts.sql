@@ -0,0 +1,19 @@
+-- OutboxRelay claims rows for a lease instead of holding their row locks while it waits for the broker,
+-- and counts failed sends. Rows whose sends keep failing are moved to event_outbox_dead_letter so they
+-- stop blocking the rows behind them.
+ALTER TABLE event_outbox ADD COLUMN attempts INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE event_outbox ADD COLUMN claimed_until TIMESTAMP(6);
+
+-- Finds an earlier row of the same key still claimed by another relay instance
+CREATE INDEX idx_event_outbox_message_key_id ON event_outbox (message_key, id) WHERE source_event_id IS NULL;
+
+CREATE TABLE event_outbox_dead_letter (
+    id               BIGINT         PRIMARY KEY,
+    topic            VARCHAR(255)   NOT NULL,
+    message_key      VARCHAR(255),
+    event_type       VARCHAR(255)   NOT NULL,
+    payload          JSONB          NOT NULL,
+    attempts         INTEGER        NOT NULL,
+    created_at       TIMESTAMP(6)   NOT NULL,
+    dead_lettered_at TIMESTAMP(6)   NOT NULL DEFAULT now()
+);
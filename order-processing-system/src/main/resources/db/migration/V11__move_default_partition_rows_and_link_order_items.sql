@@ -0,0 +1,52 @@
+-- A month's partition could not be created while the DEFAULT partition held rows of that month, which is
+-- exactly the case when maintenance fell behind. Such rows are now moved: the month's table is created
+-- standalone, filled from DEFAULT, and attached once DEFAULT no longer holds rows in its range.
+CREATE OR REPLACE FUNCTION ensure_monthly_partition(parent_table TEXT, month_start DATE)
+RETURNS TEXT AS $$
+DECLARE
+    lower_bound       DATE := date_trunc('month', month_start)::DATE;
+    upper_bound       DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::DATE;
+    partition_name    TEXT := format('%s_p%s', parent_table, to_char(lower_bound, 'YYYY_MM'));
+    default_partition REGCLASS;
+    stranded          BOOLEAN := false;
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+
+    SELECT NULLIF(partdefid, 0)::REGCLASS INTO default_partition
+    FROM pg_partitioned_table
+    WHERE partrelid = parent_table::REGCLASS;
+
+    IF default_partition IS NOT NULL THEN
+        -- Writers routed to DEFAULT wait until the month's rows are moved
+        EXECUTE format('LOCK TABLE %s IN SHARE ROW EXCLUSIVE MODE', default_partition);
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %s WHERE created_at >= %L AND created_at < %L)',
+                       default_partition, lower_bound, upper_bound)
+        INTO stranded;
+    END IF;
+
+    IF stranded THEN
+        EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS)', partition_name, parent_table);
+        EXECUTE format('INSERT INTO %I SELECT * FROM %s WHERE created_at >= %L AND created_at < %L',
+                       partition_name, default_partition, lower_bound, upper_bound);
+        EXECUTE format('DELETE FROM %s WHERE created_at >= %L AND created_at < %L',
+                       default_partition, lower_bound, upper_bound);
+        EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                       parent_table, partition_name, lower_bound, upper_bound);
+    ELSE
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, parent_table, lower_bound, upper_bound);
+    END IF;
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- V1 gave up the order_items -> orders foreign key. Items carry their order's created_at, so they reference
+-- the (order_id, created_at) primary key. It is checked at commit, because moving a month out of DEFAULT
+-- deletes orders before their new partition is attached. order_id alone stays unique only because it is a
+-- generated UUID: Postgres cannot enforce a unique constraint that omits the partition key.
+ALTER TABLE order_items
+    ADD CONSTRAINT fk_order_items_order FOREIGN KEY (order_id, created_at)
+        REFERENCES orders (order_id, created_at)
+        DEFERRABLE INITIALLY DEFERRED;
@@ -0,0 +1,100 @@
+-- orders and order_items are range-partitioned by created_at, one partition per month.
+-- Postgres requires the partition key in every unique constraint, so created_at is part of both primary keys.
+
+-- Databases created before Flyway was introduced already have plain tables built by Hibernate.
+DO $$
+BEGIN
+    IF to_regclass('orders') IS NOT NULL THEN
+        ALTER TABLE orders RENAME TO orders_legacy;
+    END IF;
+    IF to_regclass('order_items') IS NOT NULL THEN
+        ALTER TABLE order_items RENAME TO order_items_legacy;
+    END IF;
+END $$;
+
+CREATE TABLE orders (
+    order_id       VARCHAR(255)   NOT NULL,
+    customer_id    VARCHAR(255),
+    total_amount   NUMERIC(38, 2),
+    status         VARCHAR(50),
+    failure_reason TEXT,
+    created_at     TIMESTAMP(6)   NOT NULL DEFAULT now(),
+    updated_at     TIMESTAMP(6),
+    CONSTRAINT pk_orders PRIMARY KEY (order_id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_orders_customer_created_at ON orders (customer_id, created_at);
+CREATE INDEX idx_orders_status_created_at ON orders (status, created_at);
+
+CREATE TABLE order_items (
+    item_id      VARCHAR(255)   NOT NULL,
+    order_id     VARCHAR(255),
+    product_id   VARCHAR(255),
+    product_name VARCHAR(255),
+    product_type VARCHAR(50),
+    quantity     INTEGER,
+    price        NUMERIC(38, 2),
+    subtotal     NUMERIC(38, 2),
+    metadata     JSONB,
+    created_at   TIMESTAMP(6)   NOT NULL DEFAULT now(),
+    CONSTRAINT pk_order_items PRIMARY KEY (item_id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_order_items_order_id ON order_items (order_id);
+
+-- Catches rows outside every monthly range so inserts never fail if maintenance falls behind.
+CREATE TABLE orders_default PARTITION OF orders DEFAULT;
+CREATE TABLE order_items_default PARTITION OF order_items DEFAULT;
+
+-- Shared with OrderPartitionMaintenanceService, which calls it on a schedule for upcoming months.
+CREATE OR REPLACE FUNCTION ensure_monthly_partition(parent_table TEXT, month_start DATE)
+RETURNS TEXT AS $$
+DECLARE
+    lower_bound    DATE := date_trunc('month', month_start)::DATE;
+    upper_bound    DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::DATE;
+    partition_name TEXT := format('%s_p%s', parent_table, to_char(lower_bound, 'YYYY_MM'));
+BEGIN
+    IF to_regclass(partition_name) IS NULL THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, parent_table, lower_bound, upper_bound);
+    END IF;
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    current_month DATE := date_trunc('month', now())::DATE;
+    month_cursor  DATE := current_month;
+BEGIN
+    IF to_regclass('orders_legacy') IS NOT NULL THEN
+        SELECT LEAST(current_month, COALESCE(date_trunc('month', min(created_at))::DATE, current_month))
+        INTO month_cursor
+        FROM orders_legacy;
+    END IF;
+
+    WHILE month_cursor <= (current_month + INTERVAL '3 months')::DATE LOOP
+        PERFORM ensure_monthly_partition('orders', month_cursor);
+        PERFORM ensure_monthly_partition('order_items', month_cursor);
+        month_cursor := (month_cursor + INTERVAL '1 month')::DATE;
+    END LOOP;
+
+    IF to_regclass('orders_legacy') IS NOT NULL THEN
+        INSERT INTO orders (order_id, customer_id, total_amount, status, failure_reason, created_at, updated_at)
+        SELECT order_id, customer_id, total_amount, status, failure_reason, COALESCE(created_at, now()), updated_at
+        FROM orders_legacy;
+
+        IF to_regclass('order_items_legacy') IS NOT NULL THEN
+            INSERT INTO order_items (item_id, order_id, product_id, product_name, product_type,
+                                     quantity, price, subtotal, metadata, created_at)
+            SELECT i.item_id, i.order_id, i.product_id, i.product_name, i.product_type,
+                   i.quantity, i.price, i.subtotal, i.metadata, o.created_at
+            FROM order_items_legacy i
+            JOIN orders o ON o.order_id = i.order_id;
+
+            DROP TABLE order_items_legacy;
+        END IF;
+
+        DROP TABLE orders_legacy;
+    END IF;
+END $$;
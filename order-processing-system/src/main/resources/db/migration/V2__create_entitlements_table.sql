@@ -0,0 +1,26 @@
+-- One row per (customer, product) the customer currently holds, so ownership and
+-- subscription checks are point lookups instead of scans over the order history.
+CREATE TABLE entitlements (
+    customer_id  VARCHAR(255) NOT NULL,
+    product_id   VARCHAR(255) NOT NULL,
+    product_type VARCHAR(50)  NOT NULL,
+    status       VARCHAR(20)  NOT NULL,
+    order_id     VARCHAR(255),
+    created_at   TIMESTAMP(6) NOT NULL DEFAULT now(),
+    updated_at   TIMESTAMP(6),
+    CONSTRAINT pk_entitlements PRIMARY KEY (customer_id, product_id)
+);
+
+CREATE INDEX idx_entitlements_customer_type_status ON entitlements (customer_id, product_type, status);
+
+-- Backfill from orders that were already processed before this table existed.
+INSERT INTO entitlements (customer_id, product_id, product_type, status, order_id, created_at, updated_at)
+SELECT DISTINCT ON (o.customer_id, i.product_id)
+       o.customer_id, i.product_id, i.product_type, 'ACTIVE', o.order_id, o.created_at, o.updated_at
+FROM orders o
+JOIN order_items i ON i.order_id = o.order_id
+WHERE o.status = 'PROCESSED'
+  AND o.customer_id IS NOT NULL
+  AND i.product_id IS NOT NULL
+  AND i.product_type IN ('DIGITAL', 'SUBSCRIPTION')
+ORDER BY o.customer_id, i.product_id, o.created_at DESC;
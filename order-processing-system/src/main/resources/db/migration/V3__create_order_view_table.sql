@@ -0,0 +1,36 @@
+-- Denormalized read model for the order query endpoints, one row per order with its items embedded.
+-- Kept current by OrderViewProjectionListener from the order-events-* topics.
+CREATE TABLE order_view (
+    order_id       VARCHAR(255) NOT NULL,
+    customer_id    VARCHAR(255),
+    items          JSONB,
+    total_amount   NUMERIC(38, 2),
+    status         VARCHAR(50),
+    failure_reason TEXT,
+    created_at     TIMESTAMP(6),
+    updated_at     TIMESTAMP(6),
+    CONSTRAINT pk_order_view PRIMARY KEY (order_id)
+);
+
+CREATE INDEX idx_order_view_customer_created_at ON order_view (customer_id, created_at);
+
+INSERT INTO order_view (order_id, customer_id, items, total_amount, status, failure_reason, created_at, updated_at)
+SELECT o.order_id,
+       o.customer_id,
+       COALESCE((SELECT jsonb_agg(jsonb_strip_nulls(jsonb_build_object(
+                        'itemId', i.item_id,
+                        'productId', i.product_id,
+                        'productName', i.product_name,
+                        'productType', i.product_type,
+                        'quantity', i.quantity,
+                        'price', i.price,
+                        'subtotal', i.subtotal,
+                        'metadata', i.metadata)))
+                 FROM order_items i
+                 WHERE i.order_id = o.order_id), '[]'::JSONB),
+       o.total_amount,
+       o.status,
+       o.failure_reason,
+       o.created_at,
+       o.updated_at
+FROM orders o;
@@ -0,0 +1,10 @@
+-- Events are written here in the same transaction as the state change that produced them
+-- and relayed to Kafka by OutboxRelay in id order.
+CREATE TABLE event_outbox (
+    id          BIGSERIAL      PRIMARY KEY,
+    topic       VARCHAR(255)   NOT NULL,
+    message_key VARCHAR(255),
+    event_type  VARCHAR(255)   NOT NULL,
+    payload     JSONB          NOT NULL,
+    created_at  TIMESTAMP(6)   NOT NULL DEFAULT now()
+);
@@ -0,0 +1,8 @@
+-- Ids of consumed events, claimed in the same transaction as the order update they caused.
+-- Rows older than app.order.idempotency.retention-days are purged by ProcessedEventService.
+CREATE TABLE processed_events (
+    event_id     VARCHAR(64)    PRIMARY KEY,
+    processed_at TIMESTAMP(6)   NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_processed_events_processed_at ON processed_events (processed_at);
@@ -0,0 +1,11 @@
+-- Idempotency-Key of POST /api/orders. The row is inserted in the same transaction as the order,
+-- so a concurrent request with the same key blocks on the insert until the first one finishes.
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(255)   PRIMARY KEY,
+    request_hash    VARCHAR(64)    NOT NULL,
+    response        JSONB,
+    created_at      TIMESTAMP(6)   NOT NULL DEFAULT now(),
+    expires_at      TIMESTAMP(6)   NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,16 @@
+-- Catalog reservations made while validating an order, written before each catalog call so a crash
+-- cannot lose one. Rows are deleted when the order keeps its reservations or when the catalog
+-- acknowledges their release.
+CREATE TABLE reservation_journal (
+    id          BIGSERIAL      PRIMARY KEY,
+    attempt_id  VARCHAR(36)    NOT NULL,
+    order_id    VARCHAR(255)   NOT NULL,
+    product_id  VARCHAR(255)   NOT NULL,
+    kind        VARCHAR(20)    NOT NULL,
+    quantity    INTEGER        NOT NULL,
+    status      VARCHAR(20)    NOT NULL,
+    created_at  TIMESTAMP(6)   NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_reservation_journal_attempt ON reservation_journal (attempt_id);
+CREATE INDEX idx_reservation_journal_status_created_at ON reservation_journal (status, created_at);
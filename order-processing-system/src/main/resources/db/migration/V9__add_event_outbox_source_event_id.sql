@@ -0,0 +1,6 @@
+-- Outputs of an event consumed in transactional processing mode, held under the consumed event's id.
+-- OutboxRelay leaves them alone: HeldOutputEmitter sends them in the Kafka transaction that commits the
+-- consumer offset, sends them again if that transaction is redone, and deletes them once it commits.
+ALTER TABLE event_outbox ADD COLUMN source_event_id VARCHAR(64);
+
+CREATE INDEX idx_event_outbox_source_event_id ON event_outbox (source_event_id) WHERE source_event_id IS NOT NULL;
@@ -3,13 +3,12 @@ package com.ecommerce.order_processing_system.domain.service;
 import com.ecommerce.order_processing_system.domain.Order;
 import com.ecommerce.order_processing_system.domain.OrderItem;
 import com.ecommerce.order_processing_system.domain.policy.DigitalPolicy;
-import com.ecommerce.order_processing_system.dto.OrderItemResponse;
-import com.ecommerce.order_processing_system.dto.OrderResponse;
 import com.ecommerce.order_processing_system.dto.ProductDTO;
 import com.ecommerce.order_processing_system.exception.AlreadyOwnedDigitalProductException;
 import com.ecommerce.order_processing_system.exception.LicenseUnavailableException;
-import com.ecommerce.order_processing_system.service.OrderService;
+import com.ecommerce.order_processing_system.service.EntitlementService;
 import com.ecommerce.order_processing_system.service.ProductService;
+import com.ecommerce.order_processing_system.service.SideEffectDispatcher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,7 +19,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import static com.ecommerce.order_processing_system.domain.OrderStatus.PROCESSED;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -28,7 +26,7 @@ import static org.mockito.Mockito.*;
 class DigitalProductValidatorTest {
 
     @Mock
-    private OrderService orderService;
+    private EntitlementService entitlementService;
 
     @Mock
     private ProductService productService;
@@ -36,6 +34,9 @@ class DigitalProductValidatorTest {
     @Mock
     private DigitalPolicy digitalPolicy;
 
+    @Mock
+    private SideEffectDispatcher sideEffects;
+
     private DigitalProductValidator validator;
 
     private Order order;
@@ -44,7 +45,12 @@ class DigitalProductValidatorTest {
 
     @BeforeEach
     void setUp() {
-        validator = new DigitalProductValidator(orderService, productService, digitalPolicy);
+        validator = new DigitalProductValidator(entitlementService, productService, digitalPolicy, sideEffects);
+        // Side effects run inline here; deferring them is covered by SideEffectDispatcherTest
+        lenient().doAnswer(inv -> {
+            ((Runnable) inv.getArgument(1)).run();
+            return null;
+        }).when(sideEffects).record(anyString(), any());
 
         item = OrderItem.builder()
                 .productId("DIGI-1")
@@ -68,17 +74,8 @@ class DigitalProductValidatorTest {
 
     @Test
     void shouldThrowExceptionWhenCustomerAlreadyOwnsDigitalProduct() {
-        OrderItemResponse itemResponse = OrderItemResponse.builder()
-                .productId("DIGI-1")
-                .build();
-
-        OrderResponse previousOrder = OrderResponse.builder()
-                .status(PROCESSED)
-                .items(List.of(itemResponse))
-                .build();
-
-        when(orderService.getOrdersByCustomer("CUSTOMER-1"))
-                .thenReturn(List.of(previousOrder));
+        when(entitlementService.ownsProduct("CUSTOMER-1", "DIGI-1"))
+                .thenReturn(true);
 
         when(productService.getProductOrThrow("DIGI-1"))
                 .thenReturn(product);
@@ -95,8 +92,8 @@ class DigitalProductValidatorTest {
     void shouldThrowExceptionWhenLicensesNotPresent() {
         product.getMetadata().remove("licensesAvailable");
 
-        when(orderService.getOrdersByCustomer("CUSTOMER-1"))
-                .thenReturn(List.of());
+        when(entitlementService.ownsProduct("CUSTOMER-1", "DIGI-1"))
+                .thenReturn(false);
 
         when(productService.getProductOrThrow("DIGI-1"))
                 .thenReturn(product);
@@ -111,8 +108,8 @@ class DigitalProductValidatorTest {
     void shouldThrowExceptionWhenLicensesIsInvalidFormat() {
         product.getMetadata().put("licensesAvailable", "abc");
 
-        when(orderService.getOrdersByCustomer("CUSTOMER-1"))
-                .thenReturn(List.of());
+        when(entitlementService.ownsProduct("CUSTOMER-1", "DIGI-1"))
+                .thenReturn(false);
 
         when(productService.getProductOrThrow("DIGI-1"))
                 .thenReturn(product);
@@ -127,8 +124,8 @@ class DigitalProductValidatorTest {
     void shouldThrowExceptionWhenNoLicensesAvailable() {
         product.getMetadata().put("licensesAvailable", 0);
 
-        when(orderService.getOrdersByCustomer("CUSTOMER-1"))
-                .thenReturn(List.of());
+        when(entitlementService.ownsProduct("CUSTOMER-1", "DIGI-1"))
+                .thenReturn(false);
 
         when(productService.getProductOrThrow("DIGI-1"))
                 .thenReturn(product);
@@ -141,8 +138,8 @@ class DigitalProductValidatorTest {
 
     @Test
     void shouldSendEmailWithLicenseKeyWhenValid() {
-        when(orderService.getOrdersByCustomer("CUSTOMER-1"))
-                .thenReturn(List.of());
+        when(entitlementService.ownsProduct("CUSTOMER-1", "DIGI-1"))
+                .thenReturn(false);
 
         when(productService.getProductOrThrow("DIGI-1"))
                 .thenReturn(product);
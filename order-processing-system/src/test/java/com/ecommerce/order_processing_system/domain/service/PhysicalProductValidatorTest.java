@@ -8,6 +8,7 @@ import com.ecommerce.order_processing_system.exception.OutOfStockException;
 import com.ecommerce.order_processing_system.kafka.producer.KafkaEventPublisher;
 import com.ecommerce.order_processing_system.kafka.events.LowStockAlertEvent;
 import com.ecommerce.order_processing_system.service.ProductService;
+import com.ecommerce.order_processing_system.service.SideEffectDispatcher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -33,6 +34,9 @@ class PhysicalProductValidatorTest {
     @Mock
     private PhysicalPolicy physicalPolicy;
 
+    @Mock
+    private SideEffectDispatcher sideEffects;
+
     private PhysicalProductValidator validator;
 
     private Order order;
@@ -44,8 +48,14 @@ class PhysicalProductValidatorTest {
         validator = new PhysicalProductValidator(
                 productService,
                 eventPublisher,
-                physicalPolicy
+                physicalPolicy,
+                sideEffects
         );
+        // Side effects run inline here; deferring them is covered by SideEffectDispatcherTest
+        lenient().doAnswer(inv -> {
+            ((Runnable) inv.getArgument(1)).run();
+            return null;
+        }).when(sideEffects).record(anyString(), any());
 
         // simula @Value
         ReflectionTestUtils.setField(validator, "stockZero", 0);
@@ -101,7 +111,7 @@ class PhysicalProductValidatorTest {
         when(productService.getProductOrThrow("PROD-1"))
                 .thenReturn(product);
 
-        when(productService.updateStock("PROD-1", 8))
+        when(productService.reserveStock("PROD-1", 8, 2))
                 .thenReturn(false);
 
         assertThrows(
@@ -117,7 +127,7 @@ class PhysicalProductValidatorTest {
         when(productService.getProductOrThrow("PROD-1"))
                 .thenReturn(product);
 
-        when(productService.updateStock("PROD-1", 2))
+        when(productService.reserveStock("PROD-1", 2, 2))
                 .thenReturn(true);
 
         validator.validate(order, item);
@@ -130,7 +140,7 @@ class PhysicalProductValidatorTest {
         when(productService.getProductOrThrow("PROD-1"))
                 .thenReturn(product);
 
-        when(productService.updateStock("PROD-1", 8))
+        when(productService.reserveStock("PROD-1", 8, 2))
                 .thenReturn(true);
 
         when(physicalPolicy.calculateDeliveryDate(order))
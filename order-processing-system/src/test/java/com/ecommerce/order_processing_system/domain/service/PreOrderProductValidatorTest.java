@@ -6,6 +6,7 @@ import com.ecommerce.order_processing_system.domain.policy.PreOrderPolicy;
 import com.ecommerce.order_processing_system.exception.PreOrderSoldOutException;
 import com.ecommerce.order_processing_system.exception.ReleaseDatePassedException;
 import com.ecommerce.order_processing_system.service.ProductService;
+import com.ecommerce.order_processing_system.service.SideEffectDispatcher;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -32,6 +33,9 @@ class PreOrderProductValidatorTest {
     @Mock
     private PreOrderPolicy preOrderPolicy;
 
+    @Mock
+    private SideEffectDispatcher sideEffects;
+
     private PreOrderProductValidator validator;
 
     private Order order;
@@ -39,7 +43,12 @@ class PreOrderProductValidatorTest {
 
     @BeforeEach
     void setUp() {
-        validator = new PreOrderProductValidator(productService, preOrderPolicy);
+        validator = new PreOrderProductValidator(productService, preOrderPolicy, sideEffects);
+        // Side effects run inline here; deferring them is covered by SideEffectDispatcherTest
+        lenient().doAnswer(inv -> {
+            ((Runnable) inv.getArgument(1)).run();
+            return null;
+        }).when(sideEffects).record(anyString(), any());
 
         item = OrderItem.builder()
                 .productId("PRE-1")
@@ -2,16 +2,13 @@ package com.ecommerce.order_processing_system.domain.service;
 
 import com.ecommerce.order_processing_system.domain.Order;
 import com.ecommerce.order_processing_system.domain.OrderItem;
-import com.ecommerce.order_processing_system.domain.ProductType;
 import com.ecommerce.order_processing_system.domain.policy.SubscriptionPolicy;
-import com.ecommerce.order_processing_system.dto.OrderItemResponse;
-import com.ecommerce.order_processing_system.dto.OrderResponse;
 import com.ecommerce.order_processing_system.dto.ProductDTO;
 import com.ecommerce.order_processing_system.exception.DuplicateActiveSubscriptionException;
 import com.ecommerce.order_processing_system.exception.SubscriptionLimitExceededException;
 import com.ecommerce.order_processing_system.kafka.producer.KafkaEventPublisher;
 import com.ecommerce.order_processing_system.kafka.events.OrderSchedulingPaymentEvent;
-import com.ecommerce.order_processing_system.service.OrderService;
+import com.ecommerce.order_processing_system.service.EntitlementService;
 import com.ecommerce.order_processing_system.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,9 +19,10 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Set;
 
-import static com.ecommerce.order_processing_system.domain.OrderStatus.PROCESSED;
 import static com.ecommerce.order_processing_system.domain.ProductType.SUBSCRIPTION;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -33,7 +31,7 @@ import static org.mockito.Mockito.*;
 class SubscriptionProductValidatorTest {
 
     @Mock
-    private OrderService orderService;
+    private EntitlementService entitlementService;
 
     @Mock
     private KafkaEventPublisher eventPublisher;
@@ -53,7 +51,7 @@ class SubscriptionProductValidatorTest {
     @BeforeEach
     void setUp() {
         validator = new SubscriptionProductValidator(
-                orderService,
+                entitlementService,
                 eventPublisher,
                 productService,
                 subscriptionPolicy
@@ -82,16 +80,8 @@ class SubscriptionProductValidatorTest {
 
     @Test
     void shouldThrowExceptionWhenSubscriptionLimitExceeded() {
-        OrderItemResponse previousItem = OrderItemResponse.builder()
-                .productType(ProductType.SUBSCRIPTION)
-                .build();
-
-        OrderResponse previousOrder = OrderResponse.builder()
-                .items(List.of(previousItem, previousItem))
-                .build();
-
-        when(orderService.getOrdersByCustomer("CUSTOMER-1"))
-                .thenReturn(List.of(previousOrder));
+        when(entitlementService.countActive("CUSTOMER-1", SUBSCRIPTION))
+                .thenReturn(2L);
 
         when(productService.getProductOrThrow("SUB-1"))
                 .thenReturn(product);
@@ -105,19 +95,29 @@ class SubscriptionProductValidatorTest {
     }
 
     @Test
-    void shouldThrowExceptionWhenDuplicateActiveSubscriptionExists() {
-        OrderItemResponse previousItem = OrderItemResponse.builder()
-                .productId("SUB-1")
-                .productType(ProductType.SUBSCRIPTION)
-                .build();
+    void shouldNotCountFailedRevokedOrRepeatedSubscriptionsTowardsTheLimit() {
+        // Histórico: SUB-2 em dois pedidos FAILED, SUB-3 comprada duas vezes e depois revogada.
+        // A regra antiga contava os 4 itens (>= limite 2); só contam entitlements ACTIVE, nenhum aqui.
+        when(entitlementService.countActive("CUSTOMER-1", SUBSCRIPTION))
+                .thenReturn(0L);
+        when(entitlementService.activeProductIds("CUSTOMER-1", SUBSCRIPTION))
+                .thenReturn(Set.of());
+        when(productService.getProductOrThrow("SUB-1"))
+                .thenReturn(product);
 
-        OrderResponse previousOrder = OrderResponse.builder()
-                .status(PROCESSED)
-                .items(List.of(previousItem))
-                .build();
+        assertDoesNotThrow(() -> validator.validate(order, item));
 
-        when(orderService.getOrdersByCustomer("CUSTOMER-1"))
-                .thenReturn(List.of(previousOrder));
+        verify(eventPublisher)
+                .publishSchedulingPayment(any(OrderSchedulingPaymentEvent.class));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenDuplicateActiveSubscriptionExists() {
+        when(entitlementService.countActive("CUSTOMER-1", SUBSCRIPTION))
+                .thenReturn(1L);
+
+        when(entitlementService.ownsProduct("CUSTOMER-1", "SUB-1"))
+                .thenReturn(true);
 
         when(productService.getProductOrThrow("SUB-1"))
                 .thenReturn(product);
@@ -130,13 +130,8 @@ class SubscriptionProductValidatorTest {
 
     @Test
     void shouldPropagateExceptionWhenSubscriptionsAreIncompatible() {
-        OrderResponse previousOrder = OrderResponse.builder()
-                .status(PROCESSED)
-                .items(List.of())
-                .build();
-
-        when(orderService.getOrdersByCustomer("CUSTOMER-1"))
-                .thenReturn(List.of(previousOrder));
+        when(entitlementService.activeProductIds("CUSTOMER-1", SUBSCRIPTION))
+                .thenReturn(Set.of());
 
         when(productService.getProductOrThrow("SUB-1"))
                 .thenReturn(product);
@@ -153,13 +148,8 @@ class SubscriptionProductValidatorTest {
 
     @Test
     void shouldPublishSchedulingPaymentEventWhenValid() {
-        OrderResponse previousOrder = OrderResponse.builder()
-                .status(PROCESSED)
-                .items(List.of())
-                .build();
-
-        when(orderService.getOrdersByCustomer("CUSTOMER-1"))
-                .thenReturn(List.of(previousOrder));
+        when(entitlementService.activeProductIds("CUSTOMER-1", SUBSCRIPTION))
+                .thenReturn(Set.of());
 
         when(productService.getProductOrThrow("SUB-1"))
                 .thenReturn(product);
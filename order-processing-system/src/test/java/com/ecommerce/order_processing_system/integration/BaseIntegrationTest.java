@@ -42,5 +42,6 @@ public class BaseIntegrationTest {
         registry.add("app.order.topic.failed", () -> "order-events-failed");
         registry.add("app.order.fraud-check-threshold", () -> "1000.00");  // Desabilita fraud
         registry.add("app.order.low-stock-alert-threshold", () -> "1");    // Desabilita low stock
+        registry.add("app.metrics.streams.enabled", () -> "false");
     }
 }
@@ -0,0 +1,88 @@
+package com.ecommerce.order_processing_system.kafka.listener;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.DescribeTopicsResult;
+import org.apache.kafka.clients.admin.ListConsumerGroupOffsetsResult;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConsumerLagReaderTest {
+
+    private static final String TOPIC = "order-events-created";
+    private static final TopicPartition P0 = new TopicPartition(TOPIC, 0);
+    private static final TopicPartition P1 = new TopicPartition(TOPIC, 1);
+
+    @Mock
+    private KafkaAdmin kafkaAdmin;
+
+    @Mock
+    private AdminClient adminClient;
+
+    @Mock
+    private ListConsumerGroupOffsetsResult groupOffsets;
+
+    @Mock
+    private DescribeTopicsResult topics;
+
+    private ConsumerLagReader reader;
+
+    @BeforeEach
+    void setUp() {
+        reader = new ConsumerLagReader(kafkaAdmin);
+        ReflectionTestUtils.setField(reader, "timeoutMs", 1000L);
+        ReflectionTestUtils.setField(reader, "adminClient", adminClient);
+
+        when(adminClient.listConsumerGroupOffsets("order-processing-group")).thenReturn(groupOffsets);
+        when(adminClient.describeTopics(List.of(TOPIC))).thenReturn(topics);
+        when(topics.allTopicNames()).thenReturn(KafkaFuture.completedFuture(Map.of(TOPIC, new TopicDescription(TOPIC, false,
+                List.of(new TopicPartitionInfo(0, null, List.of(), List.of()), new TopicPartitionInfo(1, null, List.of(), List.of()))))));
+        when(adminClient.listOffsets(anyMap())).thenAnswer(inv -> {
+            Map<TopicPartition, OffsetSpec> specs = inv.getArgument(0);
+            return new ListOffsetsResult(specs.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> {
+                long offset = entry.getValue() instanceof OffsetSpec.EarliestSpec ? 40L : 100L;
+                return KafkaFuture.completedFuture(new ListOffsetsResult.ListOffsetsResultInfo(offset, -1L, Optional.empty()));
+            })));
+        });
+    }
+
+    @Test
+    void shouldCountRetainedRecordsOfPartitionsWithoutCommittedOffset() throws Exception {
+        when(groupOffsets.partitionsToOffsetAndMetadata()).thenReturn(KafkaFuture.completedFuture(Map.of(
+                P0, new OffsetAndMetadata(90L),
+                new TopicPartition("other-topic", 0), new OffsetAndMetadata(0L))));
+
+        Map<TopicPartition, Long> lag = reader.lagByPartition("order-processing-group", TOPIC);
+
+        assertEquals(Map.of(P0, 10L, P1, 60L), lag);
+        assertEquals(70L, reader.lag("order-processing-group", TOPIC));
+    }
+
+    @Test
+    void shouldReportWholeTopicForGroupThatNeverCommitted() throws Exception {
+        when(groupOffsets.partitionsToOffsetAndMetadata()).thenReturn(KafkaFuture.completedFuture(Map.of()));
+
+        assertEquals(Map.of(P0, 60L, P1, 60L), reader.lagByPartition("order-processing-group", TOPIC));
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.order_processing_system.kafka.listener;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyOrderedDispatcherTest {
+
+    private final KeyOrderedDispatcher dispatcher = new KeyOrderedDispatcher(4, 10);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void shouldRunTasksForSameKeyInSubmissionOrder() throws InterruptedException {
+        List<Integer> seen = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(50);
+
+        for (int i = 0; i < 50; i++) {
+            int n = i;
+            dispatcher.dispatch("ORDER-1", () -> {
+                seen.add(n);
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(IntStream.range(0, 50).boxed().toList(), seen);
+    }
+
+    @Test
+    void shouldNotBlockOtherKeysBehindSlowKey() throws InterruptedException {
+        String slowKey = "ORDER-1";
+        String fastKey = IntStream.range(2, 100).mapToObj(i -> "ORDER-" + i)
+                .filter(k -> dispatcher.laneFor(k) != dispatcher.laneFor(slowKey))
+                .findFirst()
+                .orElseThrow();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch fastDone = new CountDownLatch(1);
+
+        dispatcher.dispatch(slowKey, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        dispatcher.dispatch(fastKey, fastDone::countDown);
+
+        assertTrue(fastDone.await(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+}
@@ -0,0 +1,184 @@
+package com.ecommerce.order_processing_system.kafka.listener;
+
+import com.ecommerce.order_processing_system.exception.FraudDetectedException;
+import com.ecommerce.order_processing_system.kafka.events.OrderCreatedEvent;
+import com.ecommerce.order_processing_system.kafka.producer.HeldOutputEmitter;
+import com.ecommerce.order_processing_system.service.OrderBatchProcessingService;
+import com.ecommerce.order_processing_system.service.OrderBatchProcessingService.BatchResult;
+import com.ecommerce.order_processing_system.service.OrderProcessingRetryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.ecommerce.order_processing_system.domain.OrderStatus.FRAUD_DETECTED;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderEventListenerTest {
+
+    @Mock
+    private OrderProcessingRetryService processingService;
+
+    @Mock
+    private OrderBatchProcessingService batchProcessingService;
+
+    @Mock
+    private KeyOrderedDispatcher dispatcher;
+
+    @Mock
+    private HeldOutputEmitter heldOutputs;
+
+    @Mock
+    private MeterRegistry meterRegistry;
+
+    @Mock
+    private DeadLetterPublishingRecoverer deadLetters;
+
+    @Mock
+    private Acknowledgment ack;
+
+    @InjectMocks
+    private OrderEventListener listener;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(listener, "parallelTransientAttempts", 2);
+        ReflectionTestUtils.setField(listener, "parallelTransientBackoffMs", 1L);
+        lenient().doAnswer(inv -> {
+            ((Runnable) inv.getArgument(1)).run();
+            return null;
+        }).when(dispatcher).dispatch(anyString(), any());
+    }
+
+    @Test
+    void shouldMarkTransientFailureForRetryTopics() {
+        QueryTimeoutException failure = new QueryTimeoutException("statement timeout");
+        doThrow(failure).when(processingService).process(eq("O1"), any(), any());
+
+        TransientProcessingException thrown = assertThrows(TransientProcessingException.class,
+                () -> listener.onOrderCreated(event("O1")));
+
+        assertSame(failure, thrown.getCause());
+        assertEquals("statement timeout", thrown.getMessage());
+    }
+
+    @Test
+    void shouldPassPermanentFailureThroughToDeadLetterTopic() {
+        FraudDetectedException failure = new FraudDetectedException(FRAUD_DETECTED);
+        doThrow(failure).when(processingService).process(eq("O1"), any(), any());
+
+        assertSame(failure, assertThrows(FraudDetectedException.class, () -> listener.onPriorityOrderCreated(event("O1"))));
+    }
+
+    @Test
+    void shouldAcknowledgeParallelRecordOnlyAfterProcessing() {
+        listener.onOrderCreatedParallel(record("O1"), ack);
+
+        verify(processingService).process(eq("O1"), isNull(), eq("EVT-O1"));
+        verify(ack).acknowledge();
+        verifyNoInteractions(deadLetters);
+    }
+
+    @Test
+    void shouldRetryTransientFailureThenDeadLetterBeforeAcknowledging() {
+        ConsumerRecord<String, OrderCreatedEvent> record = record("O1");
+        QueryTimeoutException failure = new QueryTimeoutException("statement timeout");
+        doThrow(failure).when(processingService).process(eq("O1"), any(), any());
+
+        listener.onOrderCreatedParallel(record, ack);
+
+        verify(processingService, times(2)).process(eq("O1"), any(), any());
+        var inOrder = inOrder(deadLetters, ack);
+        inOrder.verify(deadLetters).accept(record, failure);
+        inOrder.verify(ack).acknowledge();
+    }
+
+    @Test
+    void shouldDeadLetterPermanentFailureWithoutRetrying() {
+        ConsumerRecord<String, OrderCreatedEvent> record = record("O1");
+        doThrow(new FraudDetectedException(FRAUD_DETECTED)).when(processingService).process(eq("O1"), any(), any());
+
+        listener.onOrderCreatedParallel(record, ack);
+
+        verify(processingService, times(1)).process(eq("O1"), any(), any());
+        verify(deadLetters).accept(eq(record), any(FraudDetectedException.class));
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    void shouldLeaveRecordUnacknowledgedWhenDeadLetteringFails() {
+        ConsumerRecord<String, OrderCreatedEvent> record = record("O1");
+        doThrow(new FraudDetectedException(FRAUD_DETECTED)).when(processingService).process(eq("O1"), any(), any());
+        doThrow(new IllegalStateException("broker down")).when(deadLetters).accept(eq(record), any(Exception.class));
+
+        listener.onOrderCreatedParallel(record, ack);
+
+        verify(ack, never()).acknowledge();
+    }
+
+    @Test
+    void shouldReportEarliestFailedRecordOfBatch() {
+        QueryTimeoutException failure = new QueryTimeoutException("statement timeout");
+        Map<String, RuntimeException> errors = new LinkedHashMap<>();
+        errors.put("O3", new FraudDetectedException(FRAUD_DETECTED));
+        errors.put("O2", failure);
+        when(batchProcessingService.processBatch(any())).thenReturn(new BatchResult(3, 1, errors));
+
+        BatchListenerFailedException thrown = assertThrows(BatchListenerFailedException.class,
+                () -> listener.onOrderCreatedBatch(List.of(event("O1"), event("O2"), event("O3"))));
+
+        assertEquals(1, thrown.getIndex());
+        assertSame(failure, thrown.getCause());
+    }
+
+    @Test
+    void shouldCompleteBatchWithoutErrors() {
+        when(batchProcessingService.processBatch(any())).thenReturn(new BatchResult(1, 1, Map.of()));
+
+        assertDoesNotThrow(() -> listener.onOrderCreatedBatch(List.of(event("O1"))));
+    }
+
+    @Test
+    void shouldDeadLetterRecordOfOrderLeftPendingInTransactionalBatch() {
+        FraudDetectedException failure = new FraudDetectedException(FRAUD_DETECTED);
+        ConsumerRecord<String, OrderCreatedEvent> clean = record("O1");
+        ConsumerRecord<String, OrderCreatedEvent> fraud = record("O2");
+        when(batchProcessingService.processAtomically(any())).thenReturn(new BatchResult(2, 1, Map.of("O2", failure)));
+
+        assertDoesNotThrow(() -> listener.onOrderCreatedTransactional(List.of(clean, fraud)));
+
+        verify(deadLetters).accept(fraud, failure);
+        verify(deadLetters, never()).accept(eq(clean), any());
+        verify(heldOutputs).emit(argThat(ids -> List.copyOf(ids).equals(List.of("EVT-O1", "EVT-O2"))));
+    }
+
+    private ConsumerRecord<String, OrderCreatedEvent> record(String orderId) {
+        return new ConsumerRecord<>("order-events-created", 0, 0L, orderId, event(orderId));
+    }
+
+    private OrderCreatedEvent event(String orderId) {
+        OrderCreatedEvent event = new OrderCreatedEvent();
+        event.setEventId("EVT-" + orderId);
+        event.setEventType("CREATED");
+        OrderCreatedEvent.Payload payload = new OrderCreatedEvent.Payload();
+        payload.setOrderId(orderId);
+        event.setPayload(payload);
+        return event;
+    }
+}
@@ -0,0 +1,109 @@
+package com.ecommerce.order_processing_system.kafka.producer;
+
+import com.ecommerce.order_processing_system.domain.OutboxEvent;
+import com.ecommerce.order_processing_system.kafka.events.OrderFailedEvent;
+import com.ecommerce.order_processing_system.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HeldOutputEmitterTest {
+
+    @Mock
+    private OutboxEventRepository outboxRepository;
+
+    @Mock
+    private KafkaTemplate<String, Object> transactionalKafkaTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private HeldOutputEmitter emitter;
+
+    @BeforeEach
+    void setUp() {
+        emitter = new HeldOutputEmitter(outboxRepository, transactionalKafkaTemplate, objectMapper);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void shouldSendHeldOutputsInOrderAndDeleteThemOnlyAfterCommit() throws Exception {
+        when(transactionalKafkaTemplate.inTransaction()).thenReturn(true);
+        when(outboxRepository.findBySourceEventIdInOrderByIdAsc(List.of("EVT-1", "EVT-2")))
+                .thenReturn(List.of(held(1L, "O1", "EVT-1"), held(2L, "O2", "EVT-2")));
+
+        int sent = emitter.emit(Arrays.asList("EVT-1", null, "EVT-2", "EVT-1"));
+
+        assertEquals(2, sent);
+        InOrder inOrder = inOrder(transactionalKafkaTemplate);
+        inOrder.verify(transactionalKafkaTemplate).send(eq("order-events-failed"), eq("O1"), any(OrderFailedEvent.class));
+        inOrder.verify(transactionalKafkaTemplate).send(eq("order-events-failed"), eq("O2"), any(OrderFailedEvent.class));
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    void shouldKeepHeldOutputsWhenTransactionAborts() throws Exception {
+        when(transactionalKafkaTemplate.inTransaction()).thenReturn(true);
+        when(outboxRepository.findBySourceEventIdInOrderByIdAsc(List.of("EVT-1")))
+                .thenReturn(List.of(held(1L, "O1", "EVT-1")));
+
+        emitter.emit(List.of("EVT-1"));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Left for the redelivered batch to send again
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void shouldRefuseToSendOutsideKafkaTransaction() {
+        when(transactionalKafkaTemplate.inTransaction()).thenReturn(false);
+
+        assertThrows(IllegalStateException.class, () -> emitter.emit(List.of("EVT-1")));
+
+        verifyNoInteractions(outboxRepository);
+    }
+
+    @Test
+    void shouldDoNothingWithoutEventIds() {
+        assertEquals(0, emitter.emit(Arrays.asList(null, null)));
+
+        verifyNoInteractions(outboxRepository, transactionalKafkaTemplate);
+    }
+
+    private OutboxEvent held(Long id, String orderId, String sourceEventId) throws Exception {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic("order-events-failed")
+                .messageKey(orderId)
+                .eventType(OrderFailedEvent.class.getName())
+                .payload(objectMapper.writeValueAsString(OrderFailedEvent.of(orderId, "OUT_OF_STOCK")))
+                .sourceEventId(sourceEventId)
+                .build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.ecommerce.order_processing_system.kafka.producer;
+
+import com.ecommerce.order_processing_system.domain.OutboxEvent;
+import com.ecommerce.order_processing_system.kafka.events.OrderFailedEvent;
+import com.ecommerce.order_processing_system.kafka.events.OrderFraudEvent;
+import com.ecommerce.order_processing_system.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaEventPublisherTest {
+
+    @Mock
+    private OutboxEventRepository outboxRepository;
+
+    @Mock
+    private OrderLaneRouter laneRouter;
+
+    private KafkaEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        publisher = new KafkaEventPublisher(outboxRepository, new ObjectMapper(), laneRouter);
+        ReflectionTestUtils.setField(publisher, "topicFailed", "order-events-failed");
+        ReflectionTestUtils.setField(publisher, "topicFraudAlert", "order-events-fraud-alert");
+    }
+
+    @Test
+    void shouldHoldEventsUnderSourceEventId() {
+        publisher.holdFor("EVT-1", () -> publisher.publishFailed(OrderFailedEvent.of("O1", "OUT_OF_STOCK")));
+        publisher.publishFailed(OrderFailedEvent.of("O2", "OUT_OF_STOCK"));
+
+        ArgumentCaptor<OutboxEvent> saved = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepository, times(2)).save(saved.capture());
+        assertEquals("EVT-1", saved.getAllValues().get(0).getSourceEventId());
+        assertNull(saved.getAllValues().get(1).getSourceEventId());
+    }
+
+    @Test
+    void shouldHandCapturedEventsToEnclosingCaptureAndStampThemWhenWritten() {
+        List<OutboxEvent> outer = publisher.capture(() -> {
+            List<OutboxEvent> inner = publisher.capture(() -> publisher.publishFailed(OrderFailedEvent.of("O1", "OUT_OF_STOCK")));
+            publisher.enqueueAll(inner);
+        });
+        verifyNoInteractions(outboxRepository);
+        assertEquals(1, outer.size());
+
+        publisher.holdFor("EVT-1", () -> publisher.enqueueAll(outer));
+
+        verify(outboxRepository).saveAll(outer);
+        assertEquals("EVT-1", outer.get(0).getSourceEventId());
+    }
+
+    @Test
+    void shouldWriteFraudAlertEvenWhileCapturingOrHolding() {
+        List<OutboxEvent> captured = publisher.capture(() -> publisher.holdFor("EVT-1",
+                () -> publisher.publishFraudAlert(OrderFraudEvent.of("O1", null))));
+
+        assertTrue(captured.isEmpty());
+        ArgumentCaptor<OutboxEvent> saved = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepository).save(saved.capture());
+        assertEquals("order-events-fraud-alert", saved.getValue().getTopic());
+        assertNull(saved.getValue().getSourceEventId());
+    }
+}
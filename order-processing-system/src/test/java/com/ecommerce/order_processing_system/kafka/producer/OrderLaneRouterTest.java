@@ -0,0 +1,60 @@
+package com.ecommerce.order_processing_system.kafka.producer;
+
+import com.ecommerce.order_processing_system.domain.OrderLane;
+import com.ecommerce.order_processing_system.domain.ProductType;
+import com.ecommerce.order_processing_system.dto.OrderItemResponse;
+import com.ecommerce.order_processing_system.kafka.events.OrderCreatedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OrderLaneRouterTest {
+
+    private OrderLaneRouter router;
+
+    @BeforeEach
+    void setUp() {
+        router = new OrderLaneRouter();
+        ReflectionTestUtils.setField(router, "enabled", true);
+        ReflectionTestUtils.setField(router, "corporateApprovalThreshold", new BigDecimal("50000"));
+        ReflectionTestUtils.setField(router, "fraudCheckThreshold", new BigDecimal("20000"));
+        ReflectionTestUtils.setField(router, "topicCreated", "order-events-created");
+        ReflectionTestUtils.setField(router, "topicCreatedPriority", "order-events-created-priority");
+        ReflectionTestUtils.setField(router, "topicCreatedHighValue", "order-events-created-high-value");
+    }
+
+    @Test
+    void shouldRouteCorporateOrdersToPriorityLaneWhateverTheirAmount() {
+        assertEquals(OrderLane.PRIORITY, router.laneFor(payload(ProductType.CORPORATE, "100")));
+    }
+
+    @Test
+    void shouldRouteByAmountAgainstApprovalAndFraudThresholds() {
+        assertEquals(OrderLane.PRIORITY, router.laneFor(payload(ProductType.PHYSICAL, "60000")));
+        assertEquals(OrderLane.HIGH_VALUE, router.laneFor(payload(ProductType.PHYSICAL, "25000")));
+        assertEquals(OrderLane.STANDARD, router.laneFor(payload(ProductType.DIGITAL, "9.90")));
+    }
+
+    @Test
+    void shouldKeepEveryOrderOnStandardTopicWhenLanesAreDisabled() {
+        ReflectionTestUtils.setField(router, "enabled", false);
+
+        OrderLane lane = router.laneFor(payload(ProductType.CORPORATE, "60000"));
+
+        assertEquals(OrderLane.STANDARD, lane);
+        assertEquals("order-events-created", router.topicFor(lane));
+    }
+
+    private OrderCreatedEvent.Payload payload(ProductType type, String total) {
+        return OrderCreatedEvent.Payload.builder()
+                .orderId("ORDER-1")
+                .items(List.of(OrderItemResponse.builder().productId("PROD-1").productType(type).build()))
+                .totalAmount(new BigDecimal(total))
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.ecommerce.order_processing_system.kafka.producer;
+
+import com.ecommerce.order_processing_system.domain.OutboxEvent;
+import com.ecommerce.order_processing_system.kafka.events.OrderFailedEvent;
+import com.ecommerce.order_processing_system.repository.OutboxEventRepository;
+import com.ecommerce.order_processing_system.service.OrderPipelineMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxRepository;
+
+    @Mock
+    private TrackedEventSender sender;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private OrderPipelineMetrics pipelineMetrics;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(outboxRepository, sender, objectMapper, transactionTemplate, pipelineMetrics);
+        ReflectionTestUtils.setField(relay, "batchSize", 10);
+        ReflectionTestUtils.setField(relay, "sendTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(relay, "claimLeaseMs", 60000L);
+        ReflectionTestUtils.setField(relay, "maxAttempts", 3);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void shouldSendBatchAndDeleteOnlyAcknowledgedRows() throws Exception {
+        OutboxEvent first = outboxEvent(1L, "O1");
+        OutboxEvent second = outboxEvent(2L, "O2");
+        when(outboxRepository.lockNextBatch(10)).thenReturn(List.of(first, second));
+        when(sender.send(eq("order-events-failed"), eq("O1"), any(OrderFailedEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(sender.send(eq("order-events-failed"), eq("O2"), any(OrderFailedEvent.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        int sent = relay.relayBatch();
+
+        assertEquals(1, sent);
+        verify(outboxRepository).claim(List.of(1L, 2L), 60000L);
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(outboxRepository).recordFailedAttempt(List.of(2L));
+        verify(outboxRepository).deadLetterExhausted(List.of(2L), 3);
+    }
+
+    @Test
+    void shouldKeepLaterRowsOfKeyAfterItsFirstUnacknowledgedRow() throws Exception {
+        OutboxEvent first = outboxEvent(1L, "O1");
+        OutboxEvent second = outboxEvent(2L, "O1");
+        OutboxEvent other = outboxEvent(3L, "O2");
+        when(outboxRepository.lockNextBatch(10)).thenReturn(List.of(first, second, other));
+        when(sender.send(eq("order-events-failed"), eq("O1"), any(OrderFailedEvent.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(sender.send(eq("order-events-failed"), eq("O2"), any(OrderFailedEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(1, relay.relayBatch());
+
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(3L));
+        verify(outboxRepository).recordFailedAttempt(List.of(1L));
+        // Sent again after row 1, without counting as a failed attempt
+        verify(outboxRepository).releaseClaims(List.of(2L));
+    }
+
+    @Test
+    void shouldDoNothingWhenOutboxIsEmpty() {
+        when(outboxRepository.lockNextBatch(10)).thenReturn(List.of());
+
+        assertEquals(0, relay.relayBatch());
+
+        verifyNoInteractions(sender);
+        verify(outboxRepository, never()).claim(any(), anyLong());
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    private OutboxEvent outboxEvent(Long id, String orderId) throws Exception {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic("order-events-failed")
+                .messageKey(orderId)
+                .eventType(OrderFailedEvent.class.getName())
+                .payload(objectMapper.writeValueAsString(OrderFailedEvent.of(orderId, "OUT_OF_STOCK")))
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.ecommerce.order_processing_system.kafka.producer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrackedEventSenderTest {
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TrackedEventSender sender;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sender = new TrackedEventSender(kafkaTemplate, meterRegistry, 1, 10);
+    }
+
+    @Test
+    void shouldRecordLatencyPerTopicOnSuccess() {
+        when(kafkaTemplate.send("order-created", "ORDER-1", "payload"))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        assertFalse(sender.send("order-created", "ORDER-1", "payload").isCompletedExceptionally());
+
+        assertEquals(1, meterRegistry.get("kafka.producer.send.latency")
+                .tags("topic", "order-created", "outcome", "success").timer().count());
+    }
+
+    @Test
+    void shouldCountFailedSendsPerTopic() {
+        when(kafkaTemplate.send("order-created", "ORDER-1", "payload"))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        assertTrue(sender.send("order-created", "ORDER-1", "payload").isCompletedExceptionally());
+
+        assertEquals(1, meterRegistry.get("kafka.producer.send.errors")
+                .tags("topic", "order-created", "exception", "IllegalStateException").counter().count());
+    }
+
+    @Test
+    void shouldRejectSendWhenInFlightLimitIsReached() {
+        CompletableFuture<SendResult<String, Object>> pending = new CompletableFuture<>();
+        when(kafkaTemplate.send("order-created", "ORDER-1", "payload")).thenReturn(pending);
+
+        sender.send("order-created", "ORDER-1", "payload");
+        CompletableFuture<SendResult<String, Object>> rejected = sender.send("order-created", "ORDER-2", "payload");
+
+        assertTrue(rejected.isCompletedExceptionally());
+        verify(kafkaTemplate, never()).send("order-created", "ORDER-2", "payload");
+
+        pending.complete(mock(SendResult.class));
+        when(kafkaTemplate.send("order-created", "ORDER-3", "payload"))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        assertFalse(sender.send("order-created", "ORDER-3", "payload").isCompletedExceptionally());
+    }
+}
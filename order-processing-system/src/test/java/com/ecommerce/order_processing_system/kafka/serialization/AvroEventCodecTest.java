@@ -0,0 +1,160 @@
+package com.ecommerce.order_processing_system.kafka.serialization;
+
+import com.ecommerce.order_processing_system.domain.ProductType;
+import com.ecommerce.order_processing_system.dto.OrderItemResponse;
+import com.ecommerce.order_processing_system.kafka.events.*;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.avro.Schema;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvroEventCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final AvroEventCodec codec = new AvroEventCodec(EventSchemaRegistry.load(), objectMapper);
+
+    private static List<OrderItemResponse> items() {
+        return List.of(OrderItemResponse.builder()
+                .itemId("ITEM-1")
+                .productId("PROD-1")
+                .productName("Notebook")
+                .productType(ProductType.PHYSICAL)
+                .quantity(2)
+                .price(new BigDecimal("3500.00"))
+                .subtotal(new BigDecimal("7000.00"))
+                .metadata(Map.of("warehouse", "SP", "gift", true))
+                .build());
+    }
+
+    @Test
+    void shouldRoundTripEveryRegisteredEvent() {
+        List<Object> events = List.of(
+                OrderCreatedEvent.of("ORDER-1", "CUST-1", items(), new BigDecimal("7000.00")),
+                OrderProcessedEvent.of("ORDER-1", new BigDecimal("7000.00")),
+                OrderFailedEvent.of("ORDER-1", "OUT_OF_STOCK"),
+                OrderPendingApprovalEvent.of("ORDER-1", "HIGH_VALUE"),
+                OrderFraudEvent.of("ORDER-1", "FRAUD_CHECK"),
+                OrderSchedulingPaymentEvent.of("ORDER-1", "CUST-1", items(), new BigDecimal("7000.00")),
+                LowStockAlertEvent.create("ORDER-1", "PROD-1", 3));
+
+        for (Object event : events) {
+            Object decoded = codec.decode(codec.encode(event));
+
+            assertEquals(event.getClass(), decoded.getClass());
+            assertEquals(objectMapper.valueToTree(event), objectMapper.valueToTree(decoded), event.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    void shouldEncodeSubstantiallySmallerThanJson() throws Exception {
+        OrderCreatedEvent event = OrderCreatedEvent.of("ORDER-1", "CUST-1", items(), new BigDecimal("7000.00"));
+
+        int avro = codec.encode(event).length;
+        int json = objectMapper.writeValueAsBytes(event).length;
+
+        assertTrue(avro * 2 < json, "avro=" + avro + " json=" + json);
+    }
+
+    @Test
+    void shouldKeepOptionalFieldsNull() {
+        OrderProcessedEvent event = OrderProcessedEvent.of("ORDER-1");
+
+        OrderProcessedEvent decoded = (OrderProcessedEvent) codec.decode(codec.encode(event));
+
+        assertNull(decoded.getPayload().getTotalAmount());
+    }
+
+    @Test
+    void shouldRejectEventMissingRequiredField() {
+        OrderFailedEvent event = OrderFailedEvent.of(null, "OUT_OF_STOCK");
+
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(event));
+    }
+
+    @Test
+    void shouldDecodeMessageWrittenWithOlderSchemaVersion() {
+        EventSchemaRegistry current = EventSchemaRegistry.load();
+        EventSchemaRegistry.RegisteredSchema v1 = current.latestFor(OrderFailedEvent.class).orElseThrow();
+        Schema v2 = new Schema.Parser().parse(v1.schema().toString()
+                .replace("\"version\":1", "\"version\":2")
+                .replace("{\"name\":\"eventId\"", "{\"name\":\"source\",\"type\":\"string\",\"default\":\"order-service\"},{\"name\":\"eventId\""));
+        AvroEventCodec upgraded = new AvroEventCodec(new EventSchemaRegistry(List.of(
+                v1, new EventSchemaRegistry.RegisteredSchema(100, 2, v2, OrderFailedEvent.class))), objectMapper);
+
+        OrderFailedEvent decoded = (OrderFailedEvent) upgraded.decode(codec.encode(OrderFailedEvent.of("ORDER-1", "OUT_OF_STOCK")));
+
+        assertEquals("ORDER-1", decoded.getPayload().getOrderId());
+        assertEquals("OUT_OF_STOCK", decoded.getPayload().getReason());
+    }
+
+    @Test
+    void shouldFallBackToJsonForPlainPayloads() {
+        EventSerializer serializer = new EventSerializer(codec, true);
+        EventDeserializer deserializer = new EventDeserializer(codec);
+        deserializer.configure(Map.of("spring.json.trusted.packages", "*",
+                "spring.json.value.default.type", OrderFailedEvent.class.getName()), false);
+
+        byte[] json = new EventSerializer(codec, false).serialize("order-failed", OrderFailedEvent.of("ORDER-1", "X"));
+        byte[] avro = serializer.serialize("order-failed", OrderFailedEvent.of("ORDER-2", "Y"));
+
+        assertEquals('{', json[0]);
+        assertEquals(AvroEventCodec.MAGIC_BYTE, avro[0]);
+        assertEquals("ORDER-1", ((OrderFailedEvent) deserializer.deserialize("order-failed", json)).getPayload().getOrderId());
+        assertEquals("ORDER-2", ((OrderFailedEvent) deserializer.deserialize("order-failed", avro)).getPayload().getOrderId());
+    }
+
+    @Test
+    void shouldStampEventHeadersInBothEncodings() {
+        OrderProcessedEvent event = OrderProcessedEvent.of("ORDER-1", new BigDecimal("10.00"));
+        Headers jsonHeaders = new RecordHeaders();
+        Headers avroHeaders = new RecordHeaders();
+
+        new EventSerializer(codec, false).serialize("order-processed", jsonHeaders, event);
+        new EventSerializer(codec, true).serialize("order-processed", avroHeaders, event);
+
+        for (Headers headers : List.of(jsonHeaders, avroHeaders)) {
+            assertEquals("ORDER_PROCESSED", EventHeaders.get(headers, EventHeaders.EVENT_TYPE));
+            assertEquals(event.getEventId(), EventHeaders.get(headers, EventHeaders.EVENT_ID));
+            assertNotNull(EventHeaders.get(headers, EventHeaders.SCHEMA_VERSION));
+        }
+    }
+
+    @Test
+    void shouldSkipRecordsOfUnconsumedTypesWithoutParsing() {
+        EventDeserializer deserializer = new EventDeserializer(codec,
+                Map.of("order-processed", Set.of(OrderProcessedEvent.EVENT_TYPE)));
+        Headers headers = new RecordHeaders();
+        headers.add(EventHeaders.EVENT_TYPE, "ORDER_REFUNDED".getBytes());
+
+        // Not a valid payload in either encoding: parsing it would throw
+        Object skipped = deserializer.deserialize("order-processed", headers, new byte[]{'n', 'o', 't'});
+
+        assertInstanceOf(SkippedEvent.class, skipped);
+        assertEquals("ORDER_REFUNDED", ((SkippedEvent) skipped).getEventType());
+    }
+
+    @Test
+    void shouldParseRecordsOfConsumedTypesAndRecordsWithoutHeader() {
+        EventDeserializer deserializer = new EventDeserializer(codec,
+                Map.of("order-failed", Set.of(OrderFailedEvent.EVENT_TYPE)));
+        EventSerializer serializer = new EventSerializer(codec, true);
+        Headers headers = new RecordHeaders();
+        byte[] stamped = serializer.serialize("order-failed", headers, OrderFailedEvent.of("ORDER-1", "X"));
+        byte[] unstamped = serializer.serialize("order-failed", OrderFailedEvent.of("ORDER-2", "Y"));
+
+        assertEquals("ORDER-1", ((OrderFailedEvent) deserializer.deserialize("order-failed", headers, stamped))
+                .getPayload().getOrderId());
+        assertEquals("ORDER-2", ((OrderFailedEvent) deserializer.deserialize("order-failed", new RecordHeaders(), unstamped))
+                .getPayload().getOrderId());
+    }
+}
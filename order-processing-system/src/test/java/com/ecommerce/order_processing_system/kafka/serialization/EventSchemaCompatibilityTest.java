@@ -0,0 +1,45 @@
+package com.ecommerce.order_processing_system.kafka.serialization;
+
+import org.apache.avro.SchemaCompatibility;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Build-time gate for the schemas under resources/avro: consecutive versions of an event must be readable in both
+ * directions, since producers and consumers of the same topic are upgraded independently.
+ */
+class EventSchemaCompatibilityTest {
+
+    @Test
+    void consecutiveSchemaVersionsShouldBeFullyCompatible() {
+        Map<Class<?>, List<EventSchemaRegistry.RegisteredSchema>> versions = EventSchemaRegistry.load().all().stream()
+                .collect(Collectors.groupingBy(EventSchemaRegistry.RegisteredSchema::eventClass));
+
+        versions.forEach((eventClass, schemas) -> {
+            List<EventSchemaRegistry.RegisteredSchema> ordered = schemas.stream()
+                    .sorted(Comparator.comparingInt(EventSchemaRegistry.RegisteredSchema::version))
+                    .toList();
+            for (int i = 1; i < ordered.size(); i++) {
+                EventSchemaRegistry.RegisteredSchema older = ordered.get(i - 1);
+                EventSchemaRegistry.RegisteredSchema newer = ordered.get(i);
+                assertCompatible(newer, older);
+                assertCompatible(older, newer);
+            }
+        });
+    }
+
+    private static void assertCompatible(EventSchemaRegistry.RegisteredSchema reader,
+                                         EventSchemaRegistry.RegisteredSchema writer) {
+        SchemaCompatibility.SchemaPairCompatibility result =
+                SchemaCompatibility.checkReaderWriterCompatibility(reader.schema(), writer.schema());
+        assertEquals(SchemaCompatibility.SchemaCompatibilityType.COMPATIBLE, result.getType(),
+                reader.eventClass().getSimpleName() + " v" + reader.version() + " cannot read v" + writer.version()
+                        + ": " + result.getDescription());
+    }
+}
@@ -0,0 +1,118 @@
+package com.ecommerce.order_processing_system.kafka.streams;
+
+import com.ecommerce.order_processing_system.domain.ProductType;
+import com.ecommerce.order_processing_system.dto.OrderItemResponse;
+import com.ecommerce.order_processing_system.kafka.events.OrderCreatedEvent;
+import com.ecommerce.order_processing_system.kafka.events.OrderFailedEvent;
+import com.ecommerce.order_processing_system.kafka.events.OrderProcessedEvent;
+import com.ecommerce.order_processing_system.kafka.serialization.AvroEventCodec;
+import com.ecommerce.order_processing_system.kafka.serialization.EventSchemaRegistry;
+import com.ecommerce.order_processing_system.kafka.serialization.EventSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class OrderMetricsTopologyTest {
+
+    private static final Instant MINUTE = Instant.parse("2026-01-01T10:00:00Z");
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, Object> created;
+    private TestInputTopic<String, Object> processed;
+    private TestInputTopic<String, Object> failed;
+
+    @BeforeEach
+    void setUp() {
+        AvroEventCodec codec = new AvroEventCodec(EventSchemaRegistry.load(), new ObjectMapper());
+        OrderMetricsTopology topology = new OrderMetricsTopology(codec);
+        ReflectionTestUtils.setField(topology, "topicCreated", "order-created");
+        ReflectionTestUtils.setField(topology, "topicCreatedPriority", "order-created-priority");
+        ReflectionTestUtils.setField(topology, "topicCreatedHighValue", "order-created-high-value");
+        ReflectionTestUtils.setField(topology, "topicProcessed", "order-processed");
+        ReflectionTestUtils.setField(topology, "topicFailed", "order-failed");
+        ReflectionTestUtils.setField(topology, "topicPendingApproval", "order-pending-approval");
+        ReflectionTestUtils.setField(topology, "grace", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(topology, "retention", Duration.ofHours(24));
+        ReflectionTestUtils.setField(topology, "joinWindow", Duration.ofHours(1));
+        ReflectionTestUtils.setField(topology, "joinPartitions", 3);
+
+        StreamsBuilder builder = new StreamsBuilder();
+        topology.build(builder);
+
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "order-metrics-test");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        driver = new TopologyTestDriver(builder.build(), props);
+
+        // Binary on the way in, to cover the encoding the producer may be switched to
+        EventSerializer serializer = new EventSerializer(codec, true);
+        created = driver.createInputTopic("order-created", new StringSerializer(), serializer);
+        processed = driver.createInputTopic("order-processed", new StringSerializer(), serializer);
+        failed = driver.createInputTopic("order-failed", new StringSerializer(), serializer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    private static OrderCreatedEvent createdEvent(String orderId, OrderItemResponse... items) {
+        BigDecimal total = List.of(items).stream().map(OrderItemResponse::getSubtotal).reduce(BigDecimal.ZERO, BigDecimal::add);
+        return OrderCreatedEvent.of(orderId, "CUST-1", List.of(items), total);
+    }
+
+    private static OrderItemResponse item(ProductType type, String subtotal) {
+        return OrderItemResponse.builder().productId("PROD-" + type).productType(type)
+                .quantity(1).price(new BigDecimal(subtotal)).subtotal(new BigDecimal(subtotal)).build();
+    }
+
+    @Test
+    void shouldCountOrdersPerStatusPerMinute() {
+        created.pipeInput("ORDER-1", createdEvent("ORDER-1", item(ProductType.PHYSICAL, "10.00")), MINUTE);
+        created.pipeInput("ORDER-2", createdEvent("ORDER-2", item(ProductType.PHYSICAL, "10.00")), MINUTE.plusSeconds(10));
+        processed.pipeInput("ORDER-1", OrderProcessedEvent.of("ORDER-1"), MINUTE.plusSeconds(70));
+        failed.pipeInput("ORDER-2", OrderFailedEvent.of("ORDER-2", "OUT_OF_STOCK"), MINUTE.plusSeconds(80));
+
+        Map<String, Map<Instant, Long>> counts = OrderMetricsQueryService.countsByStatus(
+                driver.getWindowStore(OrderMetricsTopology.STATUS_COUNTS_STORE), MINUTE, MINUTE.plusSeconds(120));
+
+        assertEquals(Map.of(MINUTE, 2L), counts.get("CREATED"));
+        assertEquals(Map.of(MINUTE.plusSeconds(60), 1L), counts.get("PROCESSED"));
+        assertEquals(Map.of(MINUTE.plusSeconds(60), 1L), counts.get("FAILED"));
+    }
+
+    @Test
+    void shouldSumRevenueOfProcessedOrdersByProductType() {
+        created.pipeInput("ORDER-1", createdEvent("ORDER-1",
+                item(ProductType.PHYSICAL, "100.00"), item(ProductType.DIGITAL, "30.00")), MINUTE);
+        created.pipeInput("ORDER-2", createdEvent("ORDER-2", item(ProductType.PHYSICAL, "50.50")), MINUTE.plusSeconds(5));
+        created.pipeInput("ORDER-3", createdEvent("ORDER-3", item(ProductType.SUBSCRIPTION, "999.00")), MINUTE.plusSeconds(6));
+        processed.pipeInput("ORDER-1", OrderProcessedEvent.of("ORDER-1"), MINUTE.plusSeconds(20));
+        processed.pipeInput("ORDER-2", OrderProcessedEvent.of("ORDER-2"), MINUTE.plusSeconds(25));
+        failed.pipeInput("ORDER-3", OrderFailedEvent.of("ORDER-3", "OUT_OF_STOCK"), MINUTE.plusSeconds(30));
+
+        Map<String, BigDecimal> revenue = OrderMetricsQueryService.revenueTotals(
+                driver.getWindowStore(OrderMetricsTopology.REVENUE_STORE), MINUTE.minusSeconds(3600), MINUTE.plusSeconds(60));
+
+        assertEquals(0, new BigDecimal("150.50").compareTo(revenue.get("PHYSICAL")));
+        assertEquals(0, new BigDecimal("30.00").compareTo(revenue.get("DIGITAL")));
+        assertFalse(revenue.containsKey("SUBSCRIPTION"));
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.order_processing_system.repository;
+
+import com.ecommerce.order_processing_system.domain.OrderStatus;
+import com.ecommerce.order_processing_system.dto.OrderItemResponse;
+import com.ecommerce.order_processing_system.dto.OrderResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderArchiveStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private OrderArchiveStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = newStore();
+    }
+
+    @Test
+    void shouldReadBackArchivedOrderById() {
+        store.append(List.of(order("ORDER-1", "CUSTOMER-1"), order("ORDER-2", "CUSTOMER-2")));
+
+        OrderResponse archived = store.find("ORDER-2").orElseThrow();
+
+        assertEquals("CUSTOMER-2", archived.getCustomerId());
+        assertEquals(OrderStatus.PROCESSED, archived.getStatus());
+        assertEquals("PROD-1", archived.getItems().get(0).getProductId());
+        assertTrue(store.find("ORDER-404").isEmpty());
+    }
+
+    @Test
+    void shouldListArchivedOrdersByCustomerAcrossSegments() {
+        store.append(List.of(order("ORDER-1", "CUSTOMER-1")));
+        store.append(List.of(order("ORDER-2", "CUSTOMER-1"), order("ORDER-3", "CUSTOMER-2")));
+
+        List<String> ids = store.findByCustomer("CUSTOMER-1").stream().map(OrderResponse::getOrderId).sorted().toList();
+
+        assertEquals(List.of("ORDER-1", "ORDER-2"), ids);
+    }
+
+    @Test
+    void shouldReloadIndexesFromDisk() throws Exception {
+        store.append(List.of(order("ORDER-1", "CUSTOMER-1")));
+
+        OrderArchiveStore reopened = newStore();
+
+        assertEquals("ORDER-1", reopened.find("ORDER-1").orElseThrow().getOrderId());
+        assertEquals(1, reopened.findByCustomer("CUSTOMER-1").size());
+    }
+
+    @Test
+    void shouldPickUpSegmentsWrittenByAnotherInstance() throws Exception {
+        OrderArchiveStore other = newStore();
+        other.append(List.of(order("ORDER-1", "CUSTOMER-1")));
+        assertTrue(store.find("ORDER-1").isEmpty());
+
+        store.refresh();
+        store.refresh();
+
+        assertEquals("ORDER-1", store.find("ORDER-1").orElseThrow().getOrderId());
+        assertEquals(1, store.findByCustomer("CUSTOMER-1").size());
+    }
+
+    private OrderArchiveStore newStore() throws Exception {
+        OrderArchiveStore archiveStore = new OrderArchiveStore(objectMapper);
+        ReflectionTestUtils.setField(archiveStore, "directory", directory.toString());
+        archiveStore.loadIndexes();
+        return archiveStore;
+    }
+
+    private OrderResponse order(String orderId, String customerId) {
+        return OrderResponse.builder()
+                .orderId(orderId)
+                .customerId(customerId)
+                .status(OrderStatus.PROCESSED)
+                .totalAmount(new BigDecimal("10.00"))
+                .items(List.of(OrderItemResponse.builder().productId("PROD-1").quantity(1).build()))
+                .createdAt(LocalDateTime.of(2025, 1, 15, 10, 0))
+                .build();
+    }
+}
@@ -0,0 +1,128 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.dto.CreateOrderItemRequest;
+import com.ecommerce.order_processing_system.dto.CreateOrderRequest;
+import com.ecommerce.order_processing_system.exception.OrderAdmissionRejectedException;
+import com.ecommerce.order_processing_system.kafka.listener.ConsumerLagReader;
+import com.ecommerce.order_processing_system.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdmissionControlServiceTest {
+
+    @Mock
+    private ConsumerLagReader lagReader;
+
+    @Mock
+    private OutboxEventRepository outboxRepository;
+
+    private AdmissionControlService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AdmissionControlService(lagReader, outboxRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "maxConsumerLag", 1000L);
+        ReflectionTestUtils.setField(service, "maxOutboxDepth", 1000L);
+        ReflectionTestUtils.setField(service, "maxProcessingLatencyMs", 30000L);
+        ReflectionTestUtils.setField(service, "latencyHalfLifeMs", 30000L);
+        ReflectionTestUtils.setField(service, "criticalRatio", 2.0);
+        ReflectionTestUtils.setField(service, "maxConcurrency", 3);
+        ReflectionTestUtils.setField(service, "reservedConcurrency", 1);
+        ReflectionTestUtils.setField(service, "queueTimeoutMs", 1L);
+        ReflectionTestUtils.setField(service, "retryAfterSeconds", 5L);
+        ReflectionTestUtils.setField(service, "maxRetryAfterSeconds", 120L);
+        ReflectionTestUtils.setField(service, "priorityCustomers", Set.of("VIP-1"));
+        service.init();
+    }
+
+    private static CreateOrderRequest request(String customerId, Map<String, Object> metadata) {
+        return CreateOrderRequest.builder()
+                .customerId(customerId)
+                .items(List.of(CreateOrderItemRequest.builder().productId("PROD-1").quantity(1).metadata(metadata).build()))
+                .build();
+    }
+
+    @Test
+    void shouldClassifyCorporateAndPriorityCustomersIntoPriorityLane() {
+        assertEquals(AdmissionControlService.Lane.PRIORITY, service.laneFor(request("VIP-1", null)));
+        assertEquals(AdmissionControlService.Lane.PRIORITY, service.laneFor(request("CUST-1", Map.of("cnpj", "11222333000181"))));
+        assertEquals(AdmissionControlService.Lane.STANDARD, service.laneFor(request("CUST-1", null)));
+    }
+
+    @Test
+    void shouldShedStandardTrafficWithRetryAfterScaledByPressure() {
+        service.applySignals(3000, 0);
+
+        OrderAdmissionRejectedException ex = assertThrows(OrderAdmissionRejectedException.class,
+                () -> service.admit(request("CUST-1", null)));
+
+        assertEquals(15, ex.getRetryAfterSeconds());
+        assertDoesNotThrow(() -> service.admit(request("VIP-1", null)).close());
+    }
+
+    @Test
+    void shouldKeepReservedSlotsForPriorityLane() {
+        AdmissionControlService.Permit first = service.admit(request("CUST-1", null));
+        AdmissionControlService.Permit second = service.admit(request("CUST-2", null));
+
+        assertThrows(OrderAdmissionRejectedException.class, () -> service.admit(request("CUST-3", null)));
+        AdmissionControlService.Permit priority = service.admit(request("VIP-1", null));
+        assertThrows(OrderAdmissionRejectedException.class, () -> service.admit(request("VIP-1", null)));
+
+        first.close();
+        first.close();
+        assertDoesNotThrow(() -> service.admit(request("CUST-3", null)));
+        assertThrows(OrderAdmissionRejectedException.class, () -> service.admit(request("CUST-4", null)));
+        second.close();
+        priority.close();
+    }
+
+    @Test
+    void shouldLimitPriorityLaneToReservedSlotsUnderCriticalPressure() {
+        service.applySignals(0, 2500);
+
+        AdmissionControlService.Permit priority = service.admit(request("VIP-1", null));
+
+        assertThrows(OrderAdmissionRejectedException.class, () -> service.admit(request("VIP-1", null)));
+        priority.close();
+        assertEquals(2.5, service.pressure());
+    }
+
+    @Test
+    void shouldDecayProcessingLatencyWhileNoOrdersComplete() {
+        service.recordProcessingLatency(Instant.now().minusSeconds(60));
+        service.applySignals(0, 0);
+        assertTrue(service.pressure() >= 1.0);
+
+        // Two minutes without completions is four half-lives
+        long recordedAt = (long) ReflectionTestUtils.getField(service, "latencyRecordedAtNanos");
+        ReflectionTestUtils.setField(service, "latencyRecordedAtNanos", recordedAt - Duration.ofMinutes(2).toNanos());
+        service.applySignals(0, 0);
+
+        assertTrue(service.pressure() < 0.2, "pressure=" + service.pressure());
+        assertDoesNotThrow(() -> service.admit(request("CUST-1", null)).close());
+    }
+
+    @Test
+    void shouldAdmitEverythingWhenDisabled() {
+        ReflectionTestUtils.setField(service, "enabled", false);
+        service.applySignals(1_000_000, 0);
+
+        assertDoesNotThrow(() -> service.admit(request("CUST-1", null)).close());
+    }
+}
@@ -0,0 +1,76 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.domain.Order;
+import com.ecommerce.order_processing_system.domain.OrderItem;
+import com.ecommerce.order_processing_system.domain.ProductType;
+import com.ecommerce.order_processing_system.repository.EntitlementRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.ecommerce.order_processing_system.domain.EntitlementStatus.ACTIVE;
+import static com.ecommerce.order_processing_system.domain.EntitlementStatus.REVOKED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EntitlementServiceTest {
+
+    @Mock
+    private EntitlementRepository repository;
+
+    @InjectMocks
+    private EntitlementService service;
+
+    @Test
+    void shouldGrantOnlyDigitalAndSubscriptionItems() {
+        Order order = Order.builder()
+                .orderId("ORDER-1")
+                .customerId("CUSTOMER-1")
+                .items(List.of(
+                        OrderItem.builder().productId("DIGI-1").productType(ProductType.DIGITAL).build(),
+                        OrderItem.builder().productId("SUB-1").productType(ProductType.SUBSCRIPTION).build(),
+                        OrderItem.builder().productId("PHYS-1").productType(ProductType.PHYSICAL).build()
+                ))
+                .build();
+
+        service.grant(order);
+
+        verify(repository).upsertActive("CUSTOMER-1", "DIGI-1", "DIGITAL", "ORDER-1");
+        verify(repository).upsertActive("CUSTOMER-1", "SUB-1", "SUBSCRIPTION", "ORDER-1");
+        verify(repository, never()).upsertActive(any(), eq("PHYS-1"), any(), any());
+    }
+
+    @Test
+    void shouldAnswerOwnershipWithPointLookup() {
+        when(repository.existsByCustomerIdAndProductIdAndStatus("CUSTOMER-1", "DIGI-1", ACTIVE))
+                .thenReturn(true);
+
+        assertTrue(service.ownsProduct("CUSTOMER-1", "DIGI-1"));
+    }
+
+    @Test
+    void shouldCountOnlyActiveEntitlementsOfType() {
+        when(repository.countByCustomerIdAndProductTypeAndStatus("CUSTOMER-1", ProductType.SUBSCRIPTION, ACTIVE))
+                .thenReturn(1L);
+
+        assertEquals(1L, service.countActive("CUSTOMER-1", ProductType.SUBSCRIPTION));
+        verify(repository, never()).countByCustomerIdAndProductTypeAndStatus(any(), any(), eq(REVOKED));
+    }
+
+    @Test
+    void shouldReturnActiveProductIdsForType() {
+        when(repository.findProductIds("CUSTOMER-1", ProductType.SUBSCRIPTION, ACTIVE))
+                .thenReturn(List.of("SUB-BASIC-1", "SUB-ENTERPRISE-1"));
+
+        assertEquals(Set.of("SUB-BASIC-1", "SUB-ENTERPRISE-1"),
+                service.activeProductIds("CUSTOMER-1", ProductType.SUBSCRIPTION));
+    }
+}
@@ -0,0 +1,145 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.domain.IdempotencyRecord;
+import com.ecommerce.order_processing_system.dto.CreateOrderItemRequest;
+import com.ecommerce.order_processing_system.dto.CreateOrderRequest;
+import com.ecommerce.order_processing_system.dto.OrderResponse;
+import com.ecommerce.order_processing_system.exception.IdempotencyKeyConflictException;
+import com.ecommerce.order_processing_system.exception.InvalidIdempotencyKeyException;
+import com.ecommerce.order_processing_system.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.ecommerce.order_processing_system.domain.OrderStatus.PENDING;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotentOrderServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private IdempotentOrderService service;
+
+    private CreateOrderRequest request;
+
+    @BeforeEach
+    void setUp() {
+        service = new IdempotentOrderService(repository, orderService, objectMapper, transactionTemplate);
+        ReflectionTestUtils.setField(service, "ttlHours", 24L);
+        ReflectionTestUtils.setField(service, "waitTimeoutMs", 5000L);
+
+        CreateOrderItemRequest item = new CreateOrderItemRequest();
+        item.setProductId("PROD-1");
+        item.setQuantity(1);
+        request = new CreateOrderRequest();
+        request.setCustomerId("CUSTOMER-1");
+        request.setItems(List.of(item));
+    }
+
+    @Test
+    void shouldReplayStoredResponseWithoutCreatingOrder() throws Exception {
+        when(repository.findById("KEY-1")).thenReturn(Optional.of(stored(hash(request), "ORDER-1")));
+
+        IdempotentOrderService.Result result = service.createOrder("KEY-1", request);
+
+        assertTrue(result.replayed());
+        assertEquals("ORDER-1", result.response().getOrderId());
+        verifyNoInteractions(orderService, transactionTemplate);
+    }
+
+    @Test
+    void shouldRejectKeyReusedWithDifferentRequest() throws Exception {
+        when(repository.findById("KEY-1")).thenReturn(Optional.of(stored("other-hash", "ORDER-1")));
+
+        assertThrows(IdempotencyKeyConflictException.class, () -> service.createOrder("KEY-1", request));
+
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void shouldRejectOversizedKey() {
+        assertThrows(InvalidIdempotencyKeyException.class, () -> service.createOrder("K".repeat(256), request));
+    }
+
+    @Test
+    void shouldCreateOnceWhenDuplicateArrivesWhileFirstIsInFlight() throws Exception {
+        AtomicReference<IdempotencyRecord> row = new AtomicReference<>();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(repository.findById("KEY-1")).thenAnswer(inv -> Optional.ofNullable(row.get()));
+        when(repository.claim(eq("KEY-1"), anyString(), any(), any())).thenReturn(1);
+        when(repository.complete(eq("KEY-1"), anyString())).thenAnswer(inv -> {
+            row.set(IdempotencyRecord.builder()
+                    .idempotencyKey("KEY-1")
+                    .requestHash(hash(request))
+                    .response(inv.getArgument(1))
+                    .expiresAt(LocalDateTime.now().plusHours(1))
+                    .build());
+            return 1;
+        });
+        when(orderService.createOrder(request)).thenReturn(OrderResponse.builder().orderId("ORDER-1").status(PENDING).build());
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> {
+            entered.countDown();
+            release.await();
+            return ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null);
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<IdempotentOrderService.Result> first = pool.submit(() -> service.createOrder("KEY-1", request));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            Future<IdempotentOrderService.Result> duplicate = pool.submit(() -> service.createOrder("KEY-1", request));
+            Thread.sleep(200);
+            release.countDown();
+
+            assertFalse(first.get(5, TimeUnit.SECONDS).replayed());
+            IdempotentOrderService.Result replay = duplicate.get(5, TimeUnit.SECONDS);
+            assertTrue(replay.replayed());
+            assertEquals("ORDER-1", replay.response().getOrderId());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(orderService, times(1)).createOrder(request);
+    }
+
+    private IdempotencyRecord stored(String requestHash, String orderId) throws Exception {
+        return IdempotencyRecord.builder()
+                .idempotencyKey("KEY-1")
+                .requestHash(requestHash)
+                .response(objectMapper.writeValueAsString(OrderResponse.builder().orderId(orderId).status(PENDING).build()))
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+    }
+
+    private String hash(CreateOrderRequest request) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request)));
+    }
+}
@@ -0,0 +1,123 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.domain.Order;
+import com.ecommerce.order_processing_system.dto.OrderResponse;
+import com.ecommerce.order_processing_system.repository.OrderArchiveStore;
+import com.ecommerce.order_processing_system.repository.OrderRepository;
+import com.ecommerce.order_processing_system.repository.OrderViewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderArchiveServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderViewRepository orderViewRepository;
+
+    @Mock
+    private OrderArchiveStore archiveStore;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    @Mock
+    private ResultSet lockResult;
+
+    @InjectMocks
+    private OrderArchiveService service;
+
+    private final LocalDateTime cutoff = LocalDateTime.of(2026, 4, 1, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+    }
+
+    @Test
+    void shouldWriteArchiveBeforeDeletingRows() {
+        List<String> ids = List.of("ORDER-1", "ORDER-2");
+        Order order = Order.builder().orderId("ORDER-1").build();
+        OrderResponse response = OrderResponse.builder().orderId("ORDER-1").build();
+
+        when(orderRepository.findArchivableIds(eq(OrderArchiveService.ARCHIVABLE_STATUSES), eq(cutoff), any()))
+                .thenReturn(ids);
+        when(orderRepository.findWithItemsByOrderIdIn(ids)).thenReturn(List.of(order));
+        when(orderService.toResponse(order)).thenReturn(response);
+
+        int archived = service.archiveBatch(cutoff);
+
+        assertEquals(2, archived);
+        InOrder inOrder = inOrder(archiveStore, orderRepository, orderViewRepository);
+        inOrder.verify(archiveStore).append(List.of(response));
+        inOrder.verify(orderRepository).deleteItemsByOrderIds(ids, cutoff);
+        inOrder.verify(orderRepository).deleteByOrderIds(ids, cutoff);
+        inOrder.verify(orderViewRepository).deleteAllByIdInBatch(ids);
+    }
+
+    @Test
+    void shouldSkipRunWhileAnotherInstanceHoldsTheLock() throws Exception {
+        ReflectionTestUtils.setField(service, "enabled", true);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(inv -> inv.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+        when(connection.prepareStatement(contains("pg_try_advisory_lock"))).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(lockResult);
+        when(lockResult.next()).thenReturn(true);
+        when(lockResult.getBoolean(1)).thenReturn(false);
+
+        service.archiveFinishedOrders();
+
+        verifyNoInteractions(transactionTemplate, orderRepository, archiveStore);
+        verify(connection, never()).prepareStatement(contains("pg_advisory_unlock"));
+    }
+
+    @Test
+    void shouldArchiveNothingWhenDisabled() {
+        service.archiveFinishedOrders();
+
+        verifyNoInteractions(jdbcTemplate, transactionTemplate, orderRepository);
+    }
+
+    @Test
+    void shouldDoNothingWhenNoOrderIsOldEnough() {
+        when(orderRepository.findArchivableIds(any(), any(), any())).thenReturn(List.of());
+
+        assertEquals(0, service.archiveBatch(cutoff));
+
+        verifyNoInteractions(archiveStore, orderViewRepository);
+        verify(orderRepository, never()).deleteByOrderIds(any(), any());
+    }
+}
@@ -0,0 +1,323 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.domain.Order;
+import com.ecommerce.order_processing_system.domain.OrderStatus;
+import com.ecommerce.order_processing_system.domain.OutboxEvent;
+import com.ecommerce.order_processing_system.exception.FraudDetectedException;
+import com.ecommerce.order_processing_system.kafka.events.OrderFailedEvent;
+import com.ecommerce.order_processing_system.kafka.events.OrderProcessedEvent;
+import com.ecommerce.order_processing_system.kafka.producer.KafkaEventPublisher;
+import com.ecommerce.order_processing_system.repository.OrderRepository;
+import com.ecommerce.order_processing_system.service.OrderProcessingService.Outcome;
+import com.ecommerce.order_processing_system.service.OrderStatusTransitionService.TransitionResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static com.ecommerce.order_processing_system.domain.OrderStatus.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderBatchProcessingServiceTest {
+
+    @Mock
+    private OrderRepository repository;
+
+    @Mock
+    private OrderProcessingService processingService;
+
+    @Mock
+    private OrderStatusTransitionService transitionService;
+
+    @Mock
+    private EntitlementService entitlementService;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private KafkaEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ProcessedEventService processedEvents;
+
+    @Mock
+    private ReservationJournalService reservations;
+
+    @Mock
+    private SideEffectDispatcher sideEffects;
+
+    @Mock
+    private OrderPipelineMetrics pipelineMetrics;
+
+    @InjectMocks
+    private OrderBatchProcessingService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(service, "commitChunkSize", 50);
+        when(productService.withSharedLookups(any())).thenAnswer(inv -> ((Supplier<?>) inv.getArgument(0)).get());
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+    }
+
+    @Test
+    void shouldLoadBatchOnceAndIsolateFailingOrder() {
+        Order ok = order("O1", PENDING);
+        Order fraud = order("O2", PENDING);
+        Order invalid = order("O3", PENDING);
+        when(repository.findWithItemsByOrderIdIn(anyCollection())).thenReturn(List.of(ok, fraud, invalid));
+        when(processingService.evaluate(ok)).thenReturn(new Outcome(PROCESSED, null, "ATT-1"));
+        when(processingService.evaluate(fraud)).thenThrow(new FraudDetectedException(FRAUD_DETECTED));
+        when(processingService.evaluate(invalid)).thenReturn(new Outcome(FAILED, "OUT_OF_STOCK", "ATT-3"));
+        when(transitionService.transitionAll(List.of("O1"), PENDING, PROCESSED, null))
+                .thenReturn(new TransitionResult(PENDING, PROCESSED, List.of("O1"), List.of()));
+        when(transitionService.transition("O3", PENDING, FAILED, "OUT_OF_STOCK")).thenReturn(true);
+
+        OrderBatchProcessingService.BatchResult result = service.processBatch(withoutEventIds("O1", "O2", "O3"));
+
+        assertEquals(2, result.transitioned());
+        assertEquals(List.of("O2"), List.copyOf(result.errors().keySet()));
+        assertInstanceOf(FraudDetectedException.class, result.errors().get("O2"));
+        verify(repository, times(1)).findWithItemsByOrderIdIn(anyCollection());
+        verify(entitlementService).grant(ok);
+        verify(eventPublisher).publishProcessed(any(OrderProcessedEvent.class));
+        verify(eventPublisher).publishFailed(any(OrderFailedEvent.class));
+        verify(reservations).confirm(List.of("ATT-1"));
+        verify(reservations).release(List.of("ATT-3"));
+    }
+
+    @Test
+    void shouldNotPublishWhenOrderWasAlreadyMovedByAnotherProcessor() {
+        Order raced = order("O1", PENDING);
+        when(repository.findWithItemsByOrderIdIn(anyCollection())).thenReturn(List.of(raced));
+        when(processingService.evaluate(raced)).thenReturn(new Outcome(PROCESSED, null, "ATT-1"));
+        when(transitionService.transitionAll(List.of("O1"), PENDING, PROCESSED, null))
+                .thenReturn(new TransitionResult(PENDING, PROCESSED, List.of(), List.of("O1")));
+
+        OrderBatchProcessingService.BatchResult result = service.processBatch(withoutEventIds("O1"));
+
+        assertEquals(0, result.transitioned());
+        verifyNoInteractions(entitlementService, eventPublisher);
+        // This attempt's own reservations go back now instead of being confirmed on behalf of the winner
+        verify(reservations).confirm(List.of());
+        verify(reservations).release(List.of("ATT-1"));
+    }
+
+    @Test
+    void shouldReleaseReservationsOfOrderWhoseEventWasClaimedMeanwhile() {
+        Order raced = order("O1", PENDING);
+        when(repository.findWithItemsByOrderIdIn(anyCollection())).thenReturn(List.of(raced));
+        when(processingService.evaluate(raced)).thenReturn(new Outcome(PROCESSED, null, "ATT-1"));
+        when(processedEvents.claim("EVT-1")).thenReturn(false);
+
+        OrderBatchProcessingService.BatchResult result = service.processBatch(Map.of("O1", "EVT-1"));
+
+        assertEquals(0, result.transitioned());
+        verifyNoInteractions(transitionService, eventPublisher);
+        verify(reservations).release(List.of("ATT-1"));
+    }
+
+    @Test
+    void shouldSkipOrdersNoLongerPending() {
+        Order done = order("O1", PROCESSED);
+        when(repository.findWithItemsByOrderIdIn(anyCollection())).thenReturn(List.of(done));
+
+        service.processBatch(withoutEventIds("O1", "O404"));
+
+        verify(processingService, never()).evaluate(any());
+        verifyNoInteractions(transitionService, eventPublisher);
+    }
+
+    @Test
+    void shouldReportChunkCommitFailureForEachOrderOfTheChunk() {
+        Order order = order("O1", PENDING);
+        when(repository.findWithItemsByOrderIdIn(anyCollection())).thenReturn(List.of(order));
+        when(processingService.evaluate(order)).thenReturn(new Outcome(FAILED, "OUT_OF_STOCK"));
+        QueryTimeoutException failure = new QueryTimeoutException("statement timeout");
+        doThrow(failure).when(transactionTemplate).execute(any());
+
+        OrderBatchProcessingService.BatchResult result = service.processBatch(withoutEventIds("O1"));
+
+        assertSame(failure, result.errors().get("O1"));
+    }
+
+    @Test
+    void shouldWriteTotalChangedDuringEvaluation() {
+        Order corporate = order("O1", PENDING);
+        Order plain = order("O2", PENDING);
+        when(repository.findWithItemsByOrderIdIn(anyCollection())).thenReturn(List.of(corporate, plain));
+        when(processingService.evaluate(corporate)).thenAnswer(inv -> {
+            corporate.setTotalAmount(new BigDecimal("90.00"));
+            return new Outcome(PROCESSED, null, "ATT-1");
+        });
+        when(processingService.evaluate(plain)).thenReturn(new Outcome(PROCESSED, null, "ATT-2"));
+        when(transitionService.transitionAll(List.of("O1", "O2"), PENDING, PROCESSED, null))
+                .thenReturn(new TransitionResult(PENDING, PROCESSED, List.of("O1", "O2"), List.of()));
+
+        service.processBatch(withoutEventIds("O1", "O2"));
+
+        verify(repository).updateTotalAmount("O1", new BigDecimal("90.00"));
+        verify(repository, never()).updateTotalAmount(eq("O2"), any());
+        verify(eventPublisher).publishProcessed(argThat(event -> event.getPayload().getOrderId().equals("O1")
+                && new BigDecimal("90.00").equals(event.getPayload().getTotalAmount())));
+    }
+
+    @Test
+    void shouldSkipRedeliveredEventsAndClaimTheRest() {
+        Order fresh = order("O2", PENDING);
+        Map<String, String> events = new LinkedHashMap<>();
+        events.put("O1", "EVT-1");
+        events.put("O2", "EVT-2");
+        when(processedEvents.isProcessed("EVT-1")).thenReturn(true);
+        when(processedEvents.claim("EVT-2")).thenReturn(true);
+        when(repository.findWithItemsByOrderIdIn(anyCollection())).thenReturn(List.of(fresh));
+        when(processingService.evaluate(fresh)).thenReturn(new Outcome(FAILED, "OUT_OF_STOCK"));
+        when(transitionService.transition("O2", PENDING, FAILED, "OUT_OF_STOCK")).thenReturn(true);
+
+        OrderBatchProcessingService.BatchResult result = service.processBatch(events);
+
+        assertEquals(1, result.transitioned());
+        verify(repository).findWithItemsByOrderIdIn(List.of("O2"));
+        verify(processedEvents, never()).claim("EVT-1");
+    }
+
+    @Test
+    void shouldHoldEachOrdersOutputsUnderItsEventIdInOneTransaction() {
+        ReflectionTestUtils.setField(service, "commitChunkSize", 1);
+        Order first = order("O1", PENDING);
+        Order second = order("O2", PENDING);
+        Map<String, String> events = new LinkedHashMap<>();
+        events.put("O1", "EVT-1");
+        events.put("O2", "EVT-2");
+        List<OutboxEvent> lowStock = List.of(new OutboxEvent());
+        when(repository.findWithItemsByOrderIdIn(anyCollection())).thenReturn(List.of(first, second));
+        when(eventPublisher.capture(any())).thenAnswer(inv -> {
+            ((Runnable) inv.getArgument(0)).run();
+            return lowStock;
+        });
+        doAnswer(inv -> {
+            ((Runnable) inv.getArgument(1)).run();
+            return null;
+        }).when(eventPublisher).holdFor(anyString(), any());
+        when(processingService.evaluate(any())).thenReturn(new Outcome(FAILED, "OUT_OF_STOCK"));
+        when(processedEvents.claim(anyString())).thenReturn(true);
+        when(transitionService.transition(anyString(), eq(PENDING), eq(FAILED), eq("OUT_OF_STOCK"))).thenReturn(true);
+
+        OrderBatchProcessingService.BatchResult result = service.processAtomically(events);
+
+        assertEquals(2, result.transitioned());
+        // Not chunked: the whole batch commits at once
+        verify(transactionTemplate, times(1)).execute(any());
+        verify(pipelineMetrics, times(1)).timeCommit();
+        verify(eventPublisher).holdFor(eq("EVT-1"), any());
+        verify(eventPublisher).holdFor(eq("EVT-2"), any());
+        verify(eventPublisher, times(2)).enqueueAll(lowStock);
+        verify(eventPublisher, times(2)).publishFailed(any(OrderFailedEvent.class));
+    }
+
+    @Test
+    void shouldThrowWhenAtomicCommitFails() {
+        Order order = order("O1", PENDING);
+        when(repository.findWithItemsByOrderIdIn(anyCollection())).thenReturn(List.of(order));
+        when(eventPublisher.capture(any())).thenAnswer(inv -> {
+            ((Runnable) inv.getArgument(0)).run();
+            return List.of();
+        });
+        when(processingService.evaluate(order)).thenReturn(new Outcome(FAILED, "OUT_OF_STOCK"));
+        doThrow(new QueryTimeoutException("statement timeout")).when(transactionTemplate).execute(any());
+
+        // Thrown so the Kafka transaction aborts and the batch is consumed again
+        assertThrows(QueryTimeoutException.class, () -> service.processAtomically(Map.of("O1", "EVT-1")));
+    }
+
+    @Test
+    void shouldAbortAtomicBatchOnTransientFailureAndGiveBackReservations() {
+        Order first = order("O1", PENDING);
+        Order second = order("O2", PENDING);
+        Map<String, String> events = new LinkedHashMap<>();
+        events.put("O1", "EVT-1");
+        events.put("O2", "EVT-2");
+        when(repository.findWithItemsByOrderIdIn(anyCollection())).thenReturn(List.of(first, second));
+        when(eventPublisher.capture(any())).thenAnswer(inv -> {
+            ((Runnable) inv.getArgument(0)).run();
+            return List.of();
+        });
+        when(processingService.evaluate(first)).thenReturn(new Outcome(PROCESSED, null, "ATT-1"));
+        when(processingService.evaluate(second)).thenThrow(new QueryTimeoutException("statement timeout"));
+
+        // Thrown so the Kafka transaction aborts and the batch is redelivered, not committed without outputs
+        assertThrows(QueryTimeoutException.class, () -> service.processAtomically(events));
+
+        verify(reservations).abandon("ATT-1");
+        verifyNoInteractions(transactionTemplate, transitionService);
+    }
+
+    @Test
+    void shouldLeaveOrderPendingWhenEvaluationThrowsPermanentlyInAtomicBatch() {
+        Order fraud = order("O1", PENDING);
+        Order clean = order("O2", PENDING);
+        Map<String, String> events = new LinkedHashMap<>();
+        events.put("O1", "EVT-1");
+        events.put("O2", "EVT-2");
+        FraudDetectedException failure = new FraudDetectedException(FRAUD_DETECTED);
+        when(repository.findWithItemsByOrderIdIn(anyCollection())).thenReturn(List.of(fraud, clean));
+        when(eventPublisher.capture(any())).thenAnswer(inv -> {
+            ((Runnable) inv.getArgument(0)).run();
+            return List.of();
+        });
+        doAnswer(inv -> {
+            ((Runnable) inv.getArgument(1)).run();
+            return null;
+        }).when(eventPublisher).holdFor(anyString(), any());
+        when(processingService.evaluate(fraud)).thenThrow(failure);
+        when(processingService.evaluate(clean)).thenReturn(new Outcome(FAILED, "OUT_OF_STOCK"));
+        when(processedEvents.claim("EVT-2")).thenReturn(true);
+        when(transitionService.transition("O2", PENDING, FAILED, "OUT_OF_STOCK")).thenReturn(true);
+
+        OrderBatchProcessingService.BatchResult result = service.processAtomically(events);
+
+        assertEquals(1, result.transitioned());
+        assertSame(failure, result.errors().get("O1"));
+        // The fraud hit is neither claimed nor finished; the listener dead-letters its record
+        verify(processedEvents, never()).claim("EVT-1");
+        verify(transitionService, never()).transition(eq("O1"), any(), any(), any());
+        verify(eventPublisher, never()).holdFor(eq("EVT-1"), any());
+        verify(eventPublisher).holdFor(eq("EVT-2"), any());
+    }
+
+    private Map<String, String> withoutEventIds(String... orderIds) {
+        Map<String, String> events = new LinkedHashMap<>();
+        for (String orderId : orderIds) {
+            events.put(orderId, null);
+        }
+        return events;
+    }
+
+    private Order order(String orderId, OrderStatus status) {
+        return Order.builder()
+                .orderId(orderId)
+                .status(status)
+                .totalAmount(new BigDecimal("100.00"))
+                .items(List.of())
+                .build();
+    }
+}
@@ -0,0 +1,169 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.domain.Order;
+import com.ecommerce.order_processing_system.domain.OrderItem;
+import com.ecommerce.order_processing_system.domain.OutboxEvent;
+import com.ecommerce.order_processing_system.domain.ProductType;
+import com.ecommerce.order_processing_system.domain.service.ProductValidator;
+import com.ecommerce.order_processing_system.domain.service.ProductValidatorFactory;
+import com.ecommerce.order_processing_system.exception.OutOfStockException;
+import com.ecommerce.order_processing_system.kafka.producer.KafkaEventPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.ecommerce.order_processing_system.domain.OrderStatus.OUT_OF_STOCK;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderLineValidationServiceTest {
+
+    @Mock
+    private ProductValidatorFactory validatorFactory;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ReservationJournalService reservations;
+
+    @Mock
+    private KafkaEventPublisher eventPublisher;
+
+    @Mock
+    private SideEffectDispatcher sideEffects;
+
+    @Mock
+    private OrderPipelineMetrics pipelineMetrics;
+
+    @Mock
+    private ProductValidator physicalValidator;
+
+    @Mock
+    private ProductValidator corporateValidator;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(validatorFactory.getValidator(ProductType.PHYSICAL)).thenReturn(physicalValidator);
+        lenient().when(validatorFactory.getValidator(ProductType.CORPORATE)).thenReturn(corporateValidator);
+        lenient().when(physicalValidator.isLineIndependent()).thenReturn(true);
+        lenient().when(productService.withCurrentLookups(any())).thenAnswer(inv -> inv.getArgument(0));
+        lenient().when(reservations.inCurrentAttempt(any())).thenAnswer(inv -> inv.getArgument(0));
+        lenient().when(eventPublisher.capture(any())).thenAnswer(inv -> {
+            ((Runnable) inv.getArgument(0)).run();
+            return new ArrayList<OutboxEvent>(List.of(new OutboxEvent()));
+        });
+        lenient().when(sideEffects.capture(any())).thenAnswer(inv -> {
+            ((Runnable) inv.getArgument(0)).run();
+            return new ArrayList<>(List.of(new SideEffectDispatcher.SideEffect("test", () -> { })));
+        });
+    }
+
+    @Test
+    void shouldValidateSequentiallyWhenParallelValidationIsDisabled() {
+        Order order = order(item("PROD-1", ProductType.PHYSICAL), item("PROD-2", ProductType.PHYSICAL));
+
+        service(false, 4).validateAll(order);
+
+        verify(physicalValidator, times(2)).validate(eq(order), any());
+        verify(pipelineMetrics, times(2)).recordValidation(eq(ProductType.PHYSICAL), anyLong());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void shouldValidateDifferentProductsConcurrently() {
+        Order order = order(item("PROD-1", ProductType.PHYSICAL), item("PROD-2", ProductType.PHYSICAL));
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        doAnswer(inv -> {
+            bothRunning.countDown();
+            // Only returns in time if the other line is validated at the same moment
+            assertTrue(bothRunning.await(5, TimeUnit.SECONDS));
+            return null;
+        }).when(physicalValidator).validate(eq(order), any());
+
+        service(true, 4).validateAll(order);
+
+        verify(eventPublisher).enqueueAll(argThat(events -> events.size() == 2));
+        verify(sideEffects).recordAll(argThat(effects -> effects.size() == 2));
+    }
+
+    @Test
+    void shouldKeepLinesOfTheSameProductInOrder() {
+        OrderItem first = item("PROD-1", ProductType.PHYSICAL);
+        OrderItem second = item("PROD-1", ProductType.PHYSICAL);
+        OrderItem other = item("PROD-2", ProductType.PHYSICAL);
+        Order order = order(first, other, second);
+        List<OrderItem> prod1 = new CopyOnWriteArrayList<>();
+        doAnswer(inv -> {
+            OrderItem item = inv.getArgument(1);
+            if ("PROD-1".equals(item.getProductId())) {
+                prod1.add(item);
+            }
+            return null;
+        }).when(physicalValidator).validate(eq(order), any());
+
+        service(true, 4).validateAll(order);
+
+        assertEquals(List.of(first, second), prod1);
+    }
+
+    @Test
+    void shouldStopRemainingGroupsAndRethrowFirstFailure() {
+        OrderItem failing = item("PROD-1", ProductType.PHYSICAL);
+        OrderItem skipped = item("PROD-2", ProductType.PHYSICAL);
+        Order order = order(failing, skipped);
+        doThrow(new OutOfStockException(OUT_OF_STOCK)).when(physicalValidator).validate(order, failing);
+
+        // One worker: the second group only starts once the first has failed
+        assertThrows(OutOfStockException.class, () -> service(true, 1).validateAll(order));
+
+        verify(physicalValidator, never()).validate(order, skipped);
+        verify(eventPublisher).enqueueAll(any());
+    }
+
+    @Test
+    void shouldRunCrossLineRulesOnCallingThread() {
+        OrderItem corporate = item("PROD-9", ProductType.CORPORATE);
+        Order order = order(item("PROD-1", ProductType.PHYSICAL), corporate);
+        Thread caller = Thread.currentThread();
+        doAnswer(inv -> {
+            assertSame(caller, Thread.currentThread());
+            return null;
+        }).when(corporateValidator).validate(order, corporate);
+
+        service(true, 4).validateAll(order);
+
+        verify(corporateValidator).validate(order, corporate);
+        verify(physicalValidator).validate(eq(order), any());
+    }
+
+    private OrderLineValidationService service(boolean parallel, int threads) {
+        return new OrderLineValidationService(validatorFactory, productService, reservations, eventPublisher,
+                sideEffects, pipelineMetrics, parallel, threads, 16);
+    }
+
+    private OrderItem item(String productId, ProductType type) {
+        OrderItem item = new OrderItem();
+        item.setProductId(productId);
+        item.setProductType(type);
+        item.setQuantity(1);
+        return item;
+    }
+
+    private Order order(OrderItem... items) {
+        Order order = new Order();
+        order.setOrderId("ORDER-1");
+        order.setItems(List.of(items));
+        return order;
+    }
+}
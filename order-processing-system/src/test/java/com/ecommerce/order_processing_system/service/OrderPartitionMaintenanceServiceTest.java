@@ -0,0 +1,70 @@
+package com.ecommerce.order_processing_system.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderPartitionMaintenanceServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private OrderPartitionMaintenanceService service;
+
+    private final YearMonth current = YearMonth.of(2026, 10);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "monthsAhead", 2);
+        ReflectionTestUtils.setField(service, "retentionMonths", 12);
+    }
+
+    @Test
+    void shouldEnsureCurrentAndUpcomingPartitions() {
+        service.createUpcomingPartitions("orders", current);
+
+        verify(jdbcTemplate).queryForObject(anyString(), eq(String.class), eq("orders"), eq(LocalDate.of(2026, 10, 1)));
+        verify(jdbcTemplate).queryForObject(anyString(), eq(String.class), eq("orders"), eq(LocalDate.of(2026, 11, 1)));
+        verify(jdbcTemplate).queryForObject(anyString(), eq(String.class), eq("orders"), eq(LocalDate.of(2026, 12, 1)));
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void shouldDetachOnlyPartitionsOlderThanRetention() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("orders")))
+                .thenReturn(List.of("orders_p2025_09", "orders_p2025_10", "orders_p2026_10", "orders_default"));
+
+        service.detachExpiredPartitions("orders", current);
+
+        verify(jdbcTemplate).execute("ALTER TABLE orders DETACH PARTITION orders_p2025_09");
+        verify(jdbcTemplate, never()).execute("ALTER TABLE orders DETACH PARTITION orders_p2025_10");
+        verify(jdbcTemplate, never()).execute("ALTER TABLE orders DETACH PARTITION orders_default");
+    }
+
+    @Test
+    void shouldDropForeignKeyOfDetachedItemsPartitionBeforeOrdersAreDetached() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("order_items")))
+                .thenReturn(List.of("order_items_p2025_09"));
+
+        service.detachExpiredPartitions("order_items", current);
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE order_items DETACH PARTITION order_items_p2025_09");
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE order_items_p2025_09 DROP CONSTRAINT IF EXISTS fk_order_items_order");
+    }
+}
@@ -0,0 +1,82 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.domain.ProductType;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderPipelineMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderPipelineMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new OrderPipelineMetrics(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldTimeStagesWithPercentiles() {
+        metrics.record(OrderPipelineMetrics.PERSIST, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(20));
+
+        Timer persist = stage("persist");
+        assertEquals(1, persist.count());
+        assertTrue(persist.totalTime(TimeUnit.MILLISECONDS) >= 20);
+        assertEquals(3, persist.takeSnapshot().percentileValues().length);
+    }
+
+    @Test
+    void shouldRecordClockSkewAsZero() {
+        metrics.recordSince(OrderPipelineMetrics.BROKER_DWELL, Instant.now().plusSeconds(5));
+        metrics.recordSince(OrderPipelineMetrics.BROKER_DWELL, null);
+
+        Timer dwell = stage("broker_dwell");
+        assertEquals(1, dwell.count());
+        assertEquals(0, dwell.totalTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    void shouldTimeValidationPerProductType() {
+        metrics.recordValidation(ProductType.DIGITAL, System.nanoTime());
+        metrics.recordValidation(ProductType.DIGITAL, System.nanoTime());
+        metrics.recordValidation(ProductType.PHYSICAL, System.nanoTime());
+
+        assertEquals(2, meterRegistry.get("order.pipeline.validation.duration")
+                .tag("product_type", "DIGITAL").timer().count());
+        assertEquals(1, meterRegistry.get("order.pipeline.validation.duration")
+                .tag("product_type", "PHYSICAL").timer().count());
+    }
+
+    @Test
+    void shouldTimeCommitOnlyOnceCommitted() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        metrics.timeCommit();
+        assertNull(meterRegistry.find("order.pipeline.stage.duration").tag("stage", "commit").timer());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, stage("commit").count());
+    }
+
+    private Timer stage(String stage) {
+        return meterRegistry.get("order.pipeline.stage.duration").tag("stage", stage).timer();
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.domain.Order;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderProcessingRetryServiceTest {
+
+    @Mock
+    private OrderProcessingService processingService;
+
+    @Mock
+    private AdmissionControlService admissionControl;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderProcessingRetryService retryService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        retryService = new OrderProcessingRetryService(processingService, meterRegistry, admissionControl,
+                new OrderPipelineMetrics(meterRegistry));
+        ReflectionTestUtils.setField(retryService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(retryService, "initialBackoffMs", 1L);
+        ReflectionTestUtils.setField(retryService, "maxBackoffMs", 5L);
+    }
+
+    @Test
+    void shouldRetryOnConflictAndSucceed() {
+        doThrow(new ObjectOptimisticLockingFailureException(Order.class, "ORDER-1"))
+                .doNothing()
+                .when(processingService).process(eq("ORDER-1"), any(), any());
+
+        retryService.process("ORDER-1", null, "EVT-1");
+
+        verify(processingService, times(2)).process(eq("ORDER-1"), any(), any());
+        assertEquals(1.0, meterRegistry.counter("order.processing.conflicts", "outcome", "retried").count());
+    }
+
+    @Test
+    void shouldRecordBrokerDwellOfConsumedEvent() {
+        retryService.process("ORDER-1", Instant.now().minusMillis(500), "EVT-1");
+
+        Timer dwell = meterRegistry.get("order.pipeline.stage.duration").tag("stage", "broker_dwell").timer();
+        assertEquals(1, dwell.count());
+        assertTrue(dwell.totalTime(TimeUnit.MILLISECONDS) >= 500);
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxAttempts() {
+        doThrow(new ObjectOptimisticLockingFailureException(Order.class, "ORDER-1"))
+                .when(processingService).process(eq("ORDER-1"), any(), any());
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> retryService.process("ORDER-1", null, "EVT-1"));
+
+        verify(processingService, times(3)).process(eq("ORDER-1"), any(), any());
+        assertEquals(1.0, meterRegistry.counter("order.processing.conflicts", "outcome", "exhausted").count());
+    }
+
+    @Test
+    void shouldNotRetryOtherFailures() {
+        doThrow(new IllegalStateException("boom"))
+                .when(processingService).process(eq("ORDER-1"), any(), any());
+
+        assertThrows(IllegalStateException.class, () -> retryService.process("ORDER-1", null, "EVT-1"));
+
+        verify(processingService, times(1)).process(eq("ORDER-1"), any(), any());
+    }
+
+    @Test
+    void shouldKeepBackoffWithinCap() {
+        for (int attempt = 1; attempt <= 30; attempt++) {
+            long backoff = retryService.backoffFor(attempt);
+            assertTrue(backoff >= 0 && backoff <= 5);
+        }
+    }
+}
@@ -11,20 +11,28 @@ import com.ecommerce.order_processing_system.kafka.producer.KafkaEventPublisher;
 import com.ecommerce.order_processing_system.kafka.events.OrderFailedEvent;
 import com.ecommerce.order_processing_system.kafka.events.OrderProcessedEvent;
 import com.ecommerce.order_processing_system.repository.OrderRepository;
+import feign.Request;
+import feign.RetryableException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,6 +50,21 @@ class OrderProcessingServiceTest {
     @Mock
     private ProductValidator productValidator;
 
+    @Mock
+    private EntitlementService entitlementService;
+
+    @Mock
+    private ProcessedEventService processedEvents;
+
+    @Mock
+    private ReservationJournalService reservations;
+
+    @Mock
+    private SideEffectDispatcher sideEffects;
+
+    @Mock
+    private OrderPipelineMetrics pipelineMetrics;
+
     @InjectMocks
     private OrderProcessingService service;
 
@@ -57,13 +80,42 @@ class OrderProcessingServiceTest {
         order.setOrderId("ORDER-1");
         order.setItems(List.of(item));
         order.setTotalAmount(new BigDecimal("100"));
-
+        order.setStatus(OrderStatus.PENDING);
+
+        ReflectionTestUtils.setField(service, "lineValidation",
+                new OrderLineValidationService(validatorFactory, null, reservations, eventPublisher, sideEffects,
+                        pipelineMetrics, false, 1, 1));
+        lenient().when(sideEffects.capture(any())).thenAnswer(inv -> {
+            ((Runnable) inv.getArgument(0)).run();
+            return List.of(new SideEffectDispatcher.SideEffect("digital.email", () -> { }));
+        });
         ReflectionTestUtils.setField(service, "corporateApprovalThreshold", new BigDecimal("50000"));
         ReflectionTestUtils.setField(service, "fraudCheckThreshold", new BigDecimal("20000"));
     }
 
+    @Test
+    void shouldSkipRedeliveredEventWithoutLoadingOrder() {
+        when(processedEvents.isProcessed("EVT-1")).thenReturn(true);
+
+        service.process("ORDER-1", null, "EVT-1");
+
+        verifyNoInteractions(repository, validatorFactory, eventPublisher);
+    }
+
+    @Test
+    void shouldNotValidateWhenEventClaimedConcurrently() {
+        when(repository.findById("ORDER-1")).thenReturn(Optional.of(order));
+        when(processedEvents.claim("EVT-1")).thenReturn(false);
+
+        service.process("ORDER-1", null, "EVT-1");
+
+        assertEquals(OrderStatus.PENDING, order.getStatus());
+        verifyNoInteractions(validatorFactory, eventPublisher);
+    }
+
     @Test
     void shouldProcessOrderSuccessfully() {
+        when(reservations.openAttempt("ORDER-1")).thenReturn("ATT-1");
         when(repository.findById("ORDER-1")).thenReturn(Optional.of(order));
         when(validatorFactory.getValidator(ProductType.PHYSICAL)).thenReturn(productValidator);
 
@@ -71,10 +123,60 @@ class OrderProcessingServiceTest {
 
         assertEquals(OrderStatus.PROCESSED, order.getStatus());
         verify(productValidator).validate(order, item);
+        verify(entitlementService).grant(order);
+        verify(reservations).confirm("ATT-1");
+        verify(sideEffects).executeAfterCommit(argThat(effects -> effects.size() == 1));
         verify(eventPublisher).publishProcessed(any(OrderProcessedEvent.class));
         verify(eventPublisher, never()).publishFailed(any(OrderFailedEvent.class));
     }
 
+    @Test
+    void shouldLookUpOrderWithinPartitionWindowWhenPublishTimeIsKnown() {
+        ReflectionTestUtils.setField(service, "lookupWindowHours", 24L);
+        when(repository.findByIdCreatedSince(eq("ORDER-1"), any(LocalDateTime.class))).thenReturn(Optional.of(order));
+        when(validatorFactory.getValidator(ProductType.PHYSICAL)).thenReturn(productValidator);
+
+        service.process("ORDER-1", Instant.now());
+
+        assertEquals(OrderStatus.PROCESSED, order.getStatus());
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    void shouldFallBackToFullLookupWhenOrderIsOutsidePartitionWindow() {
+        ReflectionTestUtils.setField(service, "lookupWindowHours", 24L);
+        when(repository.findByIdCreatedSince(eq("ORDER-1"), any(LocalDateTime.class))).thenReturn(Optional.empty());
+        when(repository.findById("ORDER-1")).thenReturn(Optional.of(order));
+        when(validatorFactory.getValidator(ProductType.PHYSICAL)).thenReturn(productValidator);
+
+        service.process("ORDER-1", Instant.now());
+
+        assertEquals(OrderStatus.PROCESSED, order.getStatus());
+    }
+
+    @Test
+    void shouldSkipOrderThatIsNoLongerPending() {
+        order.setStatus(OrderStatus.PROCESSED);
+        when(repository.findById("ORDER-1")).thenReturn(Optional.of(order));
+
+        service.process("ORDER-1");
+
+        verifyNoInteractions(validatorFactory, eventPublisher, entitlementService);
+    }
+
+    @Test
+    void shouldPropagateOptimisticLockConflictInsteadOfFailingOrder() {
+        when(repository.findById("ORDER-1")).thenReturn(Optional.of(order));
+        when(validatorFactory.getValidator(ProductType.PHYSICAL)).thenReturn(productValidator);
+        doThrow(new ObjectOptimisticLockingFailureException(Order.class, "ORDER-1"))
+                .when(entitlementService).grant(order);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> service.process("ORDER-1"));
+
+        assertEquals(OrderStatus.PENDING, order.getStatus());
+        verify(eventPublisher, never()).publishFailed(any(OrderFailedEvent.class));
+    }
+
     @Test
     void shouldThrowExceptionWhenOrderNotFound() {
         when(repository.findById("ORDER-404")).thenReturn(Optional.empty());
@@ -89,6 +191,7 @@ class OrderProcessingServiceTest {
 
     @Test
     void shouldFailOrderWhenValidatorThrowsException() {
+        when(reservations.openAttempt("ORDER-1")).thenReturn("ATT-1");
         when(repository.findById("ORDER-1")).thenReturn(Optional.of(order));
         when(validatorFactory.getValidator(ProductType.PHYSICAL)).thenReturn(productValidator);
 
@@ -98,7 +201,30 @@ class OrderProcessingServiceTest {
         service.process("ORDER-1");
 
         assertEquals(OrderStatus.FAILED, order.getStatus());
+        verify(entitlementService, never()).grant(any());
         verify(eventPublisher).publishFailed(any(OrderFailedEvent.class));
         verify(eventPublisher, never()).publishProcessed(any(OrderProcessedEvent.class));
+        verify(reservations).release("ATT-1");
+        verify(reservations).closeAttempt();
+        verify(sideEffects, never()).executeAfterCommit(any());
+    }
+
+    @Test
+    void shouldPropagateCatalogOutageInsteadOfFailingOrder() {
+        Request request = Request.create(Request.HttpMethod.GET, "http://catalog/api/products/PROD-1",
+                Map.of(), null, StandardCharsets.UTF_8, null);
+        when(repository.findById("ORDER-1")).thenReturn(Optional.of(order));
+        when(validatorFactory.getValidator(ProductType.PHYSICAL)).thenReturn(productValidator);
+        doThrow(new RetryableException(503, "catalog unavailable", Request.HttpMethod.GET, (Long) null, request))
+                .when(productValidator).validate(order, item);
+
+        when(reservations.openAttempt("ORDER-1")).thenReturn("ATT-1");
+
+        assertThrows(RetryableException.class, () -> service.process("ORDER-1"));
+
+        assertEquals(OrderStatus.PENDING, order.getStatus());
+        verify(eventPublisher, never()).publishFailed(any(OrderFailedEvent.class));
+        // Stock reserved by earlier lines goes back now; the retry reserves it again
+        verify(reservations).abandon("ATT-1");
     }
 }
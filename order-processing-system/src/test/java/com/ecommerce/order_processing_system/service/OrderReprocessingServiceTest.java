@@ -0,0 +1,224 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.domain.Order;
+import com.ecommerce.order_processing_system.domain.OrderStatus;
+import com.ecommerce.order_processing_system.dto.ReprocessOrdersRequest;
+import com.ecommerce.order_processing_system.dto.ReprocessingJobResponse;
+import com.ecommerce.order_processing_system.exception.InvalidStatusTransitionException;
+import com.ecommerce.order_processing_system.exception.ReprocessingJobNotFoundException;
+import com.ecommerce.order_processing_system.repository.OrderRepository;
+import feign.Request;
+import feign.RetryableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.ecommerce.order_processing_system.domain.OrderStatus.*;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderReprocessingServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private OrderStatusTransitionService transitionService;
+
+    @Mock
+    private OrderProcessingService processingService;
+
+    @Mock
+    private OrderRepository repository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<String, OrderStatus> statuses = new HashMap<>();
+    private OrderReprocessingService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new OrderReprocessingService(jdbcTemplate, transitionService, processingService, repository,
+                transactionTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "pageSize", 2);
+        ReflectionTestUtils.setField(service, "defaultRatePerSecond", 1000.0);
+        ReflectionTestUtils.setField(service, "maxRatePerSecond", 1000.0);
+        ReflectionTestUtils.setField(service, "defaultConcurrency", 2);
+        ReflectionTestUtils.setField(service, "maxConcurrency", 4);
+        ReflectionTestUtils.setField(service, "maxConsecutiveTransientFailures", 2);
+        ReflectionTestUtils.setField(service, "minAgeMinutes", 5L);
+        ReflectionTestUtils.setField(service, "retainedJobs", 5);
+
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+        lenient().when(transitionService.transition(anyString(), eq(FAILED), eq(PENDING), isNull())).thenReturn(true);
+        lenient().when(repository.findById(anyString())).thenAnswer(inv -> Optional.ofNullable(statuses.get(inv.<String>getArgument(0)))
+                .map(status -> Order.builder().orderId(inv.getArgument(0)).status(status).build()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void shouldRedriveFailedOrdersPageByPage() {
+        pages(List.of(candidate("O1", 1), candidate("O2", 2)), List.of(candidate("O3", 3)));
+        statuses.put("O1", PROCESSED);
+        statuses.put("O2", PROCESSED);
+        statuses.put("O3", FAILED);
+
+        ReprocessingJobResponse job = awaitFinished(service.start(request(FAILED)));
+
+        assertEquals("COMPLETED", job.getState());
+        assertEquals(3, job.getScanned());
+        assertEquals(3, job.getAttempted());
+        assertEquals(Map.of("PROCESSED", 2L, "FAILED", 1L), job.getOutcomes());
+        verify(transitionService).transition("O1", FAILED, PENDING, null);
+        verify(processingService).process(eq("O3"), any(), isNull());
+    }
+
+    @Test
+    void shouldContinueScanAfterLastKeyOfPreviousPage() {
+        pages(List.of(candidate("O1", 1), candidate("O2", 2)), List.of());
+        statuses.put("O1", PROCESSED);
+        statuses.put("O2", PROCESSED);
+
+        awaitFinished(service.start(request(FAILED)));
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbcTemplate, times(2)).query(sql.capture(), params.capture(), any(RowMapper.class));
+        assertFalse(sql.getAllValues().get(0).contains(":afterOrderId"));
+        assertTrue(sql.getAllValues().get(1).contains("(created_at, order_id) > (:afterCreatedAt, :afterOrderId)"));
+        assertEquals("O2", params.getAllValues().get(1).getValue("afterOrderId"));
+        assertEquals(FROM.plusMinutes(2), params.getAllValues().get(1).getValue("afterCreatedAt"));
+    }
+
+    @Test
+    void shouldSkipOrdersNoLongerFailed() {
+        pages(List.of(candidate("O1", 1)));
+        when(transitionService.transition("O1", FAILED, PENDING, null)).thenReturn(false);
+
+        ReprocessingJobResponse job = awaitFinished(service.start(request(FAILED)));
+
+        assertEquals(Map.of("SKIPPED", 1L), job.getOutcomes());
+        verifyNoInteractions(processingService);
+    }
+
+    @Test
+    void shouldProcessStuckPendingOrdersWithoutTransition() {
+        pages(List.of(candidate("O1", 1)));
+        statuses.put("O1", PENDING_APPROVAL);
+
+        ReprocessingJobResponse job = awaitFinished(service.start(request(PENDING)));
+
+        assertEquals(Map.of("PENDING_APPROVAL", 1L), job.getOutcomes());
+        verifyNoInteractions(transitionService);
+    }
+
+    @Test
+    void shouldAbortWhenCatalogKeepsFailing() {
+        pages(List.of(candidate("O1", 1), candidate("O2", 2)), List.of(candidate("O3", 3), candidate("O4", 4)));
+        ReflectionTestUtils.setField(service, "maxConcurrency", 1);
+        doThrow(new RetryableException(503, "catalog down", Request.HttpMethod.GET, (Long) null,
+                Request.create(Request.HttpMethod.GET, "/api/products", Map.of(), new byte[0], StandardCharsets.UTF_8, null)))
+                .when(processingService).process(anyString(), any(), isNull());
+
+        ReprocessingJobResponse job = awaitFinished(service.start(request(FAILED)));
+
+        assertEquals("ABORTED", job.getState());
+        assertTrue(job.getMessage().contains("consecutive transient failures"));
+        assertTrue(job.getAttempted() < 4);
+    }
+
+    @Test
+    void shouldOnlyCountMatchesOnDryRun() {
+        pages(List.of(candidate("O1", 1), candidate("O2", 2)), List.of());
+        ReprocessOrdersRequest request = request(FAILED);
+        request.setDryRun(true);
+
+        ReprocessingJobResponse job = awaitFinished(service.start(request));
+
+        assertEquals(2, job.getScanned());
+        assertEquals(0, job.getAttempted());
+        verifyNoInteractions(transitionService, processingService);
+    }
+
+    @Test
+    void shouldLeaveOutOrdersYoungerThanMinimumAgeByDefault() {
+        pages(List.of());
+        ReprocessOrdersRequest request = request(PENDING);
+        request.setCreatedTo(null);
+        LocalDateTime before = LocalDateTime.now().minusMinutes(5);
+
+        ReprocessingJobResponse job = awaitFinished(service.start(request));
+
+        assertFalse(job.getCreatedTo().isBefore(before));
+        assertTrue(job.getCreatedTo().isBefore(LocalDateTime.now().minusMinutes(4)));
+    }
+
+    @Test
+    void shouldRejectStatusesThatCannotBeReprocessed() {
+        assertThrows(InvalidStatusTransitionException.class, () -> service.start(request(PROCESSED)));
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void shouldFailForUnknownJob() {
+        assertThrows(ReprocessingJobNotFoundException.class, () -> service.get("missing"));
+    }
+
+    @SafeVarargs
+    private void pages(List<OrderReprocessingService.Candidate>... pages) {
+        var stub = when(jdbcTemplate.query(anyString(), any(MapSqlParameterSource.class), any(RowMapper.class)));
+        for (List<OrderReprocessingService.Candidate> page : pages) {
+            stub = stub.thenReturn(page);
+        }
+    }
+
+    private ReprocessingJobResponse awaitFinished(ReprocessingJobResponse started) {
+        await().atMost(Duration.ofSeconds(5)).until(() -> service.get(started.getJobId()).getFinishedAt() != null);
+        return service.get(started.getJobId());
+    }
+
+    private ReprocessOrdersRequest request(OrderStatus status) {
+        return ReprocessOrdersRequest.builder()
+                .status(status)
+                .reasonPattern("%RetryableException%")
+                .createdFrom(FROM)
+                .createdTo(FROM.plusDays(1))
+                .build();
+    }
+
+    private static OrderReprocessingService.Candidate candidate(String orderId, int minute) {
+        return new OrderReprocessingService.Candidate(orderId, FROM.plusMinutes(minute));
+    }
+}
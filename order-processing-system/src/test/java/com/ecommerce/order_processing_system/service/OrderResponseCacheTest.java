@@ -0,0 +1,73 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.domain.OrderStatus;
+import com.ecommerce.order_processing_system.dto.OrderResponse;
+import com.ecommerce.order_processing_system.exception.OrderNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderResponseCacheTest {
+
+    private OrderResponseCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new OrderResponseCache(new ObjectMapper());
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "inFlightTtlSeconds", 60L);
+        ReflectionTestUtils.setField(cache, "terminalTtlMinutes", 10L);
+        cache.init();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromCache() {
+        Supplier<OrderResponse> loader = loader(OrderStatus.PENDING);
+
+        byte[] first = cache.get("ORDER-1", loader);
+        byte[] second = cache.get("ORDER-1", loader);
+
+        assertEquals(1, loads.get());
+        assertArrayEquals(first, second);
+        assertTrue(new String(first, StandardCharsets.UTF_8).contains("\"status\":\"PENDING\""));
+    }
+
+    @Test
+    void shouldReloadAfterEviction() {
+        cache.get("ORDER-1", loader(OrderStatus.PENDING));
+        cache.evictAfterCommit("ORDER-1");
+
+        byte[] body = cache.get("ORDER-1", loader(OrderStatus.PROCESSED));
+
+        assertEquals(2, loads.get());
+        assertTrue(new String(body, StandardCharsets.UTF_8).contains("\"status\":\"PROCESSED\""));
+    }
+
+    @Test
+    void shouldNotCacheMissingOrders() {
+        assertThrows(OrderNotFoundException.class, () -> cache.get("ORDER-404", () -> {
+            loads.incrementAndGet();
+            throw new OrderNotFoundException("Order ORDER-404 not found");
+        }));
+
+        cache.get("ORDER-404", loader(OrderStatus.PENDING));
+
+        assertEquals(2, loads.get());
+    }
+
+    private Supplier<OrderResponse> loader(OrderStatus status) {
+        return () -> {
+            loads.incrementAndGet();
+            return OrderResponse.builder().orderId("ORDER-1").status(status).build();
+        };
+    }
+}
@@ -10,6 +10,7 @@ import com.ecommerce.order_processing_system.exception.OrderNotFoundException;
 import com.ecommerce.order_processing_system.exception.OutOfStockException;
 import com.ecommerce.order_processing_system.kafka.producer.KafkaEventPublisher;
 import com.ecommerce.order_processing_system.kafka.events.OrderCreatedEvent;
+import com.ecommerce.order_processing_system.repository.OrderArchiveStore;
 import com.ecommerce.order_processing_system.repository.OrderRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -44,6 +45,12 @@ class OrderServiceTest {
     @Mock
     private KafkaEventPublisher eventPublisher;
 
+    @Mock
+    private OrderArchiveStore archiveStore;
+
+    @Mock
+    private OrderPipelineMetrics pipelineMetrics;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -138,6 +145,15 @@ class OrderServiceTest {
         );
     }
 
+    @Test
+    void shouldReadArchivedOrderWhenNotInHotTables() {
+        OrderResponse archived = OrderResponse.builder().orderId("ORDER-OLD").build();
+        when(orderRepository.findById("ORDER-OLD")).thenReturn(Optional.empty());
+        when(archiveStore.find("ORDER-OLD")).thenReturn(Optional.of(archived));
+
+        assertSame(archived, orderService.getOrder("ORDER-OLD"));
+    }
+
     @Test
     void shouldReturnOrdersByCustomer() {
         Order order1 = Order.builder()
@@ -159,4 +175,23 @@ class OrderServiceTest {
         verify(orderRepository).findByCustomerId("CUSTOMER-1");
     }
 
+    @Test
+    void shouldKeepHotCopyOfOrderAlsoFoundInArchive() {
+        Order hot = Order.builder()
+                .orderId("O1")
+                .status(PENDING)
+                .items(List.of())
+                .build();
+        OrderResponse archivedCopy = OrderResponse.builder().orderId("O1").build();
+        OrderResponse archivedOnly = OrderResponse.builder().orderId("O-OLD").build();
+
+        when(orderRepository.findByCustomerId("CUSTOMER-1")).thenReturn(List.of(hot));
+        when(archiveStore.findByCustomer("CUSTOMER-1")).thenReturn(List.of(archivedCopy, archivedOnly));
+
+        List<OrderResponse> orders = orderService.getOrdersByCustomer("CUSTOMER-1");
+
+        assertEquals(List.of("O1", "O-OLD"), orders.stream().map(OrderResponse::getOrderId).toList());
+        assertEquals(PENDING, orders.get(0).getStatus());
+    }
+
 }
@@ -0,0 +1,76 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.exception.InvalidStatusTransitionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static com.ecommerce.order_processing_system.domain.OrderStatus.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatusTransitionServiceTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private OrderResponseCache responseCache;
+
+    @InjectMocks
+    private OrderStatusTransitionService service;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+    }
+
+    @Test
+    void shouldRejectTransitionNotInStateMachine() {
+        assertThrows(InvalidStatusTransitionException.class,
+                () -> service.transitionAll(List.of("O1"), PROCESSED, PENDING, null));
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void shouldReportWhichOrdersActuallyTransitioned() {
+        when(jdbcTemplate.queryForList(anyString(), any(MapSqlParameterSource.class), eq(String.class)))
+                .thenReturn(List.of("O1"))
+                .thenReturn(List.of());
+
+        OrderStatusTransitionService.TransitionResult result =
+                service.transitionAll(List.of("O1", "O2", "O3"), PENDING_APPROVAL, PROCESSED, null);
+
+        assertEquals(List.of("O1"), result.transitioned());
+        assertEquals(List.of("O2", "O3"), result.skipped());
+        verify(jdbcTemplate, times(2)).queryForList(anyString(), any(MapSqlParameterSource.class), eq(String.class));
+        verify(jdbcTemplate, times(1)).update(anyString(), any(MapSqlParameterSource.class));
+        verify(responseCache).evictAfterCommit("O1");
+        verifyNoMoreInteractions(responseCache);
+    }
+
+    @Test
+    void shouldConditionUpdateOnExpectedStatus() {
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        when(jdbcTemplate.queryForList(anyString(), params.capture(), eq(String.class))).thenReturn(List.of());
+
+        assertFalse(service.transition("O1", FAILED, PENDING, null));
+
+        assertEquals("FAILED", params.getValue().getValue("from"));
+        assertEquals("PENDING", params.getValue().getValue("to"));
+        assertEquals(List.of("O1"), params.getValue().getValue("orderIds"));
+        verify(jdbcTemplate, never()).update(anyString(), any(MapSqlParameterSource.class));
+    }
+}
@@ -0,0 +1,123 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.domain.OrderStatus;
+import com.ecommerce.order_processing_system.domain.OrderView;
+import com.ecommerce.order_processing_system.domain.ProductType;
+import com.ecommerce.order_processing_system.dto.OrderItemResponse;
+import com.ecommerce.order_processing_system.dto.OrderResponse;
+import com.ecommerce.order_processing_system.kafka.events.OrderCreatedEvent;
+import com.ecommerce.order_processing_system.repository.OrderArchiveStore;
+import com.ecommerce.order_processing_system.repository.OrderViewRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderViewServiceTest {
+
+    @Mock
+    private OrderViewRepository repository;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private OrderResponseCache responseCache;
+
+    @Mock
+    private OrderArchiveStore archiveStore;
+
+    private OrderViewService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new OrderViewService(repository, orderService, new ObjectMapper(), responseCache, archiveStore);
+    }
+
+    @Test
+    void shouldServeOrderFromReadModel() {
+        OrderView view = OrderView.builder()
+                .orderId("ORDER-1")
+                .customerId("CUSTOMER-1")
+                .status(OrderStatus.PROCESSED)
+                .totalAmount(new BigDecimal("50.00"))
+                .items(List.of(OrderItemResponse.builder().productId("PROD-1").build()))
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        when(repository.findById("ORDER-1")).thenReturn(Optional.of(view));
+
+        OrderResponse response = service.getOrder("ORDER-1");
+
+        assertEquals(OrderStatus.PROCESSED, response.getStatus());
+        assertEquals("PROD-1", response.getItems().get(0).getProductId());
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void shouldFallBackToAggregateWhenCreatedEventNotProjectedYet() {
+        OrderView partial = OrderView.builder()
+                .orderId("ORDER-1")
+                .status(OrderStatus.PROCESSED)
+                .build();
+        OrderResponse aggregate = OrderResponse.builder().orderId("ORDER-1").build();
+
+        when(repository.findById("ORDER-1")).thenReturn(Optional.of(partial));
+        when(orderService.getOrder("ORDER-1")).thenReturn(aggregate);
+
+        assertSame(aggregate, service.getOrder("ORDER-1"));
+    }
+
+    @Test
+    void shouldKeepReadModelCopyOfOrderAlsoFoundInArchive() {
+        OrderView view = OrderView.builder()
+                .orderId("ORDER-1")
+                .customerId("CUSTOMER-1")
+                .status(OrderStatus.PROCESSED)
+                .build();
+        OrderResponse archivedCopy = OrderResponse.builder().orderId("ORDER-1").status(OrderStatus.PENDING).build();
+        OrderResponse archivedOnly = OrderResponse.builder().orderId("ORDER-OLD").build();
+
+        when(repository.findByCustomerId("CUSTOMER-1")).thenReturn(List.of(view));
+        when(archiveStore.findByCustomer("CUSTOMER-1")).thenReturn(List.of(archivedCopy, archivedOnly));
+
+        List<OrderResponse> orders = service.getOrdersByCustomer("CUSTOMER-1");
+
+        assertEquals(List.of("ORDER-1", "ORDER-OLD"), orders.stream().map(OrderResponse::getOrderId).toList());
+        assertEquals(OrderStatus.PROCESSED, orders.get(0).getStatus());
+    }
+
+    @Test
+    void shouldProjectCreatedEventWithItemsAsJson() {
+        OrderCreatedEvent event = OrderCreatedEvent.of(
+                "ORDER-1",
+                "CUSTOMER-1",
+                List.of(OrderItemResponse.builder().productId("PROD-1").productType(ProductType.PHYSICAL).build()),
+                new BigDecimal("50.00")
+        );
+
+        service.projectCreated(event);
+
+        verify(repository).upsertCreated(
+                eq("ORDER-1"),
+                eq("CUSTOMER-1"),
+                contains("\"productId\":\"PROD-1\""),
+                eq(new BigDecimal("50.00")),
+                any(LocalDateTime.class)
+        );
+        verify(responseCache).evictAfterCommit("ORDER-1");
+    }
+}
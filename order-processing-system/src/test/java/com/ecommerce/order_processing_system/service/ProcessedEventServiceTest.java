@@ -0,0 +1,70 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.repository.ProcessedEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProcessedEventServiceTest {
+
+    @Mock
+    private ProcessedEventRepository repository;
+
+    @InjectMocks
+    private ProcessedEventService service;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "cacheMaxSize", 100L);
+        ReflectionTestUtils.setField(service, "cacheTtlMinutes", 60L);
+        ReflectionTestUtils.setField(service, "retentionDays", 7L);
+        service.init();
+    }
+
+    @Test
+    void shouldAnswerRepeatedLookupsFromMemory() {
+        when(repository.existsById("EVT-1")).thenReturn(true);
+
+        assertTrue(service.isProcessed("EVT-1"));
+        assertTrue(service.isProcessed("EVT-1"));
+
+        verify(repository, times(1)).existsById("EVT-1");
+    }
+
+    @Test
+    void shouldTreatEventsWithoutIdAsUnprocessed() {
+        assertFalse(service.isProcessed(null));
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void shouldRememberEventAlreadyClaimedElsewhere() {
+        when(repository.insertIfAbsent(eq("EVT-2"), any(LocalDateTime.class))).thenReturn(0);
+
+        assertFalse(service.claim("EVT-2"));
+        assertTrue(service.isProcessed("EVT-2"));
+
+        verify(repository, never()).existsById(any());
+    }
+
+    @Test
+    void shouldPurgeIdsOlderThanRetention() {
+        service.purgeExpired();
+
+        verify(repository).deleteProcessedBefore(argThat(cutoff ->
+                cutoff.isBefore(LocalDateTime.now().minusDays(6)) && cutoff.isAfter(LocalDateTime.now().minusDays(8))));
+    }
+}
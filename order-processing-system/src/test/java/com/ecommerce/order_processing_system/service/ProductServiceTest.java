@@ -1,6 +1,7 @@
 package com.ecommerce.order_processing_system.service;
 
 import com.ecommerce.order_processing_system.client.ProductCatalogClient;
+import com.ecommerce.order_processing_system.domain.ReservationJournalEntry;
 import com.ecommerce.order_processing_system.dto.ProductDTO;
 import com.ecommerce.order_processing_system.exception.ProductIsNotAvailableException;
 import com.ecommerce.order_processing_system.exception.ProductNotFoundException;
@@ -11,7 +12,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.function.BooleanSupplier;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -21,6 +27,9 @@ class ProductServiceTest {
     @Mock
     private ProductCatalogClient client;
 
+    @Mock
+    private ReservationJournalService reservations;
+
     @InjectMocks
     private ProductService productService;
 
@@ -84,6 +93,8 @@ class ProductServiceTest {
 
     @Test
     void shouldReservePreOrderSlotsSuccessfully() {
+        when(reservations.reserve(eq(ReservationJournalEntry.Kind.PRE_ORDER_SLOTS), eq("PROD-1"), eq(5), any()))
+                .thenAnswer(inv -> ((BooleanSupplier) inv.getArgument(3)).getAsBoolean());
         when(client.reservePreOrderSlots("PROD-1", 5)).thenReturn(true);
 
         boolean result = productService.reservePreOrderSlots("PROD-1", 5);
@@ -91,4 +102,20 @@ class ProductServiceTest {
         assertTrue(result);
         verify(client).reservePreOrderSlots("PROD-1", 5);
     }
+
+    @Test
+    void shouldShareCatalogLookupsAndTrackStockWithinBatch() {
+        activeProduct.setStockQuantity(10);
+        when(client.getProduct("PROD-1")).thenReturn(activeProduct);
+        when(client.updateStock("PROD-1", 7)).thenReturn(true);
+
+        Integer stockSeenBySecondOrder = productService.withSharedLookups(() -> {
+            productService.getProductOrThrow("PROD-1");
+            productService.updateStock("PROD-1", 7);
+            return productService.getProductOrThrow("PROD-1").getStockQuantity();
+        });
+
+        assertEquals(7, stockSeenBySecondOrder);
+        verify(client, times(1)).getProduct("PROD-1");
+    }
 }
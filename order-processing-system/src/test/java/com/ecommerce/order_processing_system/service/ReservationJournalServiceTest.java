@@ -0,0 +1,174 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.client.ProductCatalogClient;
+import com.ecommerce.order_processing_system.domain.ReservationJournalEntry;
+import com.ecommerce.order_processing_system.dto.StockReleaseRequest;
+import com.ecommerce.order_processing_system.repository.ReservationJournalRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.ecommerce.order_processing_system.domain.ReservationJournalEntry.Kind.STOCK;
+import static com.ecommerce.order_processing_system.domain.ReservationJournalEntry.Status.RELEASING;
+import static com.ecommerce.order_processing_system.domain.ReservationJournalEntry.Status.RESERVED;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationJournalServiceTest {
+
+    @Mock
+    private ReservationJournalRepository repository;
+
+    @Mock
+    private ProductCatalogClient client;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReservationJournalService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ReservationJournalService(repository, client, transactionManager);
+        ReflectionTestUtils.setField(service, "reconcileBatchSize", 200);
+        ReflectionTestUtils.setField(service, "staleAfterMinutes", 10L);
+        ReflectionTestUtils.setField(service, "releaseRetryAfterSeconds", 60L);
+        lenient().when(repository.save(any())).thenAnswer(inv -> {
+            ReservationJournalEntry entry = inv.getArgument(0);
+            entry.setId(7L);
+            return entry;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.closeAttempt();
+    }
+
+    @Test
+    void shouldJournalReservationBeforeCallingCatalog() {
+        String attempt = service.openAttempt("ORDER-1");
+
+        boolean reserved = service.reserve(STOCK, "PROD-1", 2, () -> {
+            verify(repository).save(any());
+            return true;
+        });
+
+        assertTrue(reserved);
+        ArgumentCaptor<ReservationJournalEntry> saved = ArgumentCaptor.forClass(ReservationJournalEntry.class);
+        verify(repository).save(saved.capture());
+        assertEquals(attempt, saved.getValue().getAttemptId());
+        assertEquals(RESERVED, saved.getValue().getStatus());
+        verify(repository, never()).deleteById(any());
+    }
+
+    @Test
+    void shouldDropEntryWhenCatalogRejectsReservation() {
+        service.openAttempt("ORDER-1");
+
+        assertFalse(service.reserve(STOCK, "PROD-1", 2, () -> false));
+
+        verify(repository).deleteById(7L);
+    }
+
+    @Test
+    void shouldDropEntryWhenCatalogCallThrows() {
+        service.openAttempt("ORDER-1");
+
+        assertThrows(IllegalStateException.class, () -> service.reserve(STOCK, "PROD-1", 2, () -> {
+            throw new IllegalStateException("sold out");
+        }));
+
+        verify(repository).deleteById(7L);
+    }
+
+    @Test
+    void shouldNotJournalOutsideAnAttempt() {
+        assertTrue(service.reserve(STOCK, "PROD-1", 2, () -> true));
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void shouldReleaseFailedAttemptInOneCatalogCall() {
+        ReservationJournalEntry first = entry(1L, "PROD-1", RELEASING);
+        ReservationJournalEntry second = entry(2L, "PROD-2", RELEASING);
+        when(repository.markReleasing(List.of("ATT-1"))).thenReturn(2);
+        when(repository.findByAttemptIdInAndStatus(List.of("ATT-1"), RELEASING)).thenReturn(List.of(first, second));
+        when(client.releaseReservations(anyList())).thenReturn(List.of(first.releaseId(), second.releaseId()));
+
+        service.release("ATT-1");
+
+        verify(client, times(1)).releaseReservations(argThat(requests -> requests.size() == 2));
+        verify(repository).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    void shouldKeepUnacknowledgedReleasesForTheReconciler() {
+        ReservationJournalEntry first = entry(1L, "PROD-1", RELEASING);
+        ReservationJournalEntry second = entry(2L, "PROD-2", RELEASING);
+        when(client.releaseReservations(anyList())).thenReturn(List.of(second.releaseId()));
+
+        service.sendReleases(List.of(first, second));
+
+        verify(repository).deleteAllByIdInBatch(List.of(2L));
+    }
+
+    @Test
+    void shouldSurviveCatalogOutageWhileReleasing() {
+        when(client.releaseReservations(anyList())).thenThrow(new IllegalStateException("catalog down"));
+
+        assertDoesNotThrow(() -> service.sendReleases(List.of(entry(1L, "PROD-1", RELEASING))));
+
+        verify(repository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void shouldSkipReleaseWhenNothingWasReserved() {
+        when(repository.markReleasing(List.of("ATT-1"))).thenReturn(0);
+
+        service.release("ATT-1");
+
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReplayUnsettledEntriesOnReconcile() {
+        ReservationJournalEntry abandoned = entry(3L, "PROD-3", RESERVED);
+        when(repository.findUnsettled(any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(abandoned));
+        when(client.releaseReservations(anyList())).thenReturn(List.of(abandoned.releaseId()));
+
+        service.reconcile();
+
+        ArgumentCaptor<List<StockReleaseRequest>> sent = ArgumentCaptor.forClass(List.class);
+        verify(client).releaseReservations(sent.capture());
+        assertEquals("order-reservation-3", sent.getValue().get(0).getReleaseId());
+        verify(repository).deleteAllByIdInBatch(List.of(3L));
+    }
+
+    private ReservationJournalEntry entry(Long id, String productId, ReservationJournalEntry.Status status) {
+        return ReservationJournalEntry.builder()
+                .id(id)
+                .attemptId("ATT-1")
+                .orderId("ORDER-1")
+                .productId(productId)
+                .kind(STOCK)
+                .quantity(2)
+                .status(status)
+                .build();
+    }
+}
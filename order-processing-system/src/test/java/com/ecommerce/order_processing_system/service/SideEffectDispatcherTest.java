@@ -0,0 +1,113 @@
+package com.ecommerce.order_processing_system.service;
+
+import com.ecommerce.order_processing_system.service.SideEffectDispatcher.SideEffect;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SideEffectDispatcherTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SideEffectDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new SideEffectDispatcher(meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "threads", 2);
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 10);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "initialBackoffMs", 1L);
+        ReflectionTestUtils.setField(dispatcher, "maxBackoffMs", 5L);
+        dispatcher.init();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldCollectRecordedEffectsWithoutRunningThem() {
+        AtomicInteger runs = new AtomicInteger();
+
+        List<SideEffect> effects = dispatcher.capture(() -> dispatcher.record("digital.email", runs::incrementAndGet));
+
+        assertEquals(1, effects.size());
+        assertEquals("digital.email", effects.get(0).action());
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void shouldRunEffectsOnlyAfterCommit() throws InterruptedException {
+        CountDownLatch ran = new CountDownLatch(1);
+        TransactionSynchronizationManager.initSynchronization();
+
+        dispatcher.executeAfterCommit(List.of(new SideEffect("digital.email", ran::countDown)));
+
+        assertFalse(ran.await(50, TimeUnit.MILLISECONDS));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldRunEffectsOffTheCallingThreadWithoutTransaction() throws InterruptedException {
+        Thread caller = Thread.currentThread();
+        CountDownLatch ran = new CountDownLatch(1);
+        AtomicInteger sameThread = new AtomicInteger();
+
+        dispatcher.executeAfterCommit(List.of(new SideEffect("physical.payment", () -> {
+            if (Thread.currentThread() == caller) {
+                sameThread.incrementAndGet();
+            }
+            ran.countDown();
+        })));
+
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertEquals(0, sameThread.get());
+    }
+
+    @Test
+    void shouldRetryFailingEffectUntilItSucceeds() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        dispatcher.execute(new SideEffect("physical.payment", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("gateway down");
+            }
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(1, meterRegistry.get("order.side_effects.duration")
+                .tags("action", "physical.payment", "outcome", "success").timer().count());
+        assertNull(meterRegistry.find("order.side_effects.exhausted").counter());
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        dispatcher.execute(new SideEffect("digital.email", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("smtp down");
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(1.0, meterRegistry.get("order.side_effects.exhausted")
+                .tags("action", "digital.email").counter().count());
+    }
+}
@@ -1,11 +1,14 @@
 package com.loomi.product_catalog_service.api;
 
 import com.loomi.product_catalog_service.api.dto.ProductDto;
+import com.loomi.product_catalog_service.api.dto.StockReleaseRequest;
 import com.loomi.product_catalog_service.application.ProductService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/products")
@@ -28,4 +31,9 @@ public class ProductController {
         return ResponseEntity.ok().body(productService.reservePreOrder(productId, quantity));
     }
 
+    @PostMapping("/releases")
+    public ResponseEntity<List<String>> releaseReservations(@RequestBody List<StockReleaseRequest> releases) {
+        return ResponseEntity.ok().body(productService.releaseReservations(releases));
+    }
+
 }
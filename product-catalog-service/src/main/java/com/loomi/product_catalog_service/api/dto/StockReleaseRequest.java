@@ -0,0 +1,7 @@
+package com.loomi.product_catalog_service.api.dto;
+
+import com.loomi.product_catalog_service.domain.StockRelease;
+
+public record StockReleaseRequest(String releaseId, String productId, StockRelease.Kind kind, Integer quantity) {
+
+}
@@ -1,16 +1,22 @@
 package com.loomi.product_catalog_service.application;
 
 import com.loomi.product_catalog_service.api.dto.ProductDto;
+import com.loomi.product_catalog_service.api.dto.StockReleaseRequest;
 import com.loomi.product_catalog_service.domain.Product;
+import com.loomi.product_catalog_service.domain.StockRelease;
 import com.loomi.product_catalog_service.domain.exeception.ProductNotFoundException;
 import com.loomi.product_catalog_service.infrastructure.ProductRepository;
+import com.loomi.product_catalog_service.infrastructure.StockReleaseRepository;
 import com.loomi.product_catalog_service.infrastructure.mapper.ProductMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Slf4j
 @Service
@@ -19,6 +25,7 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final ProductMapper mapper;
+    private final StockReleaseRepository stockReleaseRepository;
 
     @Transactional(readOnly = true)
     public ProductDto getProduct(String productId) {
@@ -64,4 +71,41 @@ public class ProductService {
         return true;
     }
 
+    /**
+     * Returns reserved stock or pre-order slots to their products. Each release id is applied at most once;
+     * the ids of applied and previously applied releases are returned so the caller can drop them.
+     */
+    @Transactional
+    public List<String> releaseReservations(List<StockReleaseRequest> releases) {
+        List<String> acknowledged = new ArrayList<>();
+        for (StockReleaseRequest release : releases) {
+            if (stockReleaseRepository.existsById(release.releaseId())) {
+                acknowledged.add(release.releaseId());
+                continue;
+            }
+
+            Optional<Product> found = productRepository.findByProductIdForUpdate(release.productId());
+            if (found.isEmpty()) {
+                log.warn("Release {} targets unknown product {}, nothing to return", release.releaseId(), release.productId());
+            } else {
+                Product product = found.get();
+                if (release.kind() == StockRelease.Kind.PRE_ORDER_SLOTS) {
+                    Object slots = product.getMetadata().get("preOrderSlots");
+                    int availableSlots = slots != null ? Integer.parseInt(slots.toString()) : 0;
+                    product.getMetadata().put("preOrderSlots", availableSlots + release.quantity());
+                } else {
+                    int stock = product.getStockQuantity() != null ? product.getStockQuantity() : 0;
+                    product.setStockQuantity(stock + release.quantity());
+                }
+                productRepository.save(product);
+                log.info("Released {} {} of product {} for release {}",
+                        release.quantity(), release.kind(), release.productId(), release.releaseId());
+            }
+
+            stockReleaseRepository.save(new StockRelease(release.releaseId(), release.productId(),
+                    release.kind(), release.quantity(), null));
+            acknowledged.add(release.releaseId());
+        }
+        return acknowledged;
+    }
 }
@@ -0,0 +1,45 @@
+package com.loomi.product_catalog_service.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "stock_releases")
+public class StockRelease {
+
+    @Id
+    @Column(name = "release_id")
+    private String releaseId;
+
+    @Column(name = "product_id", nullable = false)
+    private String productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false)
+    private Kind kind;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    @Column(name = "applied_at", nullable = false, updatable = false)
+    private OffsetDateTime appliedAt;
+
+    public enum Kind {
+        STOCK,
+        PRE_ORDER_SLOTS
+    }
+
+    @PrePersist
+    private void onCreate() {
+        if (appliedAt == null) {
+            appliedAt = OffsetDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.loomi.product_catalog_service.infrastructure;
+
+import com.loomi.product_catalog_service.domain.StockRelease;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface StockReleaseRepository extends JpaRepository<StockRelease, String> {
+}
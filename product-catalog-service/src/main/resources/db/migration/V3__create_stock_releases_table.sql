@@ -0,0 +1,9 @@
+-- One row per compensating release applied; release ids come from the caller's reservation journal,
+-- so a release replayed after a timeout or crash is acknowledged without returning stock twice.
+CREATE TABLE stock_releases (
+  release_id VARCHAR(100) PRIMARY KEY,
+  product_id VARCHAR(50) NOT NULL,
+  kind VARCHAR(20) NOT NULL,
+  quantity INTEGER NOT NULL,
+  applied_at TIMESTAMP WITH TIME ZONE DEFAULT NOW() NOT NULL
+);